@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.controller.CurrencyExchangeController;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.controller.dto.responses.ExchangeResponse;
+import org.example.service.BankCalendar;
+import org.example.service.CurrencyExchangeService;
+import org.example.service.RateUpdates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Requests through Spring MVC's dispatcher into {@link CurrencyExchangeController} and out as JSON, with the
+ * service answering instantly. Covers request mapping, body binding and validation, and response serialization
+ * with the message converters Spring picks by default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ControllerSerializationBenchmark {
+
+    private static final String EXCHANGE_REQUEST = "{\"currencyFrom\":\"USD\",\"currencyTo\":\"EUR\",\"amount\":100.0}";
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        CurrencyExchangeService service = mock(CurrencyExchangeService.class);
+        when(service.getLatestExchangeRate(Currency.USD, Currency.EUR))
+                .thenReturn(new ExchangeRateResponse("USD", "EUR", 0.92, "2024-01-15", false));
+        when(service.exchangeCurrency(Currency.USD, Currency.EUR, 100.0))
+                .thenReturn(new ExchangeResponse(Currency.USD, Currency.EUR, 100.0, 92.0, 0.92));
+        mockMvc = MockMvcBuilders.standaloneSetup(new CurrencyExchangeController(service, mock(RateUpdates.class), mock(BankCalendar.class), new ObjectMapper())).build();
+    }
+
+    @Benchmark
+    public String currentRate() throws Exception {
+        return mockMvc.perform(get("/api/currency/current-rates/USD/EUR"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    @Benchmark
+    public String exchange() throws Exception {
+        return mockMvc.perform(post("/api/currency/exchange")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(EXCHANGE_REQUEST))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.external.dto.CrossRateResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson deserialization of a {@code CrossRates} response into {@link CrossRateResponse} records, from a
+ * {@code String} with a fresh {@code TypeReference} and from the raw bytes with the reader
+ * {@code RiksbankenApi} builds once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CrossRateDecodingBenchmark {
+
+    /**
+     * One week and one year of bank days.
+     */
+    @Param({"5", "250"})
+    public int crossRates;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader cachedReader = objectMapper.readerFor(new TypeReference<List<CrossRateResponse>>() {
+    });
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate date = LocalDate.of(2024, 1, 2);
+        for (int i = 0; i < crossRates; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"date\":\"").append(date).append("\",\"value\":").append(1.08 + (i % 50) / 1000.0).append('}');
+            date = date.plusDays(1);
+        }
+        body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<CrossRateResponse> stringBodyWithTypeReference() throws IOException {
+        String text = new String(body, StandardCharsets.UTF_8);
+        return objectMapper.readValue(text, new TypeReference<>() {
+        });
+    }
+
+    @Benchmark
+    public List<CrossRateResponse> bytesWithCachedReader() throws IOException {
+        return cachedReader.readValue(new ByteArrayInputStream(body));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.external.dto.ObservationSeries;
+import org.example.metrics.RateMetrics;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.projections.StoredRate;
+import org.example.service.RateHistory;
+import org.example.service.RateMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The rate path with 30 currencies registered, about what discovery finds: parsing a code, triangulating all
+ * 900 pairs from the SEK series, and the stored-rate lookup, triangulated from the in-memory history as it
+ * grows now that only the SEK series are stored.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CurrencyRegistryBenchmark {
+
+    private static final List<String> DISCOVERED = List.of("AUD", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "GBP",
+            "HKD", "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MAD", "MXN", "NOK", "NZD", "PLN", "RUB", "SAR",
+            "SGD", "THB", "TRY", "ZAR");
+
+    static {
+        // Registered before anything reads the currencies, as CurrencyRegistryLoader does at startup
+        for (String code : DISCOVERED) {
+            Currency.register(code, "SEK" + code + "PMI");
+        }
+    }
+
+    @Param({"1000", "10000"})
+    public int daysPerSeries;
+
+    private final Map<Currency, ObservationSeries> series = new LinkedHashMap<>();
+    private RateHistory rateHistory;
+    private Currency currencyFrom;
+    private Currency currencyTo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateHistory = new RateHistory(mock(CurrencyExchangeRepository.class), mock(ExchangeRateBatchWriter.class),
+                new RateMetrics(new SimpleMeterRegistry()));
+        int firstDay = (int) LocalDate.now().minusDays(daysPerSeries).toEpochDay();
+        for (Currency currency : Currency.values()) {
+            if (currency.isBaseCurrency()) {
+                continue;
+            }
+            int[] days = new int[daysPerSeries];
+            double[] values = new double[daysPerSeries];
+            for (int i = 0; i < daysPerSeries; i++) {
+                days[i] = firstDay + i;
+                values[i] = 1.0 + currency.id() + (i % 100) / 1000.0;
+            }
+            ObservationSeries currencySeries = new ObservationSeries(days, values);
+            series.put(currency, currencySeries);
+            rateHistory.record(currency, currencySeries);
+        }
+        currencyFrom = Currency.valueOf("NOK");
+        currencyTo = Currency.valueOf("JPY");
+    }
+
+    @Benchmark
+    public Currency parseCode() {
+        return Currency.valueOf("NOK");
+    }
+
+    @Benchmark
+    public RateMatrix triangulateAllPairs() {
+        return RateMatrix.fromSeries(series);
+    }
+
+    @Benchmark
+    public StoredRate latestStoredRate() {
+        return rateHistory.latest(currencyFrom, currencyTo);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.mapper.ExchangeRateMapper;
+import org.example.repository.entities.ExchangeRate;
+import org.example.repository.projections.StoredRate;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ExchangeRateMapper#toDto} from the entity and from the projection the latest-rate query returns.
+ * Both format the rate date into a string, which is most of the cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExchangeRateMappingBenchmark {
+
+    private final ExchangeRateMapper mapper = Mappers.getMapper(ExchangeRateMapper.class);
+    private final ExchangeRate entity = new ExchangeRate(Currency.USD, 0.92, LocalDate.of(2024, 1, 15), Currency.EUR);
+    private final StoredRate projection = new StoredRate(Currency.USD, Currency.EUR, 0.92, LocalDate.of(2024, 1, 15));
+
+    @Benchmark
+    public ExchangeRateResponse fromEntity() {
+        return mapper.toDto(entity);
+    }
+
+    @Benchmark
+    public ExchangeRateResponse fromProjection() {
+        return mapper.toDto(projection);
+    }
+}
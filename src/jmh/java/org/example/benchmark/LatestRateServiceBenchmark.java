@@ -0,0 +1,123 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.RoundingMode;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.cache.ExchangeRateCache;
+import org.example.config.ClusterProperties;
+import org.example.config.MoneyProperties;
+import org.example.config.RiksbankenProperties;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.CircuitBreaker;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.example.mapper.ExchangeRateMapper;
+import org.example.metrics.RateMetrics;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.FetchLeaseStore;
+import org.example.service.BankCalendar;
+import org.example.service.CrossRateEngine;
+import org.example.service.CurrencyExchangeServiceImpl;
+import org.example.service.FetchLeadership;
+import org.example.service.MoneyConverter;
+import org.example.service.RateHistory;
+import org.example.service.RateUpdates;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link CurrencyExchangeServiceImpl#getLatestExchangeRate} wired with the real cache, cross-rate engine, rate
+ * history and mapper. The Riksbank API answers from prebuilt series and the database is stubbed, so the numbers
+ * cover the service's own work: a cache hit, and a full refresh that fetches, triangulates and publishes every
+ * pair.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LatestRateServiceBenchmark {
+
+    private final ExchangeRateCache rateCache = new ExchangeRateCache();
+    private CurrencyExchangeServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+        CurrencyExchangeRepository repository = mock(CurrencyExchangeRepository.class);
+        ExchangeRateBatchWriter batchWriter = mock(ExchangeRateBatchWriter.class);
+        BankCalendar bankCalendar = mock(BankCalendar.class);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class))).thenReturn(true);
+
+        RateHistory rateHistory = new RateHistory(repository, batchWriter, metrics);
+        CrossRateEngine crossRateEngine = new CrossRateEngine(new StubRiksbankenApi(metrics), rateHistory, new CircuitBreaker(5, Duration.ofSeconds(30)));
+        service = new CurrencyExchangeServiceImpl(Mappers.getMapper(ExchangeRateMapper.class), crossRateEngine,
+                rateCache, bankCalendar, rateHistory, new SyncTaskExecutor(), new SyncTaskExecutor(),
+                new CircuitBreaker(5, Duration.ofSeconds(30)), metrics, new RateUpdates(new ObjectMapper()),
+                new MoneyConverter(new MoneyProperties(2, RoundingMode.HALF_EVEN, Map.of(), Map.of())),
+                new FetchLeadership(mock(FetchLeaseStore.class), new ClusterProperties(false, null, Duration.ofMinutes(2), Duration.ofSeconds(10))));
+    }
+
+    @Benchmark
+    public ExchangeRateResponse cachedRate() {
+        return service.getLatestExchangeRate(Currency.USD, Currency.EUR);
+    }
+
+    @Benchmark
+    public ExchangeRateResponse upstreamRefresh() {
+        rateCache.clear();
+        return service.getLatestExchangeRate(Currency.USD, Currency.EUR);
+    }
+
+    /**
+     * Answers every series request with the same three days of observations, already decoded.
+     */
+    private static final class StubRiksbankenApi extends RiksbankenApi {
+
+        private final Map<String, ObservationSeries> series = new HashMap<>();
+
+        StubRiksbankenApi(RateMetrics metrics) {
+            super(HttpClient.newHttpClient(), new ObjectMapper(), new RiksbankenProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), 1, 1), metrics);
+            Map<Currency, Double> sekPer = Map.of(Currency.EUR, 11.2, Currency.USD, 10.4);
+            LocalDate today = LocalDate.now();
+            for (Map.Entry<Currency, Double> rate : sekPer.entrySet()) {
+                List<ObservationResponse> recent = List.of(
+                        new ObservationResponse(today.minusDays(2).toString(), rate.getValue()),
+                        new ObservationResponse(today.minusDays(1).toString(), rate.getValue()),
+                        new ObservationResponse(today.toString(), rate.getValue()));
+                series.put(rate.getKey().seriesId(), ObservationSeries.of(recent));
+            }
+        }
+
+        @Override
+        public CompletableFuture<ObservationSeries> getObservationSeriesAsync(String seriesId, LocalDate from) {
+            return CompletableFuture.completedFuture(series.getOrDefault(seriesId, ObservationSeries.EMPTY));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.config.MoneyProperties;
+import org.example.service.MoneyConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One batch of EUR to USD conversions three ways: {@code double} multiplication as the service used to do it,
+ * {@code BigDecimal} rounded to cents, and {@link MoneyConverter} on minor units and a fixed-point rate. The
+ * last two give identical results; the score is per conversion. Run with {@code -prof gc} to see that the
+ * fixed-point loop allocates nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MoneyConversionBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final double RATE = 11.2 / 10.4;
+
+    private final MoneyConverter converter = new MoneyConverter(new MoneyProperties(2, RoundingMode.HALF_EVEN, Map.of(), Map.of()));
+    private final double[] amounts = new double[BATCH_SIZE];
+    private final BigDecimal[] decimalAmounts = new BigDecimal[BATCH_SIZE];
+    private final long[] minorUnits = new long[BATCH_SIZE];
+    private final BigDecimal decimalRate = BigDecimal.valueOf(MoneyConverter.toFixedRate(RATE), MoneyConverter.RATE_SCALE);
+    private final long fixedRate = MoneyConverter.toFixedRate(RATE);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            minorUnits[i] = random.nextLong(100_000_000L);
+            amounts[i] = minorUnits[i] / 100.0;
+            decimalAmounts[i] = BigDecimal.valueOf(minorUnits[i], 2);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double doubleMultiply() {
+        double total = 0;
+        for (double amount : amounts) {
+            total += amount * RATE;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimalAmounts) {
+            total = total.add(amount.multiply(decimalRate).setScale(2, RoundingMode.HALF_EVEN));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long fixedPoint() {
+        long total = 0;
+        for (long amount : minorUnits) {
+            total += converter.convert(amount, Currency.EUR, Currency.USD, fixedRate);
+        }
+        return total;
+    }
+}
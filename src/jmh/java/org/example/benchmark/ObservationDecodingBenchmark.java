@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.external.ObservationDecoder;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding an observation response into epoch days and values: the original body-as-String plus
+ * {@code TypeReference} path against the streaming {@link ObservationDecoder}. Run with {@code -prof gc} to
+ * compare allocation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ObservationDecodingBenchmark {
+
+    /**
+     * One week, one year and thirty years of bank days.
+     */
+    @Param({"5", "250", "7500"})
+    public int observations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader cachedReader = objectMapper.readerFor(new TypeReference<List<ObservationResponse>>() {
+    });
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        LocalDate date = LocalDate.of(1994, 1, 3);
+        for (int i = 0; i < observations; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"date\":\"").append(date).append("\",\"value\":").append(9.5 + (i % 200) / 100.0).append('}');
+            date = date.plusDays(1);
+        }
+        body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ObservationSeries stringBodyWithTypeReference() throws IOException {
+        String text = new String(body, StandardCharsets.UTF_8);
+        List<ObservationResponse> parsed = objectMapper.readValue(text, new TypeReference<>() {
+        });
+        return ObservationSeries.of(parsed);
+    }
+
+    @Benchmark
+    public ObservationSeries streamWithCachedReader() throws IOException {
+        List<ObservationResponse> parsed = cachedReader.readValue(new ByteArrayInputStream(body));
+        return ObservationSeries.of(parsed);
+    }
+
+    @Benchmark
+    public ObservationSeries streamingDecoder() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(new ByteArrayInputStream(body))) {
+            return ObservationDecoder.decode(parser);
+        }
+    }
+}
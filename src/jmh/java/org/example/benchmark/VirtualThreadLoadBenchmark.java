@@ -0,0 +1,174 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.RoundingMode;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.cache.ExchangeRateCache;
+import org.example.config.ClusterProperties;
+import org.example.config.MoneyProperties;
+import org.example.config.RiksbankenClientConfig;
+import org.example.config.RiksbankenProperties;
+import org.example.controller.CurrencyExchangeController;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.CircuitBreaker;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.example.mapper.ExchangeRateMapper;
+import org.example.metrics.RateMetrics;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.FetchLeaseStore;
+import org.example.service.BankCalendar;
+import org.example.service.CrossRateEngine;
+import org.example.service.CurrencyExchangeServiceImpl;
+import org.example.service.FetchLeadership;
+import org.example.service.MoneyConverter;
+import org.example.service.RateHistory;
+import org.example.service.RateUpdates;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A burst of requests to {@link CurrencyExchangeController} that arrives with the cache empty, like the refresh
+ * spike after 16:15: every request waits on the upstream fetch the service shares between them. The controller,
+ * service, cache, cross-rate engine and rate history are the real ones, and the upstream executor comes from
+ * {@link RiksbankenClientConfig} for the mode. The Riksbank API answers after {@code upstreamLatencyMillis}
+ * without holding a thread, and the database is stubbed.
+ * <p>
+ * The platform mode handles requests on a pool the size of Tomcat's default {@code server.tomcat.threads.max};
+ * the virtual mode gives every request its own virtual thread, as {@code spring.threads.virtual.enabled=true}
+ * does. The score is how long the whole burst takes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final Currency[][] PAIRS = {
+            {Currency.USD, Currency.EUR}, {Currency.EUR, Currency.USD}, {Currency.EUR, Currency.SEK}, {Currency.SEK, Currency.USD}};
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "1000"})
+    public int concurrentRequests;
+
+    @Param({"20"})
+    public int upstreamLatencyMillis;
+
+    private final ExchangeRateCache rateCache = new ExchangeRateCache();
+    private CurrencyExchangeController controller;
+    private ExecutorService upstreamExecutor;
+    private ExecutorService revalidationExecutor;
+    private ExecutorService requestExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        RiksbankenProperties properties = new RiksbankenProperties(Duration.ofSeconds(5), Duration.ofSeconds(10), 4, 64);
+        RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+        BankCalendar bankCalendar = mock(BankCalendar.class);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class))).thenReturn(true);
+
+        RateHistory rateHistory = new RateHistory(mock(CurrencyExchangeRepository.class), mock(ExchangeRateBatchWriter.class), metrics);
+        CircuitBreaker circuitBreaker = new CircuitBreaker(5, Duration.ofSeconds(30));
+        CrossRateEngine crossRateEngine = new CrossRateEngine(new SlowRiksbankenApi(properties, metrics, upstreamLatencyMillis), rateHistory, circuitBreaker);
+        RiksbankenClientConfig clientConfig = new RiksbankenClientConfig();
+        upstreamExecutor = clientConfig.upstreamExecutor(properties, virtual);
+        revalidationExecutor = clientConfig.revalidationExecutor();
+        RateUpdates rateUpdates = new RateUpdates(new ObjectMapper());
+        CurrencyExchangeServiceImpl service = new CurrencyExchangeServiceImpl(Mappers.getMapper(ExchangeRateMapper.class), crossRateEngine,
+                rateCache, bankCalendar, rateHistory, upstreamExecutor, revalidationExecutor, circuitBreaker, metrics, rateUpdates,
+                new MoneyConverter(new MoneyProperties(2, RoundingMode.HALF_EVEN, Map.of(), Map.of())),
+                new FetchLeadership(mock(FetchLeaseStore.class), new ClusterProperties(false, null, Duration.ofMinutes(2), Duration.ofSeconds(10))));
+        controller = new CurrencyExchangeController(service, rateUpdates, bankCalendar, new ObjectMapper());
+        requestExecutor = virtual
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+        upstreamExecutor.shutdownNow();
+        revalidationExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        rateCache.clear();
+        List<Future<ResponseEntity<ExchangeRateResponse>>> responses = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            Currency[] pair = PAIRS[i % PAIRS.length];
+            responses.add(requestExecutor.submit(() -> controller.getLatestExchangeRates(pair[0], pair[1])));
+        }
+        int answered = 0;
+        for (Future<ResponseEntity<ExchangeRateResponse>> response : responses) {
+            if (response.get().getBody() != null) {
+                answered++;
+            }
+        }
+        return answered;
+    }
+
+    /**
+     * Answers every series request with today's rate after a fixed delay, completing the future from a timer
+     * rather than a sleeping thread, as the HTTP client does.
+     */
+    private static final class SlowRiksbankenApi extends RiksbankenApi {
+
+        private final Map<String, ObservationSeries> series = new HashMap<>();
+        private final Executor delayed;
+
+        SlowRiksbankenApi(RiksbankenProperties properties, RateMetrics metrics, int latencyMillis) {
+            super(HttpClient.newHttpClient(), new ObjectMapper(), properties, metrics);
+            this.delayed = CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS);
+            Map<Currency, Double> sekPer = Map.of(Currency.EUR, 11.2, Currency.USD, 10.4);
+            String today = LocalDate.now().toString();
+            for (Map.Entry<Currency, Double> rate : sekPer.entrySet()) {
+                series.put(rate.getKey().seriesId(), ObservationSeries.of(List.of(new ObservationResponse(today, rate.getValue()))));
+            }
+        }
+
+        @Override
+        public CompletableFuture<ObservationSeries> getObservationSeriesAsync(String seriesId, LocalDate from) {
+            return CompletableFuture.supplyAsync(() -> series.getOrDefault(seriesId, ObservationSeries.EMPTY), delayed);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.example;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A currency the service quotes, identified by its ISO 4217 code and the Riksbank series that quotes it in SEK.
+ * <p>
+ * Currencies are registered at startup, from configuration or the Riksbank series list, and numbered densely
+ * from 0 in registration order. Rate tables, caches and conversions are arrays indexed by {@link #id()}, and
+ * codes are parsed through a table indexed by their three letters, so neither slows down as currencies are
+ * added. SEK, EUR and USD are always registered, first and in that order. The set is fixed the first time it
+ * is read, since tables sized before a registration could not hold the new currency.
+ * <p>
+ * Most series quote SEK per one unit of the currency, but some, such as JPY, quote SEK per 100. Rates are
+ * divided by {@link #unit()} as they come in, so everything past the upstream client is per one unit.
+ */
+public final class Currency {
+
+    private static final int LETTERS = 26;
+    private static final Registry REGISTRY = new Registry();
+
+    public static final Currency SEK = register("SEK", "SEKETT");
+    public static final Currency EUR = register("EUR", "SEKEURPMI");
+    public static final Currency USD = register("USD", "SEKUSDPMI");
+
+    private final int id;
+    private final String code;
+    private final String seriesId;
+    private final int unit;
+
+    private Currency(int id, String code, String seriesId, int unit) {
+        this.id = id;
+        this.code = code;
+        this.seriesId = seriesId;
+        this.unit = unit;
+    }
+
+    /**
+     * Registers {@code code}, quoted in SEK per one unit by the Riksbank series {@code seriesId}.
+     *
+     * @see #register(String, String, int)
+     */
+    public static Currency register(String code, String seriesId) {
+        return register(code, seriesId, 1);
+    }
+
+    /**
+     * Registers {@code code}, quoted in SEK per {@code unit} units by the Riksbank series {@code seriesId}, and
+     * gives it the next id. Registering a code again returns the existing currency.
+     *
+     * @throws IllegalArgumentException if the code is not three letters A-Z, the unit is not positive, or the
+     *                                  code is already registered with another series or unit
+     * @throws IllegalStateException    if the currencies have already been read
+     */
+    public static Currency register(String code, String seriesId, int unit) {
+        return REGISTRY.register(code, seriesId, unit);
+    }
+
+    /**
+     * All registered currencies, indexed by id. The first call fixes the set.
+     */
+    public static Currency[] values() {
+        return REGISTRY.registered().clone();
+    }
+
+    /**
+     * Number of registered currencies, the size of any table indexed by id. The first call fixes the set.
+     */
+    public static int count() {
+        return REGISTRY.registered().length;
+    }
+
+    /**
+     * The currency with id {@code id}.
+     */
+    public static Currency of(int id) {
+        return REGISTRY.registered()[id];
+    }
+
+    /**
+     * Parses a currency code, as in path variables, request bodies and stored rows.
+     *
+     * @throws IllegalArgumentException if no currency with that code is registered
+     */
+    @JsonCreator
+    public static Currency valueOf(String code) {
+        return REGISTRY.valueOf(code);
+    }
+
+    public int id() {
+        return id;
+    }
+
+    @JsonValue
+    public String code() {
+        return code;
+    }
+
+    /**
+     * Riksbank series quoting this currency in SEK.
+     */
+    public String seriesId() {
+        return seriesId;
+    }
+
+    /**
+     * Units of this currency that one observation of its series is quoted for, 1 or for some currencies 100.
+     */
+    public int unit() {
+        return unit;
+    }
+
+    /**
+     * Every series is quoted in SEK, so SEK itself needs no series of its own.
+     */
+    public boolean isBaseCurrency() {
+        return this == SEK;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+
+    /**
+     * The registered currencies behind the static methods above. The application has exactly one; tests create
+     * their own to register sets of currencies without fixing the application's.
+     */
+    static final class Registry {
+
+        private final Currency[] byCode = new Currency[LETTERS * LETTERS * LETTERS];
+        private final List<Currency> registered = new ArrayList<>();
+        private volatile Currency[] values;
+
+        synchronized Currency register(String code, String seriesId, int unit) {
+            int index = index(code);
+            if (index < 0) {
+                throw new IllegalArgumentException("Currency code must be three letters A-Z: " + code);
+            }
+            if (unit < 1) {
+                throw new IllegalArgumentException("Currency " + code + " must be quoted per a positive unit, not " + unit);
+            }
+            Currency existing = byCode[index];
+            if (existing != null) {
+                if (!existing.seriesId.equals(seriesId) || existing.unit != unit) {
+                    throw new IllegalArgumentException("Currency " + code + " is already quoted by " + existing.seriesId
+                            + " per " + existing.unit + ", not " + seriesId + " per " + unit);
+                }
+                return existing;
+            }
+            if (values != null) {
+                throw new IllegalStateException("Cannot register " + code + ", the currencies are already in use");
+            }
+            Currency currency = new Currency(registered.size(), code, seriesId, unit);
+            registered.add(currency);
+            byCode[index] = currency;
+            return currency;
+        }
+
+        Currency valueOf(String code) {
+            int index = index(code);
+            // Reading the registered set first publishes every registration to this thread
+            Currency currency = registered().length > 0 && index >= 0 ? byCode[index] : null;
+            if (currency == null) {
+                throw new IllegalArgumentException("Unknown currency " + code);
+            }
+            return currency;
+        }
+
+        Currency[] registered() {
+            Currency[] all = values;
+            if (all == null) {
+                synchronized (this) {
+                    if (values == null) {
+                        values = registered.toArray(Currency[]::new);
+                    }
+                    all = values;
+                }
+            }
+            return all;
+        }
+    }
+
+    /**
+     * Position of a three-letter code in a registry's code table, or -1 when it is not three letters A-Z.
+     */
+    private static int index(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            index = index * LETTERS + letter;
+        }
+        return index;
+    }
+}
@@ -1,17 +0,0 @@
-package org.example;
-
-public enum CurrencyEnum {
-    SEK("SEKETT"),
-    EUR("SEKEURPMI"),
-    USD("SEKUSDPMI");
-
-    private final String currencyCode;
-
-    CurrencyEnum(String currencyCode) {
-        this.currencyCode = currencyCode;
-    }
-
-    public String getCurrencyCode() {
-        return currencyCode;
-    }
-}
@@ -0,0 +1,23 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record CurrencyPair(Currency currencyFrom, Currency currencyTo) {
+
+    /**
+     * All ordered pairs of distinct currencies.
+     */
+    public static List<CurrencyPair> all() {
+        Currency[] currencies = Currency.values();
+        List<CurrencyPair> pairs = new ArrayList<>(currencies.length * (currencies.length - 1));
+        for (Currency currencyFrom : currencies) {
+            for (Currency currencyTo : currencies) {
+                if (currencyFrom != currencyTo) {
+                    pairs.add(new CurrencyPair(currencyFrom, currencyTo));
+                }
+            }
+        }
+        return pairs;
+    }
+}
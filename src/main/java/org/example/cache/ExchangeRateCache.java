@@ -0,0 +1,86 @@
+package org.example.cache;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lock-free, pair-keyed cache of the latest exchange rates.
+ * <p>
+ * Entries live in a copy-on-write array indexed by the ids of the currency pair, so reads are a
+ * single volatile load and writes never block readers. Each entry carries its own expiry, which callers
+ * set to the next publication cutoff rather than a fixed TTL.
+ */
+@Component
+public class ExchangeRateCache {
+
+    private static final int CURRENCY_COUNT = Currency.count();
+
+    private final AtomicReference<Entry[]> entries = new AtomicReference<>(new Entry[CURRENCY_COUNT * CURRENCY_COUNT]);
+
+    public ExchangeRateResponse get(Currency currencyFrom, Currency currencyTo, Instant now) {
+        Entry entry = entries.get()[index(currencyFrom, currencyTo)];
+        return entry != null && now.isBefore(entry.expiresAt()) ? entry.rate() : null;
+    }
+
+    public void put(Currency currencyFrom, Currency currencyTo, ExchangeRateResponse rate, Instant expiresAt) {
+        int index = index(currencyFrom, currencyTo);
+        Entry entry = new Entry(rate, expiresAt);
+        Entry[] current;
+        Entry[] updated;
+        do {
+            current = entries.get();
+            updated = current.clone();
+            updated[index] = entry;
+        } while (!entries.compareAndSet(current, updated));
+    }
+
+    /**
+     * Swaps in a whole set of rates at once, so readers see either none or all of them.
+     */
+    public void putAll(Map<CurrencyPair, ExchangeRateResponse> rates, Instant expiresAt) {
+        Entry[] current;
+        Entry[] updated;
+        do {
+            current = entries.get();
+            updated = current.clone();
+            for (Map.Entry<CurrencyPair, ExchangeRateResponse> rate : rates.entrySet()) {
+                CurrencyPair pair = rate.getKey();
+                updated[index(pair.currencyFrom(), pair.currencyTo())] = new Entry(rate.getValue(), expiresAt);
+            }
+        } while (!entries.compareAndSet(current, updated));
+    }
+
+    /**
+     * Returns the entries that have not expired by {@code now}.
+     */
+    public Map<CurrencyPair, Entry> entries(Instant now) {
+        Entry[] current = entries.get();
+        Map<CurrencyPair, Entry> live = new HashMap<>();
+        for (Currency currencyFrom : Currency.values()) {
+            for (Currency currencyTo : Currency.values()) {
+                Entry entry = current[index(currencyFrom, currencyTo)];
+                if (entry != null && now.isBefore(entry.expiresAt())) {
+                    live.put(new CurrencyPair(currencyFrom, currencyTo), entry);
+                }
+            }
+        }
+        return live;
+    }
+
+    public void clear() {
+        entries.set(new Entry[CURRENCY_COUNT * CURRENCY_COUNT]);
+    }
+
+    private static int index(Currency currencyFrom, Currency currencyTo) {
+        return currencyFrom.id() * CURRENCY_COUNT + currencyTo.id();
+    }
+
+    public record Entry(ExchangeRateResponse rate, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.config;
+
+import java.time.LocalDate;
+import java.time.Period;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the one-off historical backfill of every SEK series.
+ *
+ * @param from        first day to backfill
+ * @param window      date range requested from the Riksbank API per call; progress is saved after each window
+ * @param batchSize   rows per JDBC batch
+ * @param parallelism number of series backfilled concurrently
+ */
+@ConfigurationProperties("currency.backfill")
+public record BackfillProperties(
+        @DefaultValue("1993-01-04") LocalDate from,
+        @DefaultValue("1y") Period window,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("2") int parallelism
+) {
+}
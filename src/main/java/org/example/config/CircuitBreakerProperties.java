@@ -0,0 +1,18 @@
+package org.example.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the circuit breaker around the Riksbank API.
+ *
+ * @param failureThreshold consecutive failed calls that open the circuit
+ * @param openDuration     how long the circuit stays open before one call is let through to probe upstream
+ */
+@ConfigurationProperties("riksbanken.circuit-breaker")
+public record CircuitBreakerProperties(
+        @DefaultValue("5") int failureThreshold,
+        @DefaultValue("30s") Duration openDuration
+) {
+}
@@ -0,0 +1,22 @@
+package org.example.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Coordination of several instances sharing one database.
+ *
+ * @param enabled       elects one instance to call the Riksbank API; the others read its rates from the database
+ * @param nodeId        name this instance holds the lease under; a random one when not set
+ * @param leaseDuration how long the elected instance stays elected after its last fetch
+ * @param pollInterval  time between checks of the database for rates written by the elected instance
+ */
+@ConfigurationProperties("currency.cluster")
+public record ClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        String nodeId,
+        @DefaultValue("2m") Duration leaseDuration,
+        @DefaultValue("10s") Duration pollInterval
+) {
+}
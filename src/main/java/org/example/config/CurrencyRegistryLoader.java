@@ -0,0 +1,185 @@
+package org.example.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.example.Currency;
+import org.example.external.dto.SeriesResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Registers the configured and discovered currencies before any bean sizes a table by them, which is why it
+ * runs as soon as the environment is prepared instead of as a bean. Listed in {@code META-INF/spring.factories}.
+ * <p>
+ * Discovery reads the Riksbank series list and keeps every open series quoting SEK per unit of a currency,
+ * {@code SEKxxxPMI}, along with the number of units it is quoted for. Currencies are registered in code order, so
+ * their ids do not depend on the order of the list. The list is kept in {@code cache-file}, and only read from
+ * the Riksbank again once that copy is older than {@code cache-max-age}, and then for at most
+ * {@code discovery-timeout}. When it cannot be read, the last copy is used, or only the configured currencies
+ * are added. Build-time runs, such as AOT processing and the CDS training run, skip discovery altogether.
+ */
+public class CurrencyRegistryLoader implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyRegistryLoader.class);
+
+    private static final String SERIES_URL = "https://api.riksbank.se/swea/v1/Series";
+    private static final Pattern CURRENCY_SERIES = Pattern.compile("SEK([A-Z]{3})PMI");
+    private static final TypeReference<List<SeriesResponse>> SERIES_LIST = new TypeReference<>() {
+    };
+
+    /**
+     * The Riksbank series a currency is quoted by, and how many units of the currency one observation is for.
+     */
+    record Quote(String seriesId, int unit) {
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment environment = event.getEnvironment();
+        CurrencyRegistryProperties properties = Binder.get(environment).bindOrCreate("currency.registry", CurrencyRegistryProperties.class);
+        List<SeriesResponse> published = properties.discover() && !isBuildTimeRun(environment)
+                ? discover(properties)
+                : List.of();
+        currencies(properties, published).forEach((code, quote) -> Currency.register(code, quote.seriesId(), quote.unit()));
+        log.info("Quoting {} currencies", Currency.count());
+    }
+
+    /**
+     * Series per currency code, from the open currency series in {@code published} and then the configured ones.
+     * A configured series keeps the unit read from the list unless {@code units} sets it.
+     */
+    static Map<String, Quote> currencies(CurrencyRegistryProperties properties, List<SeriesResponse> published) {
+        Map<String, Quote> currencies = new TreeMap<>();
+        for (SeriesResponse series : published) {
+            Matcher matcher = CURRENCY_SERIES.matcher(series.seriesId());
+            if (!series.seriesClosed() && matcher.matches()) {
+                currencies.put(matcher.group(1), new Quote(series.seriesId(), unit(series, matcher.group(1))));
+            }
+        }
+        properties.series().forEach((code, seriesId) -> currencies.merge(code.toUpperCase(Locale.ROOT), new Quote(seriesId, 1),
+                (discovered, configured) -> discovered.seriesId().equals(seriesId) ? discovered : configured));
+        properties.units().forEach((code, unit) -> currencies.computeIfPresent(code.toUpperCase(Locale.ROOT),
+                (ignored, quote) -> new Quote(quote.seriesId(), unit)));
+        return currencies;
+    }
+
+    /**
+     * Units of {@code code} the series is quoted for, as its descriptions give them, such as {@code 100 JPY}.
+     */
+    static int unit(SeriesResponse series, String code) {
+        Pattern quotedFor = Pattern.compile("\\b(\\d{1,6}) ?" + code + "\\b");
+        for (String description : new String[]{series.shortDescription(), series.midDescription(), series.longDescription()}) {
+            Matcher matcher = description == null ? null : quotedFor.matcher(description);
+            if (matcher != null && matcher.find()) {
+                return Math.max(1, Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * AOT processing and the CDS training run start the application only to look at it, so they should not
+     * wait on the network for currencies whose tables they never fill.
+     */
+    private static boolean isBuildTimeRun(ConfigurableEnvironment environment) {
+        return Boolean.getBoolean("spring.aot.processing") || environment.containsProperty("spring.context.exit");
+    }
+
+    private static List<SeriesResponse> discover(CurrencyRegistryProperties properties) {
+        Path cacheFile = properties.cacheFile();
+        List<SeriesResponse> cached = readCache(cacheFile);
+        if (cached != null && isFresh(cacheFile, properties.cacheMaxAge())) {
+            return cached;
+        }
+        List<SeriesResponse> published = fetchSeries(properties.discoveryTimeout());
+        if (published != null) {
+            writeCache(cacheFile, published);
+            return published;
+        }
+        if (cached != null) {
+            log.warn("Could not read the Riksbank series list, quoting the currencies from {}", cacheFile);
+            return cached;
+        }
+        log.warn("Could not read the Riksbank series list, quoting the configured currencies only");
+        return List.of();
+    }
+
+    /**
+     * The series list, or {@code null} when it could not be read within {@code timeout}.
+     */
+    private static List<SeriesResponse> fetchSeries(Duration timeout) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(SERIES_URL)).timeout(timeout).GET().build();
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(timeout).build()) {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() >= 400) {
+                    throw new IOException("Series list failed with status " + response.statusCode());
+                }
+                return new ObjectMapper().readerFor(SERIES_LIST).readValue(body);
+            }
+        } catch (IOException e) {
+            log.debug("Reading the Riksbank series list failed", e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static boolean isFresh(Path cacheFile, Duration maxAge) {
+        try {
+            return Files.getLastModifiedTime(cacheFile).toInstant().isAfter(Instant.now().minus(maxAge));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static List<SeriesResponse> readCache(Path cacheFile) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            return new ObjectMapper().readerFor(SERIES_LIST).readValue(cacheFile.toFile());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable series list copy {}", cacheFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Written to a sibling temporary file first and moved into place, so a concurrent start never reads half
+     * a list.
+     */
+    private static void writeCache(Path cacheFile, List<SeriesResponse> published) {
+        try {
+            Path directory = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+            new ObjectMapper().writeValue(temporary.toFile(), published);
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not keep a copy of the series list in {}", cacheFile, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Currencies quoted besides SEK, EUR and USD. Read once at startup, see {@link CurrencyRegistryLoader}.
+ *
+ * @param discover         adds every open series the Riksbank publishes as SEK per unit of another currency
+ * @param series           Riksbank series per currency code, such as {@code NOK=SEKNOKPMI}; takes precedence over
+ *                         discovered series
+ * @param units            units of the currency each configured series is quoted for, such as {@code JPY=100};
+ *                         1 when not listed, and takes precedence over the unit read from the series list
+ * @param cacheFile        copy of the last series list read, so most starts do not wait on the Riksbank
+ * @param cacheMaxAge      oldest copy used without asking the Riksbank again; an older one is still used when
+ *                         the series list cannot be read
+ * @param discoveryTimeout longest a start waits on the series list before going on without it
+ */
+@ConfigurationProperties("currency.registry")
+public record CurrencyRegistryProperties(
+        @DefaultValue("false") boolean discover,
+        Map<String, String> series,
+        Map<String, Integer> units,
+        @DefaultValue("./data/currency-series.json") Path cacheFile,
+        @DefaultValue("7d") Duration cacheMaxAge,
+        @DefaultValue("3s") Duration discoveryTimeout
+) {
+
+    public CurrencyRegistryProperties {
+        series = series == null ? Map.of() : Map.copyOf(series);
+        units = units == null ? Map.of() : Map.copyOf(units);
+    }
+}
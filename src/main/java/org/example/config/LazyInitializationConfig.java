@@ -0,0 +1,24 @@
+package org.example.config;
+
+import org.example.service.ClusterRatePoller;
+import org.example.service.RateBackfill;
+import org.example.service.RateHistory;
+import org.example.service.RatePrefetcher;
+import org.example.service.RateStateSnapshot;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Beans that still start with the context under {@code spring.main.lazy-initialization}: nothing asks for
+     * them, yet they load state at startup or run scheduled and event-driven work, which a lazy bean never would.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerRateBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(RateHistory.class, RateStateSnapshot.class, RatePrefetcher.class, RateBackfill.class,
+                ClusterRatePoller.class);
+    }
+}
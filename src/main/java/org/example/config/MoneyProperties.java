@@ -0,0 +1,37 @@
+package org.example.config;
+
+import java.math.RoundingMode;
+import java.util.Map;
+import org.example.Currency;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Minor units and rounding of converted amounts.
+ *
+ * @param defaultScale    decimal places of a currency without its own entry in {@code scale}
+ * @param defaultRounding rounding of a currency without its own entry in {@code rounding}
+ * @param scale           decimal places per currency, between 0 and 8
+ * @param rounding        rounding per currency, applied when an amount has more decimals than its scale
+ */
+@ConfigurationProperties("currency.money")
+public record MoneyProperties(
+        @DefaultValue("2") int defaultScale,
+        @DefaultValue("HALF_EVEN") RoundingMode defaultRounding,
+        Map<Currency, Integer> scale,
+        Map<Currency, RoundingMode> rounding
+) {
+
+    public MoneyProperties {
+        scale = scale == null ? Map.of() : Map.copyOf(scale);
+        rounding = rounding == null ? Map.of() : Map.copyOf(rounding);
+    }
+
+    public int scaleOf(Currency currency) {
+        return scale.getOrDefault(currency, defaultScale);
+    }
+
+    public RoundingMode roundingOf(Currency currency) {
+        return rounding.getOrDefault(currency, defaultRounding);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the background prefetch that runs at the daily publication time.
+ *
+ * @param maxAttempts    how many times each series is fetched before giving up for the day
+ * @param initialBackoff wait before the first retry; doubled after every empty or failed attempt
+ * @param maxBackoff     upper bound for the wait between retries
+ * @param parallelism    number of series fetched concurrently
+ */
+@ConfigurationProperties("currency.prefetch")
+public record PrefetchProperties(
+        @DefaultValue("12") int maxAttempts,
+        @DefaultValue("30s") Duration initialBackoff,
+        @DefaultValue("5m") Duration maxBackoff,
+        @DefaultValue("4") int parallelism
+) {
+}
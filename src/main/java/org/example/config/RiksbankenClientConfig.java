@@ -0,0 +1,83 @@
+package org.example.config;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.external.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RiksbankenClientConfig {
+
+    /**
+     * One HTTP/2 client shared by every upstream call, so requests to the Riksbank reuse the same connection.
+     * Its own small pool only completes responses; blocking work never runs on it. With virtual threads
+     * enabled each response is completed on its own virtual thread instead.
+     */
+    @Bean
+    public HttpClient httpClient(RiksbankenProperties properties, @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.connectTimeout())
+                .executor(virtualThreads
+                        ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("riksbanken-http-", 1).factory())
+                        : Executors.newFixedThreadPool(Math.max(1, properties.threads()), daemonThreads("riksbanken-http-")))
+                .build();
+    }
+
+    /**
+     * Bounded pool for upstream calls the service runs alongside each other. When it is saturated the caller
+     * runs the task itself, which slows callers down instead of queueing without limit.
+     * <p>
+     * With virtual threads enabled every task gets its own virtual thread, since a blocked upstream call then
+     * only costs a parked continuation, but no more than {@code threads} of them run at once, as in the pool, so
+     * a burst does not turn into a burst of calls to the Riksbank. Concurrent refreshes are still folded into one
+     * by the service.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService upstreamExecutor(RiksbankenProperties properties, @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int threads = Math.max(1, properties.threads());
+        if (virtualThreads) {
+            return new SemaphoreBoundedExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("riksbanken-upstream-", 1).factory()), threads);
+        }
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity())),
+                daemonThreads("riksbanken-upstream-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Single thread for the refresh started while stale rates are served. It has no queue and rejects a task
+     * while one is running, so the refresh is dropped rather than run on the request thread that served the
+     * stale rate, as the caller-runs policy of {@link #upstreamExecutor} would do when that pool is saturated.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService revalidationExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                daemonThreads("riksbanken-revalidate-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public CircuitBreaker riksbankenCircuitBreaker(CircuitBreakerProperties properties) {
+        return new CircuitBreaker(properties.failureThreshold(), properties.openDuration());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection settings for the Riksbank API client.
+ *
+ * @param connectTimeout upper bound for opening a connection
+ * @param requestTimeout upper bound for a whole request, from sending it until the response headers arrive
+ * @param threads        threads available for upstream work, both inside the HTTP client and for calls
+ *                       the service runs concurrently; with virtual threads, the calls the service runs at once
+ * @param queueCapacity  upstream tasks that may wait for a thread before callers run them themselves
+ */
+@ConfigurationProperties("riksbanken.http")
+public record RiksbankenProperties(
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("10s") Duration requestTimeout,
+        @DefaultValue("4") int threads,
+        @DefaultValue("64") int queueCapacity
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.config;
+
+import org.example.repository.ExchangeRateSchemaMigration;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchemaMigrationConfig {
+
+    /**
+     * Runs the schema migration before the {@code EntityManagerFactory} starts, so Hibernate's schema update sees
+     * a table it can add its constraints to.
+     */
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor migrateBeforeHibernate() {
+        return new EntityManagerFactoryDependsOnPostProcessor(ExchangeRateSchemaMigration.class);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.config;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on {@code delegate}, at most {@code permits} of them at a time. A task past the limit still gets its
+ * thread, but waits for a permit before it starts, so with virtual threads the wait only costs a parked
+ * continuation, and the callers are never made to run the task themselves.
+ */
+final class SemaphoreBoundedExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    SemaphoreBoundedExecutor(ExecutorService delegate, int permits) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(permits);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(() -> {
+            // Not interruptible: a task that never ran would leave the future it completes waiting forever
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
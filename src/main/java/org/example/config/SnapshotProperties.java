@@ -0,0 +1,21 @@
+package org.example.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the on-disk snapshot of the in-memory rate state.
+ *
+ * @param path     snapshot file; written to a sibling temporary file first and moved into place
+ * @param interval time between snapshot writes
+ * @param maxAge   oldest snapshot still restored at startup; older ones are ignored in favour of the database
+ */
+@ConfigurationProperties("currency.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("./data/rate-state.bin") Path path,
+        @DefaultValue("5m") Duration interval,
+        @DefaultValue("24h") Duration maxAge
+) {
+}
@@ -1,46 +1,234 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
-import org.example.CurrencyEnum;
+import jakarta.validation.constraints.Size;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import org.example.Currency;
+import org.example.CurrencyPair;
 import org.example.controller.dto.requests.ExchangeRequest;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.controller.dto.responses.ExchangeResponse;
+import org.example.controller.dto.responses.ExchangeStreamError;
+import org.example.service.BankCalendar;
 import org.example.service.CurrencyExchangeService;
+import org.example.service.RateSnapshot;
+import org.example.service.RateUpdates;
+import org.example.service.RateUpdates.RateEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/currency")
 @Tag(name = "Currency Exchange", description = "Currency exchange rate and conversion operations")
 public class CurrencyExchangeController {
 
+    static final int MAX_BATCH_SIZE = 100_000;
+    /**
+     * Longest stream line read; a request fits in well under a hundred characters.
+     */
+    static final int MAX_STREAM_LINE_LENGTH = 1024;
+    static final Duration SUBSCRIPTION_TIMEOUT = Duration.ofMinutes(30);
+
     private final CurrencyExchangeService currencyExchangeService;
+    private final RateUpdates rateUpdates;
+    private final BankCalendar bankCalendar;
+    private final ObjectReader exchangeRequestReader;
+    private final ObjectWriter streamResultWriter;
 
-    public CurrencyExchangeController(CurrencyExchangeService currencyExchangeService) {
+    public CurrencyExchangeController(CurrencyExchangeService currencyExchangeService, RateUpdates rateUpdates, BankCalendar bankCalendar, ObjectMapper objectMapper) {
         this.currencyExchangeService = currencyExchangeService;
+        this.rateUpdates = rateUpdates;
+        this.bankCalendar = bankCalendar;
+        this.exchangeRequestReader = objectMapper.readerFor(ExchangeRequest.class);
+        this.streamResultWriter = objectMapper.writer().withRootValueSeparator("\n");
     }
 
-    @Operation(summary = "Get current exchange rate", description = "Retrieves the latest exchange rate between two currencies")
+    @Operation(summary = "Get current exchange rate", description = "Retrieves the latest exchange rate between two currencies. Responses carry an ETag and may be cached until the next publication")
     @GetMapping("/current-rates/{currencyFrom}/{currencyTo}")
     public ResponseEntity<ExchangeRateResponse> getLatestExchangeRates(
-            @Parameter(description = "Source currency code") @PathVariable CurrencyEnum currencyFrom,
-            @Parameter(description = "Target currency code") @PathVariable CurrencyEnum currencyTo) {
-        return ResponseEntity.ok(currencyExchangeService.getLatestExchangeRate(currencyFrom, currencyTo));
+            @Parameter(description = "Source currency code") @PathVariable Currency currencyFrom,
+            @Parameter(description = "Target currency code") @PathVariable Currency currencyTo) {
+        return RateCaching.latestRate(currencyExchangeService.getLatestExchangeRate(currencyFrom, currencyTo), ZonedDateTime.now(), bankCalendar::mayBeBankDay);
+    }
+
+    @Operation(summary = "Get historical exchange rates", description = "Retrieves the daily exchange rates between two currencies for a date range, oldest first")
+    @GetMapping("/rates/{currencyFrom}/{currencyTo}")
+    public ResponseEntity<List<ExchangeRateResponse>> getExchangeRates(
+            @Parameter(description = "Source currency code") @PathVariable Currency currencyFrom,
+            @Parameter(description = "Target currency code") @PathVariable Currency currencyTo,
+            @Parameter(description = "First date of the range (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @Parameter(description = "Last date of the range (inclusive)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "start must not be after end");
+        }
+        List<ExchangeRateResponse> rates = currencyExchangeService.getExchangeRates(currencyFrom, currencyTo, start, end);
+        return RateCaching.rateRange(currencyFrom, currencyTo, start, end, rates, ZonedDateTime.now(), bankCalendar::mayBeBankDay);
     }
 
     @Operation(summary = "Exchange currency", description = "Converts an amount from one currency to another using the latest exchange rate")
     @PostMapping(value = "/exchange")
     public ResponseEntity<ExchangeResponse> exchangeCurrency(
             @Parameter(description = "Exchange request with source currency, target currency, and amount") @RequestBody @NotNull @Valid ExchangeRequest request) {
-        return ResponseEntity.ok(currencyExchangeService.exchangeCurrency(request.currencyFrom(), request.currencyTo(), request.amount()));
+        try {
+            return ResponseEntity.ok(currencyExchangeService.exchangeCurrency(request.currencyFrom(), request.currencyTo(), request.amount()));
+        } catch (ArithmeticException e) {
+            throw amountOutOfRange(e);
+        }
+    }
+
+    @Operation(summary = "Exchange currencies in bulk", description = "Converts a list of amounts in one request, resolving each currency pair's rate once. Results are returned in request order")
+    @PostMapping(value = "/exchange/batch")
+    public ResponseEntity<List<ExchangeResponse>> exchangeCurrencies(
+            @Parameter(description = "Exchange requests, each with source currency, target currency, and amount") @RequestBody @NotNull @Size(max = MAX_BATCH_SIZE) List<@NotNull @Valid ExchangeRequest> requests) {
+        try {
+            return ResponseEntity.ok(currencyExchangeService.exchangeCurrencies(requests));
+        } catch (ArithmeticException e) {
+            throw amountOutOfRange(e);
+        }
+    }
+
+    @Operation(summary = "Exchange currencies as a stream", description = "Reads newline-delimited JSON exchange requests and writes one newline-delimited JSON result per request as it goes. Rates are resolved once, before the first result. A line that is not a valid request, or is longer than " + MAX_STREAM_LINE_LENGTH + " characters, gets an error object with its line number in its place, and the stream carries on")
+    @PostMapping(value = "/exchange/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exchangeCurrencyStream(
+            @Parameter(description = "Newline-delimited exchange requests") InputStream requestBody,
+            HttpServletResponse response) throws IOException {
+        RateSnapshot rates = currencyExchangeService.rateSnapshot();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        BufferedReader requests = new BufferedReader(new InputStreamReader(requestBody, StandardCharsets.UTF_8));
+        try (SequenceWriter results = streamResultWriter.writeValues(response.getOutputStream())) {
+            long lineNumber = 0;
+            StringBuilder line = new StringBuilder();
+            int length;
+            while ((length = readLine(requests, line)) >= 0) {
+                lineNumber++;
+                if (length > MAX_STREAM_LINE_LENGTH) {
+                    results.write(new ExchangeStreamError(lineNumber, "Line is longer than " + MAX_STREAM_LINE_LENGTH + " characters"));
+                } else if (!line.toString().isBlank()) {
+                    results.write(exchangeLine(rates, line.toString(), lineNumber));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the next {@code \n}-terminated line into {@code line}, without its terminator or a trailing {@code \r}.
+     * Only the first {@link #MAX_STREAM_LINE_LENGTH} characters are kept and the rest of the line is skipped, so one
+     * line without a break cannot fill the heap. Returns the line's full length, or {@code -1} at the end of the
+     * stream.
+     */
+    static int readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (length++ < MAX_STREAM_LINE_LENGTH) {
+                line.append((char) c);
+            }
+        }
+        if (c == -1 && length == 0) {
+            return -1;
+        }
+        if (length <= MAX_STREAM_LINE_LENGTH && !line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * The result for one stream line. Once the first result is written the status is already 200, so a bad
+     * line is answered in-band with an {@link ExchangeStreamError} rather than by failing the response.
+     */
+    private Object exchangeLine(RateSnapshot rates, String line, long lineNumber) {
+        ExchangeRequest request;
+        try {
+            request = exchangeRequestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return new ExchangeStreamError(lineNumber, "Line is not a valid exchange request");
+        }
+        if (request == null || request.currencyFrom() == null || request.currencyTo() == null
+                || !(request.amount() >= 0 && request.amount() <= ExchangeRequest.MAX_AMOUNT)) {
+            return new ExchangeStreamError(lineNumber, "Exchange request needs currencyFrom, currencyTo and an amount from 0 to " + ExchangeRequest.MAX_AMOUNT);
+        }
+        try {
+            return rates.exchange(request.currencyFrom(), request.currencyTo(), request.amount());
+        } catch (ArithmeticException e) {
+            return new ExchangeStreamError(lineNumber, "Converted amount is out of range");
+        }
+    }
+
+    /**
+     * A converted amount too large for a long, in minor units of the target currency, is the request's fault.
+     */
+    private static ResponseStatusException amountOutOfRange(ArithmeticException e) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Converted amount is out of range", e);
+    }
+
+    @Operation(summary = "Subscribe to rate updates", description = "Streams a server-sent event with the new rate whenever any pair's rate changes, starting with the current rates")
+    @GetMapping(value = "/rate-updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToRateUpdates() {
+        return rateUpdateStream(null);
+    }
+
+    @Operation(summary = "Subscribe to a pair's rate updates", description = "Streams a server-sent event with the new rate whenever the pair's rate changes, starting with the current rate")
+    @GetMapping(value = "/rate-updates/{currencyFrom}/{currencyTo}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToRateUpdates(
+            @Parameter(description = "Source currency code") @PathVariable Currency currencyFrom,
+            @Parameter(description = "Target currency code") @PathVariable Currency currencyTo) {
+        return rateUpdateStream(new CurrencyPair(currencyFrom, currencyTo));
+    }
+
+    /**
+     * Events carry the JSON {@link RateUpdates} serialized once for everyone, written as-is. Subscriptions end
+     * after {@link #SUBSCRIPTION_TIMEOUT}, or earlier when the client reads too slowly to keep up;
+     * {@code EventSource} clients reconnect and get the current rates again.
+     */
+    private SseEmitter rateUpdateStream(CurrencyPair pair) {
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT.toMillis());
+        Consumer<RateEvent> send = event -> {
+            try {
+                emitter.send(SseEmitter.event().name("rate").data(event.json(), MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        };
+        Runnable unsubscribe = rateUpdates.subscribe(pair, send, emitter::complete);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
     }
 }
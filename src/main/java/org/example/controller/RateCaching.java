@@ -0,0 +1,104 @@
+package org.example.controller;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.service.RatePublication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import static org.example.service.CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM;
+import static org.example.service.CurrencyExchangeServiceImpl.HOUR;
+import static org.example.service.CurrencyExchangeServiceImpl.MINUTE;
+
+/**
+ * HTTP caching headers for the rate endpoints. A published rate does not change until the next publication, so
+ * responses carry an ETag and Last-Modified derived from the pair and rate date, and may be cached up to the
+ * next cutoff. Ranges that end before today only change when a backfill or a revision of the published series
+ * reaches them, so they may be cached for {@link #HISTORICAL_MAX_AGE} and are then revalidated against their ETag.
+ * Spring answers a matching {@code If-None-Match} or {@code If-Modified-Since} with {@code 304 Not Modified}.
+ */
+final class RateCaching {
+
+    private static final ZoneId STOCKHOLM = ZoneId.of(EUROPE_STOCKHOLM);
+
+    /**
+     * How long a rate may be cached after the cutoff while today's rate has not been published yet.
+     */
+    static final Duration PENDING_PUBLICATION_MAX_AGE = Duration.ofMinutes(1);
+
+    /**
+     * How long a range of past days may be cached before it is revalidated.
+     */
+    static final Duration HISTORICAL_MAX_AGE = Duration.ofHours(1);
+
+    private RateCaching() {
+    }
+
+    static ResponseEntity<ExchangeRateResponse> latestRate(ExchangeRateResponse rate, ZonedDateTime now, Predicate<LocalDate> isBankDay) {
+        if (rate == null) {
+            return ResponseEntity.ok(null);
+        }
+        String etag = rate.currencyFrom() + "-" + rate.currencyTo() + "-" + rate.latestRateDate() + (rate.stale() ? "-stale" : "");
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(publishedAt(rate.latestRateDate()))
+                .cacheControl(rate.stale() ? CacheControl.noCache() : cacheControl(rate.latestRateDate(), now, isBankDay))
+                .body(rate);
+    }
+
+    static ResponseEntity<List<ExchangeRateResponse>> rateRange(Currency currencyFrom, Currency currencyTo, LocalDate start, LocalDate end,
+                                                                List<ExchangeRateResponse> rates, ZonedDateTime now, Predicate<LocalDate> isBankDay) {
+        if (rates == null || rates.isEmpty()) {
+            return ResponseEntity.ok(rates);
+        }
+        String lastDate = rates.getLast().latestRateDate();
+        // The count changes when a backfill adds days inside the range
+        String etag = currencyFrom + "-" + currencyTo + "-" + start + "-" + end + "-" + lastDate + "-" + rates.size();
+        boolean historical = end.isBefore(now.withZoneSameInstant(STOCKHOLM).toLocalDate());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(publishedAt(lastDate))
+                .cacheControl(historical ? CacheControl.maxAge(HISTORICAL_MAX_AGE).cachePublic() : cacheControl(lastDate, now, isBankDay))
+                .body(rates);
+    }
+
+    /**
+     * Whether the caching headers for a rate of {@code latestRateDate} depend on today being a bank day, so callers
+     * that must not block only ask the calendar when it matters.
+     */
+    static boolean dependsOnBankDay(String latestRateDate, ZonedDateTime now) {
+        ZonedDateTime stockholmTime = now.withZoneSameInstant(STOCKHOLM);
+        return !stockholmTime.toLocalTime().isBefore(LocalTime.of(HOUR, MINUTE))
+                && !stockholmTime.toLocalDate().toString().equals(latestRateDate);
+    }
+
+    /**
+     * Today's date in Stockholm, the day the calendar is asked about.
+     */
+    static LocalDate today(ZonedDateTime now) {
+        return now.withZoneSameInstant(STOCKHOLM).toLocalDate();
+    }
+
+    /**
+     * Cacheable until the next publication, unless the cutoff has passed on a bank day without today's rate, which
+     * can then show up at any moment. On other days no rate is coming, so the wait is for the next publication.
+     */
+    static CacheControl cacheControl(String latestRateDate, ZonedDateTime now, Predicate<LocalDate> isBankDay) {
+        ZonedDateTime stockholmTime = now.withZoneSameInstant(STOCKHOLM);
+        if (dependsOnBankDay(latestRateDate, now) && isBankDay.test(stockholmTime.toLocalDate())) {
+            return CacheControl.maxAge(PENDING_PUBLICATION_MAX_AGE).cachePublic();
+        }
+        return CacheControl.maxAge(Duration.between(stockholmTime, RatePublication.nextPublication(stockholmTime))).cachePublic();
+    }
+
+    private static ZonedDateTime publishedAt(String rateDate) {
+        return LocalDate.parse(rateDate).atTime(HOUR, MINUTE).atZone(STOCKHOLM);
+    }
+}
@@ -1,8 +1,14 @@
 package org.example.controller.dto.requests;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import org.example.CurrencyEnum;
+import org.example.Currency;
 
-public record ExchangeRequest(@NotNull CurrencyEnum currencyFrom, @NotNull CurrencyEnum currencyTo, @Min(0) double amount) {
+/**
+ * @param amount at most {@link #MAX_AMOUNT}, which still fits in minor units at the largest currency scale
+ */
+public record ExchangeRequest(@NotNull Currency currencyFrom, @NotNull Currency currencyTo, @Min(0) @Max(MAX_AMOUNT) double amount) {
+
+    public static final long MAX_AMOUNT = 10_000_000_000L;
 }
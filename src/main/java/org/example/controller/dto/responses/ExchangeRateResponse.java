@@ -3,5 +3,12 @@ package org.example.controller.dto.responses;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
-public record ExchangeRateResponse(@NotBlank String currencyFrom, @NotBlank String currencyTo, @Min(0) double rate, @NotBlank String latestRateDate) {
+/**
+ * @param stale {@code true} when the rate is the last known one, served because the Riksbank API is unavailable
+ */
+public record ExchangeRateResponse(@NotBlank String currencyFrom, @NotBlank String currencyTo, @Min(0) double rate, @NotBlank String latestRateDate, boolean stale) {
+
+    public ExchangeRateResponse asStale() {
+        return new ExchangeRateResponse(currencyFrom, currencyTo, rate, latestRateDate, true);
+    }
 }
@@ -1,8 +1,8 @@
 package org.example.controller.dto.responses;
 
-import org.example.CurrencyEnum;
+import org.example.Currency;
 
-public record ExchangeResponse(CurrencyEnum currencyFrom, CurrencyEnum currencyTo,
+public record ExchangeResponse(Currency currencyFrom, Currency currencyTo,
                                double originalAmount, double exchangedAmount,
                                double exchangeRate) {
 }
@@ -0,0 +1,4 @@
+package org.example.controller.dto.responses;
+
+public record ExchangeStreamError(long line, String error) {
+}
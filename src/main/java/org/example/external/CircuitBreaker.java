@@ -0,0 +1,76 @@
+package org.example.external;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling an upstream that keeps failing.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and {@link #allowRequest()} refuses
+ * calls for {@code openDuration}. After that a single probe is let through: success closes the circuit,
+ * failure opens it for another period. All state is held in atomics, so checking the circuit never blocks.
+ */
+public class CircuitBreaker {
+
+    private static final long CLOSED = 0;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long openUntil = CLOSED;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Whether a call may go upstream now. While the circuit is open this is {@code false}, except for the one
+     * probe granted once the open period has passed.
+     */
+    public boolean allowRequest() {
+        long until = openUntil;
+        if (until == CLOSED) {
+            return true;
+        }
+        if (nanoClock.getAsLong() - until < 0) {
+            return false;
+        }
+        return probing.compareAndSet(false, true);
+    }
+
+    /**
+     * Whether the circuit is open or waiting on its probe, meaning callers should not count on upstream.
+     */
+    public boolean isOpen() {
+        return openUntil != CLOSED;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openUntil = CLOSED;
+        probing.set(false);
+    }
+
+    public void recordFailure() {
+        if (probing.get() || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        long until = nanoClock.getAsLong() + openNanos;
+        // CLOSED is reserved as the marker for a closed circuit
+        openUntil = until == CLOSED ? 1 : until;
+        probing.set(false);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.external;
+
+/**
+ * Receives decoded observations one at a time, without boxing or allocating per observation.
+ */
+@FunctionalInterface
+public interface ObservationConsumer {
+
+    void accept(int epochDay, double value);
+}
@@ -0,0 +1,119 @@
+package org.example.external;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import org.example.external.dto.ObservationSeries;
+
+/**
+ * Decodes the Riksbank's {@code [{"date":"yyyy-MM-dd","value":n}, ...]} observation arrays with Jackson's
+ * streaming parser. Nothing is allocated per observation: dates are turned into epoch days straight from
+ * the parser's character buffer and values are read as primitives.
+ */
+public final class ObservationDecoder {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private ObservationDecoder() {
+    }
+
+    /**
+     * Hands every observation to {@code consumer} as it is parsed. Unknown fields are skipped.
+     */
+    public static void decode(JsonParser parser, ObservationConsumer consumer) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array of observations but found " + token);
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int epochDay = Integer.MIN_VALUE;
+            double value = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if ("date".equals(field)) {
+                    epochDay = parseEpochDay(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else if ("value".equals(field) && valueToken.isNumeric()) {
+                    value = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (epochDay != Integer.MIN_VALUE && !Double.isNaN(value)) {
+                consumer.accept(epochDay, value);
+            }
+        }
+    }
+
+    /**
+     * Decodes a whole series into columnar arrays, sorted by day.
+     */
+    public static ObservationSeries decode(JsonParser parser) throws IOException {
+        Collector collector = new Collector();
+        decode(parser, collector);
+        return ObservationSeries.sorted(collector.days, collector.values, collector.size);
+    }
+
+    /**
+     * Parses an ISO {@code yyyy-MM-dd} date into its epoch day without creating a {@link LocalDate}.
+     */
+    static int parseEpochDay(char[] text, int offset, int length) {
+        if (length != 10 || text[offset + 4] != '-' || text[offset + 7] != '-') {
+            return (int) LocalDate.parse(new String(text, offset, length)).toEpochDay();
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return (int) LocalDate.parse(new String(text, offset, length)).toEpochDay();
+        }
+        if (month < 1 || month > 12 || day < 1 || day > 28) {
+            // Only the rare days past the 28th need the full calendar check; it also rejects anything malformed
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        }
+        return daysFromCivil(year, month, day);
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static final class Collector implements ObservationConsumer {
+
+        private int[] days = new int[INITIAL_CAPACITY];
+        private double[] values = new double[INITIAL_CAPACITY];
+        private int size;
+
+        @Override
+        public void accept(int epochDay, double value) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            days[size] = epochDay;
+            values[size++] = value;
+        }
+    }
+}
@@ -1,55 +1,196 @@
 package org.example.external;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.config.RiksbankenProperties;
 import org.example.external.dto.CalendarDayResponse;
 import org.example.external.dto.CrossRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.example.metrics.RateMetrics;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Client for the Riksbank SWEA API. Responses are decoded straight from the response bytes with readers
+ * built once, so no body is ever copied into a {@code String}.
+ */
 @Component
 public class RiksbankenApi {
     private static final String CALENDAR_DAYS_URL = "https://api.riksbank.se/swea/v1/CalendarDays";
     private static final String CROSS_RATES_URL = "https://api.riksbank.se/swea/v1/CrossRates";
+    private static final String OBSERVATIONS_URL = "https://api.riksbank.se/swea/v1/Observations";
+    private static final String NO_SERIES = "none";
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader calendarDaysReader;
+    private final ObjectReader crossRatesReader;
+    private final ObjectReader observationsReader;
+    private final Duration requestTimeout;
+    private final RateMetrics metrics;
 
-    public RiksbankenApi(HttpClient httpClient, ObjectMapper objectMapper) {
+    public RiksbankenApi(HttpClient httpClient, ObjectMapper objectMapper, RiksbankenProperties properties, RateMetrics metrics) {
         this.httpClient = httpClient;
         this.objectMapper = objectMapper;
+        this.calendarDaysReader = objectMapper.readerFor(new TypeReference<List<CalendarDayResponse>>() {
+        });
+        this.crossRatesReader = objectMapper.readerFor(new TypeReference<List<CrossRateResponse>>() {
+        });
+        this.observationsReader = objectMapper.readerFor(new TypeReference<List<ObservationResponse>>() {
+        });
+        this.requestTimeout = properties.requestTimeout();
+        this.metrics = metrics;
     }
 
     public List<CalendarDayResponse> getCalendarDays(LocalDate date) throws Exception {
         String formattedDate = date.toString();
         String url = CALENDAR_DAYS_URL + "/" + formattedDate;
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
+        return send(get(url), calendarDaysReader, "calendar_days", NO_SERIES);
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return objectMapper.readValue(response.body(), new TypeReference<>() {
-        });
+    public List<CalendarDayResponse> getCalendarDays(LocalDate from, LocalDate to) throws Exception {
+        String url = CALENDAR_DAYS_URL + "/" + from + "/" + to;
+
+        return send(get(url), calendarDaysReader, "calendar_days", NO_SERIES);
     }
 
     public List<CrossRateResponse> getCrossRates(String seriesId1, String seriesId2, LocalDate from) throws Exception {
         String formattedDate = from.toString();
         String url = CROSS_RATES_URL + "/" + seriesId1 + "/" + seriesId2 + "/" + formattedDate;
 
-        HttpRequest request = HttpRequest.newBuilder()
+        return send(get(url), crossRatesReader, "cross_rates", seriesId1 + "/" + seriesId2);
+    }
+
+    public List<ObservationResponse> getObservations(String seriesId, LocalDate from) throws Exception {
+        String url = OBSERVATIONS_URL + "/" + seriesId + "/" + from;
+
+        return send(get(url), observationsReader, "observations", seriesId);
+    }
+
+    /**
+     * Streams the observations of one series between {@code from} and {@code to}, both inclusive, to
+     * {@code consumer} while the response is still being read, so multi-year ranges are never held in memory.
+     */
+    public void streamObservations(String seriesId, LocalDate from, LocalDate to, ObservationConsumer consumer) throws Exception {
+        String url = OBSERVATIONS_URL + "/" + seriesId + "/" + from + "/" + to;
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(get(url), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                checkStatus(response, "Observations " + seriesId + " " + from + "/" + to);
+                try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+                    ObservationDecoder.decode(parser, consumer);
+                }
+                success = true;
+            }
+        } finally {
+            metrics.upstreamCall("observation_stream", seriesId, start, success);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getCalendarDays(LocalDate, LocalDate)}.
+     */
+    public CompletableFuture<List<CalendarDayResponse>> getCalendarDaysAsync(LocalDate from, LocalDate to) {
+        String url = CALENDAR_DAYS_URL + "/" + from + "/" + to;
+
+        long start = System.nanoTime();
+        return timed(httpClient.sendAsync(get(url), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> read(response, calendarDaysReader, "Calendar days " + from + "/" + to)), "calendar_days", NO_SERIES, start);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getObservations(String, LocalDate)}.
+     */
+    public CompletableFuture<List<ObservationResponse>> getObservationsAsync(String seriesId, LocalDate from) {
+        String url = OBSERVATIONS_URL + "/" + seriesId + "/" + from;
+
+        long start = System.nanoTime();
+        return timed(httpClient.sendAsync(get(url), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> read(response, observationsReader, "Observations " + seriesId + " " + from)), "observations", seriesId, start);
+    }
+
+    /**
+     * Fetches one series from {@code from} onwards and decodes it into columnar form, with every date parsed
+     * to an epoch day.
+     */
+    public CompletableFuture<ObservationSeries> getObservationSeriesAsync(String seriesId, LocalDate from) {
+        String url = OBSERVATIONS_URL + "/" + seriesId + "/" + from;
+
+        long start = System.nanoTime();
+        return timed(httpClient.sendAsync(get(url), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try (JsonParser parser = objectMapper.getFactory().createParser(checkStatus(response, "Observations " + seriesId + " " + from).body())) {
+                        return ObservationDecoder.decode(parser);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }), "observations", seriesId, start);
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
+                .timeout(requestTimeout)
                 .GET()
                 .build();
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return objectMapper.readValue(response.body(), new TypeReference<>() {
-        });
+    private <T> T send(HttpRequest request, ObjectReader reader, String endpoint, String series) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                checkStatus(response, request.uri().getPath());
+                T result = reader.readValue(body);
+                success = true;
+                return result;
+            }
+        } finally {
+            metrics.upstreamCall(endpoint, series, start, success);
+        }
+    }
+
+    /**
+     * Records the call once the response is decoded, so the timing covers the whole round trip.
+     */
+    private <T> CompletableFuture<T> timed(CompletableFuture<T> call, String endpoint, String series, long start) {
+        return call.whenComplete((result, failure) -> metrics.upstreamCall(endpoint, series, start, failure == null));
+    }
+
+    private static <T> T read(HttpResponse<byte[]> response, ObjectReader reader, String call) {
+        try {
+            return reader.readValue(checkStatus(response, call).body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fails on an error status, so a 429 or 5xx is counted as a failed call rather than decoded, from an empty or
+     * error body, as a series without observations.
+     */
+    private static <T extends HttpResponse<?>> T checkStatus(T response, String call) throws IOException {
+        if (response.statusCode() >= 400) {
+            throw new IOException(call + " failed with status " + response.statusCode());
+        }
+        return response;
     }
 }
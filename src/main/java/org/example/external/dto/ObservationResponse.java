@@ -0,0 +1,7 @@
+package org.example.external.dto;
+
+public record ObservationResponse(
+        String date,
+        double value
+) {
+}
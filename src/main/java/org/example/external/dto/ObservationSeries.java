@@ -0,0 +1,77 @@
+package org.example.external.dto;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One SEK series in columnar form: ascending epoch days next to their values. Dates are parsed once when
+ * the series is decoded instead of being kept as strings.
+ */
+public record ObservationSeries(int[] epochDays, double[] values) {
+
+    public static final ObservationSeries EMPTY = new ObservationSeries(new int[0], new double[0]);
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    /**
+     * This series divided by {@code unit}, for series that quote SEK per more than one unit of the currency.
+     */
+    public ObservationSeries perUnit(int unit) {
+        if (unit == 1) {
+            return this;
+        }
+        double[] perUnit = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            perUnit[i] = values[i] / unit;
+        }
+        return new ObservationSeries(epochDays, perUnit);
+    }
+
+    public static ObservationSeries of(List<ObservationResponse> observations) {
+        int[] days = new int[observations.size()];
+        double[] values = new double[observations.size()];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = (int) LocalDate.parse(observations.get(i).date()).toEpochDay();
+            values[i] = observations.get(i).value();
+        }
+        return sorted(days, values, days.length);
+    }
+
+    /**
+     * Wraps the first {@code size} entries, sorting them by day if they are not in order already.
+     */
+    public static ObservationSeries sorted(int[] days, double[] values, int size) {
+        int[] seriesDays = Arrays.copyOf(days, size);
+        double[] seriesValues = Arrays.copyOf(values, size);
+        for (int i = 1; i < size; i++) {
+            if (seriesDays[i - 1] > seriesDays[i]) {
+                sortByDay(seriesDays, seriesValues);
+                break;
+            }
+        }
+        return new ObservationSeries(seriesDays, seriesValues);
+    }
+
+    private static void sortByDay(int[] days, double[] values) {
+        Integer[] order = new Integer[days.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(days[a], days[b]));
+        int[] sortedDays = new int[days.length];
+        double[] sortedValues = new double[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedDays[i] = days[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        System.arraycopy(sortedDays, 0, days, 0, days.length);
+        System.arraycopy(sortedValues, 0, values, 0, values.length);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.external.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SeriesResponse(
+        String seriesId,
+        String shortDescription,
+        String midDescription,
+        String longDescription,
+        boolean seriesClosed
+) {
+}
@@ -1,10 +1,21 @@
 package org.example.mapper;
 
+import org.example.Currency;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.repository.entities.ExchangeRate;
+import org.example.repository.projections.StoredRate;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface ExchangeRateMapper {
+    @Mapping(target = "stale", ignore = true)
     ExchangeRateResponse toDto(ExchangeRate exchangeRate);
-}
\ No newline at end of file
+
+    @Mapping(target = "stale", ignore = true)
+    ExchangeRateResponse toDto(StoredRate storedRate);
+
+    default String toCode(Currency currency) {
+        return currency == null ? null : currency.code();
+    }
+}
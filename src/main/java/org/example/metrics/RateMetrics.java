@@ -0,0 +1,138 @@
+package org.example.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for the rate resolution path. Everything a request touches on the way to a cached or stored rate is
+ * registered up front, so recording is a plain counter or timer update with no registry lookup. Upstream
+ * timers are tagged with the series and looked up per call, which is negligible next to the request itself.
+ */
+@Component
+public class RateMetrics {
+
+    /**
+     * Which branch of the latest-rate lookup answered a request.
+     */
+    public enum Resolution {
+        CACHE("cache"),
+        HISTORY_TODAY("history_today"),
+        UPSTREAM_AFTER_CUTOFF("upstream_after_cutoff"),
+        UPSTREAM_PAST_WEEK("upstream_past_week"),
+        STALE("stale");
+
+        private final String tag;
+
+        Resolution(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Database calls made while resolving and publishing rates.
+     */
+    public enum Query {
+        LATEST_RATE_DATES("latest_rate_dates"),
+        UPSERT("upsert");
+
+        private final String tag;
+
+        Query(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Resolution, Timer> resolutions = new EnumMap<>(Resolution.class);
+    private final Map<Query, Timer> queries = new EnumMap<>(Query.class);
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public RateMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Resolution resolution : Resolution.values()) {
+            resolutions.put(resolution, Timer.builder("currency.rate.resolution")
+                    .description("Time to resolve the latest rate of a pair, by the branch that answered")
+                    .tag("branch", resolution.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Query query : Query.values()) {
+            queries.put(query, Timer.builder("currency.db.query")
+                    .description("Time spent in database calls on the rate path")
+                    .tag("query", query.tag)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.cacheHits = cacheCounter(registry, "hit");
+        this.cacheMisses = cacheCounter(registry, "miss");
+    }
+
+    /**
+     * Records how long a request took since {@code startNanos} under {@code resolution} and hands back
+     * {@code result}, so callers can record and return in one statement.
+     */
+    public <T> T resolved(Resolution resolution, long startNanos, T result) {
+        resolutions.get(resolution).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    public void cacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public <T> T timeQuery(Query query, Supplier<T> call) {
+        return queries.get(query).record(call);
+    }
+
+    public void timeQuery(Query query, Runnable call) {
+        queries.get(query).record(call);
+    }
+
+    /**
+     * Counts upstream fetches by whether a caller ran one or shared one already in flight, read from
+     * {@code source} whenever the registry is scraped. Meters only hold {@code source} weakly, so it has to be
+     * an object its owner keeps.
+     */
+    public <T> void upstreamFetches(T source, ToLongFunction<T> executed, ToLongFunction<T> deduplicated) {
+        upstreamFetchCounter(source, "executed", executed);
+        upstreamFetchCounter(source, "deduplicated", deduplicated);
+    }
+
+    /**
+     * Records one Riksbank API call. {@code series} is the SWEA series id, or {@code "none"} for endpoints that
+     * are not about a single series.
+     */
+    public void upstreamCall(String endpoint, String series, long startNanos, boolean success) {
+        Timer.builder("riksbank.request")
+                .description("Latency of Riksbank API calls")
+                .tag("endpoint", endpoint)
+                .tag("series", series)
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private <T> void upstreamFetchCounter(T source, String result, ToLongFunction<T> count) {
+        FunctionCounter.builder("currency.upstream.fetch", source, value -> count.applyAsLong(value))
+                .description("Upstream rate fetches, run or shared with a concurrent caller")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter cacheCounter(MeterRegistry registry, String result) {
+        return Counter.builder("currency.rate.cache")
+                .description("Latest-rate cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+}
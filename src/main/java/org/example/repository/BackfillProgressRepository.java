@@ -0,0 +1,9 @@
+package org.example.repository;
+
+import org.example.repository.entities.BackfillProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BackfillProgressRepository extends JpaRepository<BackfillProgress, String> {
+}
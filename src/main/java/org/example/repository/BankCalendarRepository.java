@@ -0,0 +1,9 @@
+package org.example.repository;
+
+import org.example.repository.entities.BankCalendarYear;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BankCalendarRepository extends JpaRepository<BankCalendarYear, Integer> {
+}
@@ -1,7 +1,10 @@
 package org.example.repository;
 
-import org.example.CurrencyEnum;
+import java.time.LocalDate;
+import java.util.List;
+import org.example.Currency;
 import org.example.repository.entities.ExchangeRate;
+import org.example.repository.projections.LatestRateDate;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,6 +12,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CurrencyExchangeRepository extends JpaRepository<ExchangeRate, Long> {
 
-    @Query("SELECT e FROM ExchangeRate e WHERE e.currencyFrom = :currencyFrom AND e.currencyTo = :currencyTo ORDER BY e.latestRateDate DESC, e.id DESC LIMIT 1")
-    ExchangeRate findLatestExchangeRateByCurrencies(CurrencyEnum currencyFrom, CurrencyEnum currencyTo);
+    @Query("SELECT new org.example.repository.projections.LatestRateDate(e.currencyFrom, e.currencyTo, MAX(e.latestRateDate)) FROM ExchangeRate e GROUP BY e.currencyFrom, e.currencyTo")
+    List<LatestRateDate> findLatestRateDates();
+
+    List<ExchangeRate> findByCurrencyFromAndCurrencyToOrderByLatestRateDate(Currency currencyFrom, Currency currencyTo);
+
+    List<ExchangeRate> findByCurrencyFromAndCurrencyToAndLatestRateDateAfterOrderByLatestRateDate(Currency currencyFrom, Currency currencyTo, LocalDate after);
 }
@@ -0,0 +1,118 @@
+package org.example.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import org.example.Currency;
+import org.example.repository.entities.ExchangeRate;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Upserts {@code ExchangeRate} rows through plain JDBC batches, keyed on (currency from, currency to, rate
+ * date). Writing the same day twice updates the rate instead of adding a row, so concurrent refreshes and
+ * re-run backfills stay idempotent. Writes go through here rather than
+ * {@link CurrencyExchangeRepository#saveAll}, which issues one insert per row for identity-keyed entities.
+ * <p>
+ * PostgreSQL gets {@code INSERT ... ON CONFLICT DO UPDATE}, which takes the row lock on the unique key and cannot
+ * fail when two nodes insert the same day at once, as its {@code MERGE} can. Other databases, H2 among them, get
+ * the standard {@code MERGE}. The dialect is read from the connection on the first write.
+ */
+@Repository
+public class ExchangeRateBatchWriter {
+
+    private static final String POSTGRESQL_UPSERT_SQL = """
+            INSERT INTO exchange_rate (currency_from, currency_to, latest_rate_date, rate) VALUES (?, ?, ?, ?)
+            ON CONFLICT (currency_from, currency_to, latest_rate_date) DO UPDATE SET rate = EXCLUDED.rate
+            """;
+    private static final String MERGE_SQL = """
+            MERGE INTO exchange_rate t
+            USING (VALUES (CAST(? AS VARCHAR(16)), CAST(? AS VARCHAR(16)), CAST(? AS DATE), CAST(? AS DOUBLE PRECISION)))
+                AS s (currency_from, currency_to, latest_rate_date, rate)
+            ON t.currency_from = s.currency_from AND t.currency_to = s.currency_to AND t.latest_rate_date = s.latest_rate_date
+            WHEN MATCHED THEN UPDATE SET rate = s.rate
+            WHEN NOT MATCHED THEN INSERT (currency_from, currency_to, latest_rate_date, rate)
+                VALUES (s.currency_from, s.currency_to, s.latest_rate_date, s.rate)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql;
+
+    public ExchangeRateBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Upserts the given rows in a single JDBC batch.
+     */
+    public void upsert(List<ExchangeRate> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(upsertSql(), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                ExchangeRate rate = rates.get(i);
+                bind(statement, rate.getCurrencyFrom(), rate.getCurrencyTo(), rate.getLatestRateDate(), rate.getRate());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rates.size();
+            }
+        });
+    }
+
+    /**
+     * Upserts the first {@code count} rates of one pair in a single JDBC batch.
+     */
+    public void upsert(Currency currencyFrom, Currency currencyTo, int[] epochDays, double[] rates, int count) {
+        if (count == 0) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(upsertSql(), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                bind(statement, currencyFrom, currencyTo, LocalDate.ofEpochDay(epochDays[i]), rates[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Upsert statement for the database {@code databaseProductName} names, as its JDBC driver reports it.
+     */
+    static String upsertSql(String databaseProductName) {
+        return "PostgreSQL".equals(JdbcUtils.commonDatabaseName(databaseProductName)) ? POSTGRESQL_UPSERT_SQL : MERGE_SQL;
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            try {
+                sql = upsertSql(JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Cannot tell which database the exchange rates are written to", e);
+            }
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private static void bind(PreparedStatement statement, Currency currencyFrom, Currency currencyTo, LocalDate rateDate, double rate) throws SQLException {
+        statement.setString(1, currencyFrom.code());
+        statement.setString(2, currencyTo.code());
+        statement.setDate(3, Date.valueOf(rateDate));
+        statement.setDouble(4, rate);
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.example.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Brings an {@code exchange_rate} table left by an earlier version in line with what the upserts rely on, before
+ * Hibernate updates the schema.
+ * <p>
+ * Earlier versions could store the same (currency from, currency to, rate date) more than once, so the unique key
+ * {@link ExchangeRateBatchWriter} conflicts on could not be created over their rows, and PostgreSQL would then
+ * reject every {@code ON CONFLICT} upsert. All but the newest row of each day are deleted and the key is added.
+ * <p>
+ * They also stored every derived pair, where now only the {@code X -> SEK} series are stored and other pairs are
+ * triangulated from them on read. Those rows are no longer read, so they are deleted, along with the index that
+ * served the per-pair latest-rate lookup. A fresh database has no table yet and is left to Hibernate.
+ */
+@Repository
+public class ExchangeRateSchemaMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateSchemaMigration.class);
+
+    private static final String TABLE = "exchange_rate";
+    private static final Set<String> KEY_COLUMNS = Set.of("currency_from", "currency_to", "latest_rate_date");
+    private static final String DELETE_CROSS_PAIRS_SQL = "DELETE FROM exchange_rate WHERE currency_to <> ? OR currency_from = ?";
+    private static final String DROP_LATEST_INDEX_SQL = "DROP INDEX IF EXISTS idx_exchange_rate_latest";
+    private static final String DELETE_DUPLICATES_SQL = """
+            DELETE FROM exchange_rate e
+            WHERE EXISTS (SELECT 1 FROM exchange_rate d
+                          WHERE d.currency_from = e.currency_from AND d.currency_to = e.currency_to
+                            AND d.latest_rate_date = e.latest_rate_date AND d.id > e.id)
+            """;
+    private static final String ADD_KEY_SQL = """
+            ALTER TABLE exchange_rate ADD CONSTRAINT uk_exchange_rate_pair_date
+            UNIQUE (currency_from, currency_to, latest_rate_date)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExchangeRateSchemaMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    void migrate() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> hasTable(connection.getMetaData())))) {
+            return;
+        }
+        int crossPairs = jdbcTemplate.update(DELETE_CROSS_PAIRS_SQL, Currency.SEK.code(), Currency.SEK.code());
+        if (crossPairs > 0) {
+            log.info("Deleted {} stored rates of pairs that are now triangulated from the SEK series", crossPairs);
+        }
+        jdbcTemplate.execute(DROP_LATEST_INDEX_SQL);
+        int duplicates = jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+        if (duplicates > 0) {
+            log.info("Deleted {} duplicate exchange rate rows", duplicates);
+        }
+        if (!hasUniqueKey()) {
+            jdbcTemplate.execute(ADD_KEY_SQL);
+            log.info("Added the unique key on (currency_from, currency_to, latest_rate_date)");
+        }
+    }
+
+    /**
+     * Whether a unique index covers exactly the columns the upserts conflict on, whatever the database named it.
+     */
+    boolean hasUniqueKey() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Set<String>> uniqueIndexes = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, tableName(metaData), true, false)) {
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (column != null) {
+                        uniqueIndexes.computeIfAbsent(indexes.getString("INDEX_NAME"), name -> new HashSet<>())
+                                .add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return uniqueIndexes.containsValue(KEY_COLUMNS);
+        }));
+    }
+
+    private static boolean hasTable(DatabaseMetaData metaData) throws SQLException {
+        try (ResultSet tables = metaData.getTables(metaData.getConnection().getCatalog(), null, tableName(metaData), new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private static String tableName(DatabaseMetaData metaData) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? TABLE.toUpperCase(Locale.ROOT) : TABLE;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.repository;
+
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Leases kept as {@code fetch_lease} rows, so nodes sharing the database agree on who holds one.
+ * <p>
+ * Taking a lease is a single upsert that inserts a missing row and otherwise only updates it while it is expired or
+ * already held by the caller. The database serializes concurrent writes of the row, so exactly one node wins, and a
+ * node that loses changes no row instead of failing on the primary key. PostgreSQL gets
+ * {@code INSERT ... ON CONFLICT DO UPDATE ... WHERE}, other databases, H2 among them, a conditional {@code MERGE}.
+ * Expiry is computed and compared with the database clock, so clock skew between nodes does not decide who holds
+ * the lease.
+ */
+@Repository
+public class FetchLeaseStore {
+
+    /**
+     * The database's current time in epoch milliseconds; {@code EXTRACT(EPOCH ...)} is understood by both H2
+     * and PostgreSQL.
+     */
+    private static final String NOW_MILLIS = "CAST(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000 AS BIGINT)";
+    private static final String POSTGRESQL_ACQUIRE_SQL = """
+            INSERT INTO fetch_lease (name, holder, expires_at) VALUES (?, ?, %1$s + ?)
+            ON CONFLICT (name) DO UPDATE SET holder = EXCLUDED.holder, expires_at = EXCLUDED.expires_at
+            WHERE fetch_lease.holder = EXCLUDED.holder OR fetch_lease.expires_at <= %1$s
+            """.formatted(NOW_MILLIS);
+    private static final String MERGE_SQL = """
+            MERGE INTO fetch_lease t
+            USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(128)), %1$s + CAST(? AS BIGINT)))
+                AS s (name, holder, expires_at)
+            ON t.name = s.name
+            WHEN MATCHED AND (t.holder = s.holder OR t.expires_at <= %1$s) THEN
+                UPDATE SET holder = s.holder, expires_at = s.expires_at
+            WHEN NOT MATCHED THEN INSERT (name, holder, expires_at) VALUES (s.name, s.holder, s.expires_at)
+            """.formatted(NOW_MILLIS);
+    private static final String REMAINING_SQL = "SELECT expires_at - " + NOW_MILLIS + " FROM fetch_lease WHERE name = ?";
+    private static final String RELEASE_SQL = "UPDATE fetch_lease SET expires_at = 0 WHERE name = ? AND holder = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String acquireSql;
+
+    public FetchLeaseStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes or extends the lease {@code name} for {@code holder} until {@code duration} from now on the database
+     * clock. Returns {@code false} while another holder's lease has not expired.
+     */
+    public boolean tryAcquire(String name, String holder, Duration duration) {
+        try {
+            return jdbcTemplate.update(acquireSql(), name, holder, duration.toMillis()) == 1;
+        } catch (DuplicateKeyException e) {
+            // Only a MERGE can race another node inserting the missing row; that node holds it now
+            return false;
+        }
+    }
+
+    /**
+     * How long the lease {@code name} is still held on the database clock, zero once it has expired or was never
+     * taken.
+     */
+    public Duration remaining(String name) {
+        Long millis = jdbcTemplate.query(REMAINING_SQL, rs -> rs.next() ? rs.getLong(1) : null, name);
+        return millis == null || millis <= 0 ? Duration.ZERO : Duration.ofMillis(millis);
+    }
+
+    /**
+     * Gives up {@code holder}'s lease early, so the next node does not wait for it to expire.
+     */
+    public void release(String name, String holder) {
+        jdbcTemplate.update(RELEASE_SQL, name, holder);
+    }
+
+    /**
+     * Acquire statement for the database {@code databaseProductName} names, as its JDBC driver reports it.
+     */
+    static String acquireSql(String databaseProductName) {
+        return "PostgreSQL".equals(JdbcUtils.commonDatabaseName(databaseProductName)) ? POSTGRESQL_ACQUIRE_SQL : MERGE_SQL;
+    }
+
+    private String acquireSql() {
+        String sql = acquireSql;
+        if (sql == null) {
+            try {
+                sql = acquireSql(JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Cannot tell which database holds the fetch leases", e);
+            }
+            acquireSql = sql;
+        }
+        return sql;
+    }
+}
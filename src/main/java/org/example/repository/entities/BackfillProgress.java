@@ -0,0 +1,44 @@
+package org.example.repository.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.time.LocalDate;
+
+/**
+ * How far the historical backfill of one Riksbank series has been written, so a restarted backfill resumes
+ * after the last completed window instead of starting over.
+ */
+@Entity
+public class BackfillProgress {
+
+    @Id
+    private String seriesId;
+
+    @Column(nullable = false)
+    private LocalDate completedThrough;
+
+    public BackfillProgress() {
+    }
+
+    public BackfillProgress(String seriesId, LocalDate completedThrough) {
+        this.seriesId = seriesId;
+        this.completedThrough = completedThrough;
+    }
+
+    public String getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(String seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public LocalDate getCompletedThrough() {
+        return completedThrough;
+    }
+
+    public void setCompletedThrough(LocalDate completedThrough) {
+        this.completedThrough = completedThrough;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.repository.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+
+/**
+ * One calendar year of Swedish bank days, stored as a bitmap with one bit per day of the year.
+ */
+@Entity
+public class BankCalendarYear {
+
+    @Id
+    private Integer calendarYear;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] bankDays;
+
+    public BankCalendarYear() {
+    }
+
+    public BankCalendarYear(Integer calendarYear, byte[] bankDays) {
+        this.calendarYear = calendarYear;
+        this.bankDays = bankDays;
+    }
+
+    public Integer getCalendarYear() {
+        return calendarYear;
+    }
+
+    public void setCalendarYear(Integer calendarYear) {
+        this.calendarYear = calendarYear;
+    }
+
+    public byte[] getBankDays() {
+        return bankDays;
+    }
+
+    public void setBankDays(byte[] bankDays) {
+        this.bankDays = bankDays;
+    }
+}
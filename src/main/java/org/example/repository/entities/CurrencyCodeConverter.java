@@ -0,0 +1,22 @@
+package org.example.repository.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.example.Currency;
+
+/**
+ * Stores a currency as its code, the same text the columns held while currencies were an enum.
+ */
+@Converter
+public class CurrencyCodeConverter implements AttributeConverter<Currency, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Currency currency) {
+        return currency == null ? null : currency.code();
+    }
+
+    @Override
+    public Currency convertToEntityAttribute(String code) {
+        return code == null ? null : Currency.valueOf(code);
+    }
+}
@@ -1,16 +1,20 @@
 package org.example.repository.entities;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.LocalDate;
-import org.example.CurrencyEnum;
+import org.example.Currency;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_exchange_rate_pair_date",
+        columnNames = {"currency_from", "currency_to", "latest_rate_date"}))
 public class ExchangeRate {
 
     @Id
@@ -20,13 +24,13 @@ public class ExchangeRate {
     @Column(nullable = false)
     private LocalDate latestRateDate;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = CurrencyCodeConverter.class)
     @Column(nullable = false)
-    private CurrencyEnum currencyFrom;
+    private Currency currencyFrom;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = CurrencyCodeConverter.class)
     @Column(nullable = false)
-    private CurrencyEnum currencyTo;
+    private Currency currencyTo;
 
     @Column(nullable = false)
     private Double rate;
@@ -34,7 +38,7 @@ public class ExchangeRate {
     public ExchangeRate() {
     }
 
-    public ExchangeRate(CurrencyEnum currencyFrom, Double rate, LocalDate latestRateDate, CurrencyEnum currencyTo) {
+    public ExchangeRate(Currency currencyFrom, Double rate, LocalDate latestRateDate, Currency currencyTo) {
         this.currencyFrom = currencyFrom;
         this.rate = rate;
         this.latestRateDate = latestRateDate;
@@ -57,19 +61,19 @@ public class ExchangeRate {
         this.latestRateDate = latestRateDate;
     }
 
-    public CurrencyEnum getCurrencyFrom() {
+    public Currency getCurrencyFrom() {
         return currencyFrom;
     }
 
-    public void setCurrencyFrom(CurrencyEnum currencyFrom) {
+    public void setCurrencyFrom(Currency currencyFrom) {
         this.currencyFrom = currencyFrom;
     }
 
-    public CurrencyEnum getCurrencyTo() {
+    public Currency getCurrencyTo() {
         return currencyTo;
     }
 
-    public void setCurrencyTo(CurrencyEnum currencyTo) {
+    public void setCurrencyTo(Currency currencyTo) {
         this.currencyTo = currencyTo;
     }
 
@@ -0,0 +1,56 @@
+package org.example.repository.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * A named lease held by one node of the cluster until {@code expiresAt}, in epoch milliseconds. Only read and
+ * written through {@code FetchLeaseStore}; mapped so the schema is created with the rest of the tables.
+ */
+@Entity
+public class FetchLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String holder;
+
+    @Column(nullable = false)
+    private long expiresAt;
+
+    public FetchLease() {
+    }
+
+    public FetchLease(String name, String holder, long expiresAt) {
+        this.name = name;
+        this.holder = holder;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
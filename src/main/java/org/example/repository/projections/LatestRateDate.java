@@ -0,0 +1,7 @@
+package org.example.repository.projections;
+
+import java.time.LocalDate;
+import org.example.Currency;
+
+public record LatestRateDate(Currency currencyFrom, Currency currencyTo, LocalDate latestRateDate) {
+}
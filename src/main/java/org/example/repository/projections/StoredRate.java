@@ -0,0 +1,10 @@
+package org.example.repository.projections;
+
+import java.time.LocalDate;
+import org.example.Currency;
+
+/**
+ * Read-only view of a stored rate: an {@code X -> SEK} row, or a rate triangulated from two of them.
+ */
+public record StoredRate(Currency currencyFrom, Currency currencyTo, double rate, LocalDate latestRateDate) {
+}
@@ -0,0 +1,176 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.CalendarDayResponse;
+import org.example.repository.BankCalendarRepository;
+import org.example.repository.entities.BankCalendarYear;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Memoized Swedish bank-day calendar.
+ * <p>
+ * A whole year is loaded in one {@code CalendarDays} range call and kept as a bitmap indexed by the
+ * epoch-day offset from January 1st. Loaded years are persisted, so a restart reads them from the
+ * database instead of the Riksbank API. Once a year is loaded, lookups are a pair of array reads.
+ */
+@Component
+public class BankCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(BankCalendar.class);
+
+    static final int FIRST_YEAR = 1990;
+    static final int LAST_YEAR = 2199;
+    private static final long RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final RiksbankenApi riksbankenApi;
+    private final BankCalendarRepository repository;
+    private final AtomicReferenceArray<YearDays> years = new AtomicReferenceArray<>(LAST_YEAR - FIRST_YEAR + 1);
+    private final ReentrantLock loadLock = new ReentrantLock();
+    /**
+     * {@link System#nanoTime()} before which a failed load isn't retried, or {@code null} while no load has failed.
+     */
+    private volatile Long retryNotBefore;
+
+    public BankCalendar(RiksbankenApi riksbankenApi, BankCalendarRepository repository) {
+        this.riksbankenApi = riksbankenApi;
+        this.repository = repository;
+    }
+
+    /**
+     * What the calendar knows about a date.
+     */
+    public enum Day {
+        BANK_DAY,
+        NON_BANK_DAY,
+        /**
+         * The date's year could not be loaded, so the date may be either.
+         */
+        UNKNOWN
+    }
+
+    /**
+     * Returns whether {@code date} is a Swedish bank day, or {@link Day#UNKNOWN} when its year cannot be loaded,
+     * so callers can tell a failing calendar from a holiday.
+     */
+    public Day day(LocalDate date) {
+        int year = date.getYear();
+        if (year < FIRST_YEAR || year > LAST_YEAR) {
+            return Day.UNKNOWN;
+        }
+        YearDays days = years.get(year - FIRST_YEAR);
+        if (days == null) {
+            days = load(year);
+            if (days == null) {
+                return Day.UNKNOWN;
+            }
+        }
+        return days.isBankDay(date) ? Day.BANK_DAY : Day.NON_BANK_DAY;
+    }
+
+    /**
+     * Whether a rate may be published on {@code date}: true on bank days and on days the calendar cannot tell
+     * about, where waiting on a rate that never comes costs less than caching around one that does.
+     */
+    public boolean mayBeBankDay(LocalDate date) {
+        return day(date) != Day.NON_BANK_DAY;
+    }
+
+    /**
+     * The bank-day bitmap of every year loaded so far, keyed by year.
+     */
+    Map<Integer, byte[]> loadedYears() {
+        Map<Integer, byte[]> loaded = new TreeMap<>();
+        for (int i = 0; i < years.length(); i++) {
+            YearDays days = years.get(i);
+            if (days != null) {
+                loaded.put(FIRST_YEAR + i, days.bankDays().toByteArray());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Installs a year's bitmap read back from a snapshot, unless the year is already loaded.
+     */
+    void restoreYear(int year, byte[] bankDays) {
+        if (year >= FIRST_YEAR && year <= LAST_YEAR) {
+            years.compareAndSet(year - FIRST_YEAR, null, YearDays.of(year, BitSet.valueOf(bankDays)));
+        }
+    }
+
+    private YearDays load(int year) {
+        Long notBefore = retryNotBefore;
+        if (notBefore != null && System.nanoTime() - notBefore < 0) {
+            return null;
+        }
+        loadLock.lock();
+        try {
+            YearDays days = years.get(year - FIRST_YEAR);
+            if (days != null) {
+                return days;
+            }
+            days = repository.findById(year)
+                    .map(stored -> YearDays.of(year, BitSet.valueOf(stored.getBankDays())))
+                    .orElse(null);
+            if (days == null) {
+                days = fetch(year);
+                if (days == null) {
+                    // Don't let every request queue up behind a failing upstream call
+                    retryNotBefore = System.nanoTime() + RETRY_DELAY_NANOS;
+                    return null;
+                }
+                repository.save(new BankCalendarYear(year, days.bankDays().toByteArray()));
+            }
+            years.set(year - FIRST_YEAR, days);
+            retryNotBefore = null;
+            return days;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private YearDays fetch(int year) {
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        LocalDate lastDay = LocalDate.of(year, 12, 31);
+        try {
+            List<CalendarDayResponse> calendarDays = riksbankenApi.getCalendarDays(firstDay, lastDay);
+            if (calendarDays.size() < Year.of(year).length()) {
+                log.warn("Riksbank calendar for {} is incomplete ({} days)", year, calendarDays.size());
+                return null;
+            }
+            long firstEpochDay = firstDay.toEpochDay();
+            BitSet bankDays = new BitSet(Year.of(year).length());
+            for (CalendarDayResponse calendarDay : calendarDays) {
+                if (calendarDay.swedishBankday()) {
+                    bankDays.set((int) (LocalDate.parse(calendarDay.calendarDate()).toEpochDay() - firstEpochDay));
+                }
+            }
+            return YearDays.of(year, bankDays);
+        } catch (Exception e) {
+            log.warn("Could not load the Riksbank calendar for {}", year, e);
+            return null;
+        }
+    }
+
+    private record YearDays(long firstEpochDay, BitSet bankDays) {
+
+        static YearDays of(int year, BitSet bankDays) {
+            return new YearDays(LocalDate.of(year, 1, 1).toEpochDay(), bankDays);
+        }
+
+        boolean isBankDay(LocalDate date) {
+            return bankDays.get((int) (date.toEpochDay() - firstEpochDay));
+        }
+    }
+}
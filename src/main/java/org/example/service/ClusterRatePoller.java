@@ -0,0 +1,94 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.mapper.ExchangeRateMapper;
+import org.example.metrics.RateMetrics;
+import org.example.metrics.RateMetrics.Query;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.projections.LatestRateDate;
+import org.example.repository.projections.StoredRate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.example.service.CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM;
+
+/**
+ * Brings rates fetched by another instance of the cluster into this one.
+ * <p>
+ * Only the {@code X -> SEK} series are stored, so every poll reads the latest stored day of each of them, one
+ * grouped query. The new days of each series that moved since the last poll are merged into
+ * {@link RateHistory}, one query per currency, and every pair with that currency on either side is triangulated
+ * from the history in memory, then cached and pushed to subscribers as if it had been fetched here.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.cluster.enabled", havingValue = "true")
+public class ClusterRatePoller {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRatePoller.class);
+
+    private final CurrencyExchangeRepository repository;
+    private final ExchangeRateMapper mapper;
+    private final RateHistory rateHistory;
+    private final CurrencyExchangeServiceImpl currencyExchangeService;
+    private final RateMetrics metrics;
+    private final Map<Currency, LocalDate> seen = new HashMap<>();
+
+    public ClusterRatePoller(CurrencyExchangeRepository repository, ExchangeRateMapper mapper, RateHistory rateHistory, CurrencyExchangeServiceImpl currencyExchangeService, RateMetrics metrics) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.rateHistory = rateHistory;
+        this.currencyExchangeService = currencyExchangeService;
+        this.metrics = metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${currency.cluster.poll-interval:10s}")
+    public void poll() {
+        poll(ZonedDateTime.now(ZoneId.of(EUROPE_STOCKHOLM)));
+    }
+
+    void poll(ZonedDateTime stockholmTime) {
+        List<Currency> moved = new ArrayList<>();
+        for (LatestRateDate stored : metrics.timeQuery(Query.LATEST_RATE_DATES, repository::findLatestRateDates)) {
+            // Only X -> SEK rows are stored; ExchangeRateSchemaMigration deletes those of other pairs
+            if (stored.currencyTo().isBaseCurrency() && !stored.currencyFrom().isBaseCurrency()
+                    && !stored.latestRateDate().equals(seen.put(stored.currencyFrom(), stored.latestRateDate()))) {
+                moved.add(stored.currencyFrom());
+            }
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+        moved.forEach(rateHistory::loadNewer);
+
+        Map<CurrencyPair, ExchangeRateResponse> changed = new HashMap<>();
+        for (Currency currency : moved) {
+            for (Currency other : Currency.values()) {
+                putLatest(changed, currency, other);
+                putLatest(changed, other, currency);
+            }
+        }
+        if (!changed.isEmpty()) {
+            currencyExchangeService.publishStoredRates(changed, stockholmTime);
+            log.debug("Picked up {} stored rates", changed.size());
+        }
+    }
+
+    private void putLatest(Map<CurrencyPair, ExchangeRateResponse> changed, Currency currencyFrom, Currency currencyTo) {
+        StoredRate latestRate = rateHistory.latest(currencyFrom, currencyTo);
+        if (latestRate != null) {
+            changed.put(new CurrencyPair(currencyFrom, currencyTo), mapper.toDto(latestRate));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.example.Currency;
+import org.example.external.CircuitBreaker;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives every cross rate from the SEK series, so one upstream call per currency covers all pairs.
+ */
+@Component
+public class CrossRateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(CrossRateEngine.class);
+
+    private final RiksbankenApi riksbankenApi;
+    private final RateHistory rateHistory;
+    private final CircuitBreaker circuitBreaker;
+
+    public CrossRateEngine(RiksbankenApi riksbankenApi, RateHistory rateHistory, CircuitBreaker circuitBreaker) {
+        this.riksbankenApi = riksbankenApi;
+        this.rateHistory = rateHistory;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Fetches every SEK series from {@code from} onwards and triangulates the latest rates. All series are
+     * requested at once, so the call takes as long as the slowest one. A series that fails to load only
+     * leaves out the pairs that need it, and one that fails to be stored is still used. While the circuit
+     * breaker is open nothing is fetched and the matrix is empty.
+     */
+    public RateMatrix fetchRates(LocalDate from) {
+        if (!circuitBreaker.allowRequest()) {
+            log.debug("Riksbank circuit is open, not fetching rates from {}", from);
+            return RateMatrix.empty();
+        }
+        Map<Currency, CompletableFuture<ObservationSeries>> pending = requestSeries(from);
+
+        Map<Currency, ObservationSeries> observations = new LinkedHashMap<>();
+        for (Map.Entry<Currency, CompletableFuture<ObservationSeries>> series : pending.entrySet()) {
+            Currency currency = series.getKey();
+            try {
+                ObservationSeries fetched = series.getValue().join();
+                circuitBreaker.recordSuccess();
+                observations.put(currency, fetched);
+            } catch (CompletionException e) {
+                circuitBreaker.recordFailure();
+                log.warn("Could not fetch {} observations from {}", currency.seriesId(), from, e.getCause());
+            }
+        }
+        observations.forEach(this::recordHistory);
+        return RateMatrix.fromSeries(observations);
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchRates(LocalDate)} for callers that keep rates in memory only: the
+     * series are not recorded in the rate history, which would write to the database.
+     */
+    public CompletableFuture<RateMatrix> fetchRatesAsync(LocalDate from) {
+        if (!circuitBreaker.allowRequest()) {
+            log.debug("Riksbank circuit is open, not fetching rates from {}", from);
+            return CompletableFuture.completedFuture(RateMatrix.empty());
+        }
+        Map<Currency, CompletableFuture<ObservationSeries>> pending = new LinkedHashMap<>();
+        requestSeries(from).forEach((currency, series) -> pending.put(currency, series.handle((fetched, failure) -> {
+            if (failure != null) {
+                circuitBreaker.recordFailure();
+                log.warn("Could not fetch {} observations from {}", currency.seriesId(), from, failure);
+                return null;
+            }
+            circuitBreaker.recordSuccess();
+            return fetched;
+        })));
+
+        return CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<Currency, ObservationSeries> observations = new LinkedHashMap<>();
+            pending.forEach((currency, series) -> {
+                ObservationSeries fetched = series.join();
+                if (fetched != null) {
+                    observations.put(currency, fetched);
+                }
+            });
+            return RateMatrix.fromSeries(observations);
+        });
+    }
+
+    /**
+     * Fetches one SEK series from {@code from} onwards and records every observation in the rate history.
+     */
+    public List<ObservationResponse> fetchSeries(Currency currency, LocalDate from) throws Exception {
+        List<ObservationResponse> observations = riksbankenApi.getObservations(currency.seriesId(), from);
+        rateHistory.record(currency, observations);
+        return observations;
+    }
+
+    /**
+     * Records a fetched series in the rate history. A database failure only leaves the days unstored, to be
+     * written by the next fetch; the fetched rates are still served.
+     */
+    private void recordHistory(Currency currency, ObservationSeries fetched) {
+        try {
+            rateHistory.record(currency, fetched);
+        } catch (DataAccessException e) {
+            log.warn("Could not store {} observations", currency.seriesId(), e);
+        }
+    }
+
+    private Map<Currency, CompletableFuture<ObservationSeries>> requestSeries(LocalDate from) {
+        Map<Currency, CompletableFuture<ObservationSeries>> pending = new LinkedHashMap<>();
+        for (Currency currency : Currency.values()) {
+            if (!currency.isBaseCurrency()) {
+                pending.put(currency, riksbankenApi.getObservationSeriesAsync(currency.seriesId(), from));
+            }
+        }
+        return pending;
+    }
+}
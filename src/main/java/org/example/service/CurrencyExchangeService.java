@@ -1,10 +1,16 @@
 package org.example.service;
 
-import org.example.CurrencyEnum;
+import java.time.LocalDate;
+import java.util.List;
+import org.example.Currency;
+import org.example.controller.dto.requests.ExchangeRequest;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.controller.dto.responses.ExchangeResponse;
 
 public interface CurrencyExchangeService {
-    ExchangeRateResponse getLatestExchangeRate(CurrencyEnum currencyFrom, CurrencyEnum currencyTo);
-    ExchangeResponse exchangeCurrency(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, double amount);
+    ExchangeRateResponse getLatestExchangeRate(Currency currencyFrom, Currency currencyTo);
+    List<ExchangeRateResponse> getExchangeRates(Currency currencyFrom, Currency currencyTo, LocalDate start, LocalDate end);
+    ExchangeResponse exchangeCurrency(Currency currencyFrom, Currency currencyTo, double amount);
+    List<ExchangeResponse> exchangeCurrencies(List<ExchangeRequest> requests);
+    RateSnapshot rateSnapshot();
 }
@@ -1,20 +1,31 @@
 package org.example.service;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import org.example.CurrencyEnum;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.cache.ExchangeRateCache;
+import org.example.controller.dto.requests.ExchangeRequest;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.controller.dto.responses.ExchangeResponse;
-import org.example.external.dto.CalendarDayResponse;
-import org.example.external.dto.CrossRateResponse;
-import org.example.external.RiksbankenApi;
+import org.example.external.CircuitBreaker;
 import org.example.mapper.ExchangeRateMapper;
-import org.example.repository.CurrencyExchangeRepository;
-import org.example.repository.entities.ExchangeRate;
+import org.example.metrics.RateMetrics;
+import org.example.metrics.RateMetrics.Resolution;
+import org.example.repository.projections.StoredRate;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,125 +35,221 @@ public class CurrencyExchangeServiceImpl implements CurrencyExchangeService {
     public static final int HOUR = 16;
     public static final int MINUTE = 15;
     private final ExchangeRateMapper mapper;
-    private final CurrencyExchangeRepository repository;
-    private final RiksbankenApi riksbankenApi;
-
-    public CurrencyExchangeServiceImpl(ExchangeRateMapper mapper, CurrencyExchangeRepository repository, RiksbankenApi riksbankenApi) {
+    private final CrossRateEngine crossRateEngine;
+    private final ExchangeRateCache rateCache;
+    private final BankCalendar bankCalendar;
+    private final RateHistory rateHistory;
+    private final Executor upstreamExecutor;
+    private final Executor revalidationExecutor;
+    private final CircuitBreaker circuitBreaker;
+    private final RateMetrics metrics;
+    private final RateUpdates rateUpdates;
+    private final MoneyConverter moneyConverter;
+    private final FetchLeadership fetchLeadership;
+    private final SingleFlight<LocalDate, RateMatrix> upstreamFetches = new SingleFlight<>();
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    public CurrencyExchangeServiceImpl(ExchangeRateMapper mapper, CrossRateEngine crossRateEngine, ExchangeRateCache rateCache, BankCalendar bankCalendar, RateHistory rateHistory, @Qualifier("upstreamExecutor") Executor upstreamExecutor, @Qualifier("revalidationExecutor") Executor revalidationExecutor, CircuitBreaker circuitBreaker, RateMetrics metrics, RateUpdates rateUpdates, MoneyConverter moneyConverter, FetchLeadership fetchLeadership) {
         this.mapper = mapper;
-        this.repository = repository;
-        this.riksbankenApi = riksbankenApi;
+        this.crossRateEngine = crossRateEngine;
+        this.rateCache = rateCache;
+        this.bankCalendar = bankCalendar;
+        this.rateHistory = rateHistory;
+        this.upstreamExecutor = upstreamExecutor;
+        this.revalidationExecutor = revalidationExecutor;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.rateUpdates = rateUpdates;
+        this.moneyConverter = moneyConverter;
+        this.fetchLeadership = fetchLeadership;
+        metrics.upstreamFetches(upstreamFetches, SingleFlight::executions, SingleFlight::deduplicated);
     }
 
     @Override
-    public ExchangeRateResponse getLatestExchangeRate(CurrencyEnum currencyFrom, CurrencyEnum currencyTo) {
+    public ExchangeRateResponse getLatestExchangeRate(Currency currencyFrom, Currency currencyTo) {
+        long start = System.nanoTime();
         ZonedDateTime stockholmTime = ZonedDateTime.now(ZoneId.of(EUROPE_STOCKHOLM));
         LocalDate today = stockholmTime.toLocalDate();
         LocalTime currentTime = stockholmTime.toLocalTime();
         LocalTime cutoffTime = LocalTime.of(HOUR, MINUTE);
 
-        ExchangeRate latestRateInDb = repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo);
+        ExchangeRateResponse cachedRate = rateCache.get(currencyFrom, currencyTo, stockholmTime.toInstant());
+        metrics.cacheLookup(cachedRate != null);
+        if (cachedRate != null) return metrics.resolved(Resolution.CACHE, start, cachedRate);
+
+        StoredRate latestRateInDb = rateHistory.latest(currencyFrom, currencyTo);
 
-        if (latestRateInDb != null && latestRateInDb.getLatestRateDate().equals(today)) {
-            return mapper.toDto(latestRateInDb);
+        if (latestRateInDb != null && latestRateInDb.latestRateDate().equals(today)) {
+            return metrics.resolved(Resolution.HISTORY_TODAY, start, cacheRate(currencyFrom, currencyTo, mapper.toDto(latestRateInDb), stockholmTime));
         }
 
-        boolean isTodayBankDay = isBankDay(today);
-        boolean isAfterCutoff = currentTime.isAfter(cutoffTime) || currentTime.equals(cutoffTime);
+        // Upstream is known to be down, so answer from the database instead of waiting on it
+        if (latestRateInDb != null && circuitBreaker.isOpen()) {
+            revalidateInBackground(stockholmTime);
+            return metrics.resolved(Resolution.STALE, start, mapper.toDto(latestRateInDb).asStale());
+        }
 
-        ExchangeRateResponse latestRate = fetchLatestRate(currencyFrom, currencyTo, isTodayBankDay, isAfterCutoff, today);
-        if (latestRate != null) return latestRate;
+        // The calendar lookup runs next to the upstream fetch; the fetch only needs its answer to publish
+        CompletableFuture<Boolean> todayIsBankDay = CompletableFuture.supplyAsync(() -> bankCalendar.mayBeBankDay(today), upstreamExecutor);
+        boolean isAfterCutoff = currentTime.isAfter(cutoffTime) || currentTime.equals(cutoffTime);
+        RateMatrix recentRates = refreshRates(today.minusDays(7), stockholmTime, () -> todayIsBankDay.join() && isAfterCutoff);
+        boolean awaitingToday = todayIsBankDay.join() && isAfterCutoff;
 
-        ExchangeRateResponse latestRateFromPastWeek = fetchLatestRateFromPastWeek(currencyFrom, currencyTo, latestRateInDb, isTodayBankDay, isAfterCutoff, today);
-        if (latestRateFromPastWeek != null) return latestRateFromPastWeek;
+        ExchangeRateResponse latestRate = resolveLatestRate(currencyFrom, currencyTo, recentRates, latestRateInDb, awaitingToday, stockholmTime);
+        return metrics.resolved(awaitingToday ? Resolution.UPSTREAM_AFTER_CUTOFF : Resolution.UPSTREAM_PAST_WEEK, start, latestRate);
+    }
 
-        return latestRateInDb != null ? mapper.toDto(latestRateInDb) : null;
+    @Override
+    public List<ExchangeRateResponse> getExchangeRates(Currency currencyFrom, Currency currencyTo, LocalDate start, LocalDate end) {
+        return rateHistory.range(currencyFrom, currencyTo, start, end);
     }
 
     @Override
-    public ExchangeResponse exchangeCurrency(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, double amount) {
+    public ExchangeResponse exchangeCurrency(Currency currencyFrom, Currency currencyTo, double amount) {
         var latestRate = getLatestExchangeRate(currencyFrom, currencyTo);
         if (latestRate != null) {
-            return new ExchangeResponse(currencyFrom, currencyTo, amount, amount * latestRate.rate(), latestRate.rate());
+            double exchangedAmount = moneyConverter.exchange(amount, currencyFrom, currencyTo, MoneyConverter.toFixedRate(latestRate.rate()));
+            return new ExchangeResponse(currencyFrom, currencyTo, amount, exchangedAmount, latestRate.rate());
         }
         return null;
     }
 
-    private ExchangeRateResponse fetchLatestRate(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, boolean isTodayBankDay, boolean isAfterCutoff, LocalDate today) {
-        if (isTodayBankDay && isAfterCutoff) {
-            CrossRateResponse todayRate = fetchAndSaveExchangeRate(currencyFrom, currencyTo, today);
-            if (todayRate != null) {
-                return new ExchangeRateResponse(currencyFrom.name(), currencyTo.name(), todayRate.value(), todayRate.date());
+    /**
+     * Converts a whole batch, resolving each distinct pair's rate once and keeping the results in request
+     * order. Items whose pair has no rate come back as {@code null}, like {@link #exchangeCurrency}.
+     */
+    @Override
+    public List<ExchangeResponse> exchangeCurrencies(List<ExchangeRequest> requests) {
+        RateSnapshot rates = new RateSnapshot(this::getLatestExchangeRate, moneyConverter);
+        List<ExchangeResponse> responses = new ArrayList<>(requests.size());
+        for (ExchangeRequest request : requests) {
+            responses.add(rates.exchange(request.currencyFrom(), request.currencyTo(), request.amount()));
+        }
+        return responses;
+    }
+
+    /**
+     * Resolves every pair before the caller converts anything. Only the first pair missing from the cache goes
+     * through {@link #getLatestExchangeRate}, whose refresh caches all pairs at once; pairs still missing after
+     * that are triangulated from the stored history instead of asking upstream again for each of them.
+     */
+    @Override
+    public RateSnapshot rateSnapshot() {
+        Instant now = Instant.now();
+        AtomicBoolean refreshed = new AtomicBoolean();
+        return new RateSnapshot((currencyFrom, currencyTo) -> {
+            ExchangeRateResponse cachedRate = rateCache.get(currencyFrom, currencyTo, now);
+            if (cachedRate != null) {
+                return cachedRate;
+            }
+            if (refreshed.compareAndSet(false, true)) {
+                return getLatestExchangeRate(currencyFrom, currencyTo);
             }
+            StoredRate storedRate = rateHistory.latest(currencyFrom, currencyTo);
+            return storedRate != null ? mapper.toDto(storedRate) : null;
+        }, moneyConverter).resolveAll();
+    }
+
+    private ExchangeRateResponse cacheRate(Currency currencyFrom, Currency currencyTo, ExchangeRateResponse rate, ZonedDateTime stockholmTime) {
+        if (rate != null) {
+            rateCache.put(currencyFrom, currencyTo, rate, RatePublication.nextPublication(stockholmTime).toInstant());
         }
-        return null;
+        return rate;
     }
 
-    private ExchangeRateResponse fetchLatestRateFromPastWeek(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, ExchangeRate latestRateInDb, boolean isTodayBankDay, boolean isAfterCutoff, LocalDate today) {
-        if (latestRateInDb == null || (!isTodayBankDay || !isAfterCutoff)) {
-            CrossRateResponse latestRate = fetchLatestAvailableRate(currencyFrom, currencyTo, today);
-            if (latestRate != null) {
-                if (latestRateInDb == null || LocalDate.parse(latestRate.date()).isAfter(latestRateInDb.getLatestRateDate())) {
-                    saveExchangeRate(currencyFrom, currencyTo, latestRate);
-                    return new ExchangeRateResponse(currencyFrom.name(), currencyTo.name(), latestRate.value(), latestRate.date());
-                } else {
-                    return mapper.toDto(latestRateInDb);
-                }
+    /**
+     * Picks whichever of the freshly fetched and the stored rate is newer. When {@code awaitingToday} is set,
+     * a stored rate is not cached, so the next request looks for today's rate again.
+     */
+    private ExchangeRateResponse resolveLatestRate(Currency currencyFrom, Currency currencyTo, RateMatrix recentRates, StoredRate latestRateInDb, boolean awaitingToday, ZonedDateTime stockholmTime) {
+        if (recentRates.contains(currencyFrom, currencyTo)) {
+            if (latestRateInDb == null || recentRates.date(currencyFrom, currencyTo).isAfter(latestRateInDb.latestRateDate())) {
+                return recentRates.toResponse(currencyFrom, currencyTo);
             }
+            // Upstream is behind the database, so keep serving the stored rate instead
+            ExchangeRateResponse storedRate = mapper.toDto(latestRateInDb);
+            return awaitingToday ? storedRate : cacheRate(currencyFrom, currencyTo, storedRate, stockholmTime);
         }
-        return null;
+        return latestRateInDb != null ? mapper.toDto(latestRateInDb) : null;
     }
 
-    private boolean isBankDay(LocalDate date) {
+    /**
+     * Starts one background refresh while stale rates are being served. Further calls are ignored until
+     * it finishes; the circuit breaker decides whether it actually reaches upstream. A refresh the executor
+     * rejects is dropped, never run by the caller, and the next stale read tries again.
+     */
+    private void revalidateInBackground(ZonedDateTime stockholmTime) {
+        if (!revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        LocalDate today = stockholmTime.toLocalDate();
+        LocalTime currentTime = stockholmTime.toLocalTime();
+        boolean isAfterCutoff = !currentTime.isBefore(LocalTime.of(HOUR, MINUTE));
         try {
-            List<CalendarDayResponse> response = riksbankenApi.getCalendarDays(date);
-            return !response.isEmpty() && response.getFirst().swedishBankday();
-        } catch (Exception e) {
-            return false;
+            CompletableFuture.runAsync(() -> {
+                try {
+                    refreshRates(today.minusDays(7), stockholmTime, () -> isAfterCutoff && bankCalendar.mayBeBankDay(today));
+                } finally {
+                    revalidating.set(false);
+                }
+            }, revalidationExecutor);
+        } catch (RejectedExecutionException e) {
+            revalidating.set(false);
         }
     }
 
-    private CrossRateResponse fetchAndSaveExchangeRate(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, LocalDate date) {
-        try {
-            List<CrossRateResponse> rates = riksbankenApi.getCrossRates(
-                    currencyFrom.getCurrencyCode(),
-                    currencyTo.getCurrencyCode(),
-                    date
-            );
-            if (!rates.isEmpty()) {
-                CrossRateResponse rate = rates.getFirst();
-                saveExchangeRate(currencyFrom, currencyTo, rate);
-                return rate;
+    /**
+     * Fetches the SEK series published since {@code fromDate} once for all concurrent callers and publishes
+     * the triangulated rates. {@code awaitingToday} is only asked once the fetch is done. When another instance
+     * fetches for the cluster nothing is fetched here, and callers fall back to the stored rates.
+     */
+    private RateMatrix refreshRates(LocalDate fromDate, ZonedDateTime stockholmTime, BooleanSupplier awaitingToday) {
+        return upstreamFetches.execute(fromDate, () -> {
+            if (!fetchLeadership.tryLead()) {
+                return RateMatrix.empty();
             }
-        } catch (Exception e) {
-            // TODO: add logging
-        }
-        return null;
+            RateMatrix rates = crossRateEngine.fetchRates(fromDate);
+            publishRates(rates, stockholmTime, awaitingToday.getAsBoolean());
+            return rates;
+        });
     }
 
-    private CrossRateResponse fetchLatestAvailableRate(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, LocalDate today) {
-        try {
-            LocalDate fromDate = today.minusDays(7);
-            List<CrossRateResponse> rates = riksbankenApi.getCrossRates(
-                    currencyFrom.getCurrencyCode(),
-                    currencyTo.getCurrencyCode(),
-                    fromDate
-            );
-            return rates.stream()
-                    .max(Comparator.comparing(rateResponse -> LocalDate.parse(rateResponse.date())))
-                    .orElse(null);
-        } catch (Exception e) {
-            // TODO: add logging
+    /**
+     * Caches freshly fetched rates until the next publication and pushes the changed ones to subscribers. The
+     * SEK series they were triangulated from are already stored by {@link RateHistory}, and no other pair is.
+     * When {@code awaitingToday} is set, only rates published today are cached, since anything older is a
+     * stand-in until today's rates show up.
+     */
+    void publishRates(RateMatrix rates, ZonedDateTime stockholmTime, boolean awaitingToday) {
+        Map<CurrencyPair, ExchangeRateResponse> fetched = new HashMap<>();
+        for (Currency currencyFrom : Currency.values()) {
+            for (Currency currencyTo : Currency.values()) {
+                if (rates.contains(currencyFrom, currencyTo)) {
+                    fetched.put(new CurrencyPair(currencyFrom, currencyTo), rates.toResponse(currencyFrom, currencyTo));
+                }
+            }
         }
-        return null;
+        cacheAndPublish(fetched, stockholmTime, awaitingToday);
     }
 
-    private void saveExchangeRate(CurrencyEnum currencyFrom, CurrencyEnum currencyTo, CrossRateResponse crossRate) {
-        ExchangeRate newRate = new ExchangeRate(
-                currencyFrom,
-                crossRate.value(),
-                LocalDate.parse(crossRate.date()),
-                currencyTo
-        );
-        repository.save(newRate);
+    /**
+     * Caches and pushes rates another instance has already fetched and stored, as {@link #publishRates} does
+     * for rates fetched here.
+     */
+    void publishStoredRates(Map<CurrencyPair, ExchangeRateResponse> rates, ZonedDateTime stockholmTime) {
+        boolean isAfterCutoff = !stockholmTime.toLocalTime().isBefore(LocalTime.of(HOUR, MINUTE));
+        cacheAndPublish(rates, stockholmTime, isAfterCutoff && bankCalendar.mayBeBankDay(stockholmTime.toLocalDate()));
+    }
+
+    private void cacheAndPublish(Map<CurrencyPair, ExchangeRateResponse> rates, ZonedDateTime stockholmTime, boolean awaitingToday) {
+        String today = stockholmTime.toLocalDate().toString();
+        Map<CurrencyPair, ExchangeRateResponse> cacheable = new HashMap<>();
+        for (Map.Entry<CurrencyPair, ExchangeRateResponse> rate : rates.entrySet()) {
+            if (!awaitingToday || today.equals(rate.getValue().latestRateDate())) {
+                cacheable.put(rate.getKey(), rate.getValue());
+            }
+        }
+        rateCache.putAll(cacheable, RatePublication.nextPublication(stockholmTime).toInstant());
+        rateUpdates.publish(cacheable);
     }
 }
@@ -0,0 +1,91 @@
+package org.example.service;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.example.config.ClusterProperties;
+import org.example.repository.FetchLeaseStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether this instance calls the Riksbank API, so a cluster sharing one database fetches each
+ * publication once instead of once per instance.
+ * <p>
+ * With {@code currency.cluster.enabled} the instance holding the {@value #LEASE} lease fetches, and every fetch
+ * extends the lease. The others leave upstream alone and pick the rates up from the database through
+ * {@link ClusterRatePoller}. When the leader stops fetching its lease runs out and the next instance that needs
+ * rates takes over; a leader that shuts down releases it right away. Without clustering, or when the lease
+ * cannot be read, every instance fetches for itself.
+ * <p>
+ * An instance that finds the lease held remembers until when, and leaves the database alone until then, so
+ * followers do not write the lease row on every cache miss.
+ */
+@Component
+public class FetchLeadership implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FetchLeadership.class);
+
+    static final String LEASE = "riksbank-fetch";
+
+    private final FetchLeaseStore leaseStore;
+    private final ClusterProperties properties;
+    private final String nodeId;
+    /**
+     * {@link System#nanoTime()} at which another instance's lease runs out, or {@code null} when none is known.
+     */
+    private volatile Long followUntil;
+
+    public FetchLeadership(FetchLeaseStore leaseStore, ClusterProperties properties) {
+        this.leaseStore = leaseStore;
+        this.properties = properties;
+        this.nodeId = properties.nodeId() != null ? properties.nodeId() : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Whether this instance should call the Riksbank API now. Taking the lease holds it for
+     * {@code currency.cluster.lease-duration}.
+     */
+    public boolean tryLead() {
+        return tryLead(Duration.ZERO);
+    }
+
+    /**
+     * Like {@link #tryLead()}, but holds the lease for {@code extra} longer, for callers that will wait that long
+     * before their next call, such as a retry backing off.
+     */
+    public boolean tryLead(Duration extra) {
+        if (!properties.enabled()) {
+            return true;
+        }
+        Long until = followUntil;
+        if (until != null && System.nanoTime() - until < 0) {
+            return false;
+        }
+        try {
+            if (leaseStore.tryAcquire(LEASE, nodeId, properties.leaseDuration().plus(extra))) {
+                followUntil = null;
+                return true;
+            }
+            followUntil = System.nanoTime() + leaseStore.remaining(LEASE).toNanos();
+            return false;
+        } catch (DataAccessException e) {
+            log.warn("Could not read the {} lease, fetching without it", LEASE, e);
+            return true;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            leaseStore.release(LEASE, nodeId);
+        } catch (DataAccessException e) {
+            log.debug("Could not release the {} lease, it expires on its own", LEASE, e);
+        }
+    }
+}
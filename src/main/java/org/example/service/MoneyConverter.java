@@ -0,0 +1,208 @@
+package org.example.service;
+
+import java.math.RoundingMode;
+import org.example.Currency;
+import org.example.config.MoneyProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts amounts in fixed point, so results come out already rounded to the target currency's minor unit.
+ * <p>
+ * Amounts are longs counting minor units, such as cents, at each currency's configured scale, and rates are
+ * longs counting units of 10<sup>-{@value #RATE_SCALE}</sup>. A conversion multiplies the two into 128 bits and
+ * divides back down with the target currency's rounding mode, which gives the same result as {@code BigDecimal}
+ * with no allocation and no intermediate rounding. Results that do not fit in a long throw
+ * {@link ArithmeticException}.
+ * <p>
+ * Rates stay doubles everywhere they are kept, in the cache, the rate matrix and the history, and are turned into
+ * fixed point with {@link #toFixedRate} where they are used: once per pair for a batch or stream, in
+ * {@link RateSnapshot}, and once per request for a single conversion. That is one multiply and round, where keeping
+ * both forms would mean a second value on every cache entry, matrix cell and history day for the few pairs that
+ * are converted.
+ */
+@Component
+public class MoneyConverter {
+
+    /**
+     * Decimal places kept of a rate.
+     */
+    public static final int RATE_SCALE = 10;
+    static final int MAX_SCALE = 8;
+
+    private static final int CURRENCY_COUNT = Currency.count();
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final double RATE_FACTOR = 1e10;
+    private static final double MAX_RATE = Long.MAX_VALUE / RATE_FACTOR;
+    private static final double MAX_MINOR_UNITS = 0x1p63;
+    private static final long HALF_WORD = 1L << 32;
+    private static final long LOW_WORD = HALF_WORD - 1;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final int[] scales = new int[CURRENCY_COUNT];
+    private final RoundingMode[] roundings = new RoundingMode[CURRENCY_COUNT];
+    private final long[] divisors = new long[CURRENCY_COUNT * CURRENCY_COUNT];
+
+    public MoneyConverter(MoneyProperties properties) {
+        for (Currency currency : Currency.values()) {
+            int scale = properties.scaleOf(currency);
+            if (scale < 0 || scale > MAX_SCALE) {
+                throw new IllegalArgumentException("Scale of " + currency + " must be between 0 and " + MAX_SCALE + ", was " + scale);
+            }
+            scales[currency.id()] = scale;
+            roundings[currency.id()] = properties.roundingOf(currency);
+        }
+        // amount * rate carries the source scale plus the rate scale; dividing by this leaves the target scale
+        for (Currency from : Currency.values()) {
+            for (Currency to : Currency.values()) {
+                divisors[from.id() * CURRENCY_COUNT + to.id()] = POWERS_OF_TEN[RATE_SCALE + scales[from.id()] - scales[to.id()]];
+            }
+        }
+    }
+
+    /**
+     * Returns {@code rate} in units of 10<sup>-{@value #RATE_SCALE}</sup>.
+     */
+    public static long toFixedRate(double rate) {
+        if (!(rate >= 0 && rate < MAX_RATE)) {
+            throw new IllegalArgumentException("Rate out of range: " + rate);
+        }
+        return Math.round(rate * RATE_FACTOR);
+    }
+
+    public int scaleOf(Currency currency) {
+        return scales[currency.id()];
+    }
+
+    /**
+     * Converts {@code amount} minor units of {@code currencyFrom} at {@code fixedRate} into minor units of
+     * {@code currencyTo}, rounded with the rounding mode of {@code currencyTo}.
+     */
+    public long convert(long amount, Currency currencyFrom, Currency currencyTo, long fixedRate) {
+        if (fixedRate < 0) {
+            throw new IllegalArgumentException("Rate out of range: " + fixedRate);
+        }
+        long divisor = divisors[currencyFrom.id() * CURRENCY_COUNT + currencyTo.id()];
+        boolean negative = amount < 0;
+        // Math.abs(Long.MIN_VALUE) stays negative, which read as unsigned is still the right magnitude
+        long magnitude = Math.abs(amount);
+        long high = Math.unsignedMultiplyHigh(magnitude, fixedRate);
+        long low = magnitude * fixedRate;
+        if (Long.compareUnsigned(high, divisor) >= 0) {
+            throw new ArithmeticException("Converting " + amount + " " + currencyFrom + " to " + currencyTo + " overflows");
+        }
+        long quotient = high == 0 ? Long.divideUnsigned(low, divisor) : divideUnsigned(high, low, divisor);
+        long remainder = low - quotient * divisor;
+        long rounded = round(quotient, remainder != 0, Long.compareUnsigned(remainder, divisor - remainder), negative, roundings[currencyTo.id()]);
+        if (quotient < 0 || rounded < 0) {
+            throw new ArithmeticException("Converting " + amount + " " + currencyFrom + " to " + currencyTo + " overflows");
+        }
+        return negative ? -rounded : rounded;
+    }
+
+    /**
+     * Converts a decimal amount through {@link #convert}: {@code amount} is first rounded to the minor unit of
+     * {@code currencyFrom}, and the result is the exact decimal value of the converted minor units.
+     */
+    public double exchange(double amount, Currency currencyFrom, Currency currencyTo, long fixedRate) {
+        return toAmount(convert(toMinorUnits(amount, currencyFrom), currencyFrom, currencyTo, fixedRate), currencyTo);
+    }
+
+    /**
+     * Returns {@code amount} in minor units of {@code currency}, rounded with the currency's rounding mode.
+     */
+    public long toMinorUnits(double amount, Currency currency) {
+        double scaled = Math.abs(amount) * POWERS_OF_TEN[scales[currency.id()]];
+        if (!(scaled < MAX_MINOR_UNITS)) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        // A decimal like 0.29 has no exact binary form, so a few ulps either side of a whole or a half minor
+        // unit are read as exactly that, instead of as a fraction that needs rounding
+        double tolerance = 4 * Math.ulp(scaled);
+        double whole = Math.floor(scaled);
+        double fraction = scaled - whole;
+        long minorUnits;
+        if (fraction <= tolerance) {
+            minorUnits = (long) whole;
+        } else if (fraction >= 1 - tolerance) {
+            minorUnits = (long) whole + 1;
+        } else {
+            int half = Math.abs(fraction - 0.5) <= tolerance ? 0 : fraction < 0.5 ? -1 : 1;
+            minorUnits = round((long) whole, true, half, amount < 0, roundings[currency.id()]);
+        }
+        return amount < 0 ? -minorUnits : minorUnits;
+    }
+
+    /**
+     * Returns the decimal value of {@code minorUnits}; the nearest double to it, so it prints exactly.
+     */
+    public double toAmount(long minorUnits, Currency currency) {
+        return minorUnits / (double) POWERS_OF_TEN[scales[currency.id()]];
+    }
+
+    /**
+     * Rounds the magnitude {@code quotient} plus a dropped fraction, where {@code half} compares that fraction
+     * with one half.
+     */
+    private static long round(long quotient, boolean inexact, int half, boolean negative, RoundingMode mode) {
+        if (!inexact) {
+            return quotient;
+        }
+        boolean up = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> !negative;
+            case FLOOR -> negative;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+        };
+        return up ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Divides the unsigned 128-bit value {@code high:low} by {@code divisor}, with {@code high} below
+     * {@code divisor} so the quotient fits in 64 bits. Long division in 32-bit digits, as in Hacker's Delight
+     * {@code divlu}.
+     */
+    static long divideUnsigned(long high, long low, long divisor) {
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long normalized = divisor << shift;
+        long divisorHigh = normalized >>> 32;
+        long divisorLow = normalized & LOW_WORD;
+        long dividendHigh = shift == 0 ? high : high << shift | low >>> (64 - shift);
+        long dividendLow = low << shift;
+        long digit1 = dividendLow >>> 32;
+        long digit0 = dividendLow & LOW_WORD;
+
+        long quotientHigh = Long.divideUnsigned(dividendHigh, divisorHigh);
+        long remainder = dividendHigh - quotientHigh * divisorHigh;
+        while (Long.compareUnsigned(quotientHigh, HALF_WORD) >= 0
+                || Long.compareUnsigned(quotientHigh * divisorLow, remainder << 32 | digit1) > 0) {
+            quotientHigh--;
+            remainder += divisorHigh;
+            if (Long.compareUnsigned(remainder, HALF_WORD) >= 0) {
+                break;
+            }
+        }
+
+        long partial = (dividendHigh << 32 | digit1) - quotientHigh * normalized;
+        long quotientLow = Long.divideUnsigned(partial, divisorHigh);
+        remainder = partial - quotientLow * divisorHigh;
+        while (Long.compareUnsigned(quotientLow, HALF_WORD) >= 0
+                || Long.compareUnsigned(quotientLow * divisorLow, remainder << 32 | digit0) > 0) {
+            quotientLow--;
+            remainder += divisorHigh;
+            if (Long.compareUnsigned(remainder, HALF_WORD) >= 0) {
+                break;
+            }
+        }
+        return quotientHigh << 32 | quotientLow;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.Currency;
+import org.example.config.BackfillProperties;
+import org.example.external.ObservationConsumer;
+import org.example.external.RiksbankenApi;
+import org.example.repository.BackfillProgressRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.entities.BackfillProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import static org.example.service.CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM;
+import static org.example.service.RateHistory.BASE_CURRENCY;
+
+/**
+ * Loads the full history of every SEK series into a fresh environment.
+ * <p>
+ * Each series is requested in date windows and parsed while the response streams in, and rows are written
+ * as JDBC batch upserts. Progress is saved per window, so an interrupted backfill picks up where it stopped. Days
+ * the {@link RateHistory} already holds are skipped. It runs on its own thread once the application is ready, so
+ * the application reports ready and serves requests while the history loads.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.backfill.enabled", havingValue = "true")
+public class RateBackfill implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RateBackfill.class);
+
+    private final RiksbankenApi riksbankenApi;
+    private final ExchangeRateBatchWriter batchWriter;
+    private final BackfillProgressRepository progressRepository;
+    private final RateHistory rateHistory;
+    private final BackfillProperties properties;
+    private final ExecutorService runner;
+
+    @Autowired
+    public RateBackfill(RiksbankenApi riksbankenApi, ExchangeRateBatchWriter batchWriter, BackfillProgressRepository progressRepository, RateHistory rateHistory, BackfillProperties properties) {
+        this(riksbankenApi, batchWriter, progressRepository, rateHistory, properties,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("rate-backfill").daemon().factory()));
+    }
+
+    RateBackfill(RiksbankenApi riksbankenApi, ExchangeRateBatchWriter batchWriter, BackfillProgressRepository progressRepository, RateHistory rateHistory, BackfillProperties properties, ExecutorService runner) {
+        this.riksbankenApi = riksbankenApi;
+        this.batchWriter = batchWriter;
+        this.progressRepository = progressRepository;
+        this.rateHistory = rateHistory;
+        this.properties = properties;
+        this.runner = runner;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        LocalDate until = LocalDate.now(ZoneId.of(EUROPE_STOCKHOLM)).minusDays(1);
+        runner.execute(() -> backfill(until));
+    }
+
+    /**
+     * Interrupts a backfill still running at shutdown; it resumes from its saved progress on the next start.
+     */
+    @Override
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Backfills every SEK series up to and including {@code until}, running at most the configured number of
+     * series at once. A series that fails stops at its last completed window and resumes on the next run.
+     *
+     * @return the number of rows written
+     */
+    public long backfill(LocalDate until) {
+        Map<Currency, Future<Long>> futures = new LinkedHashMap<>();
+        long written = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.parallelism()))) {
+            for (Currency currency : Currency.values()) {
+                if (!currency.isBaseCurrency()) {
+                    futures.put(currency, executor.submit(() -> backfillSeries(currency, until)));
+                }
+            }
+            for (Map.Entry<Currency, Future<Long>> future : futures.entrySet()) {
+                try {
+                    written += future.getValue().get();
+                } catch (ExecutionException e) {
+                    log.warn("Backfill of {} stopped early", future.getKey().seriesId(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Backfilled {} rates up to {}", written, until);
+        return written;
+    }
+
+    long backfillSeries(Currency currency, LocalDate until) throws Exception {
+        String seriesId = currency.seriesId();
+        LocalDate start = progressRepository.findById(seriesId)
+                .map(progress -> progress.getCompletedThrough().plusDays(1))
+                .orElse(properties.from());
+        long written = 0;
+        while (!start.isAfter(until)) {
+            LocalDate end = start.plus(properties.window()).minusDays(1);
+            if (end.isBefore(start)) {
+                end = start;
+            } else if (end.isAfter(until)) {
+                end = until;
+            }
+            SeriesBatch batch = new SeriesBatch(currency, Math.max(1, properties.batchSize()));
+            riksbankenApi.streamObservations(seriesId, start, end, batch);
+            batch.flush();
+            progressRepository.save(new BackfillProgress(seriesId, end));
+            written += batch.written;
+            log.debug("Backfilled {} through {}", seriesId, end);
+            start = end.plusDays(1);
+        }
+        return written;
+    }
+
+    /**
+     * Buffers streamed observations of one series and writes them a batch at a time. Observations that are
+     * out of order or already known are dropped.
+     */
+    private final class SeriesBatch implements ObservationConsumer {
+
+        private final Currency currency;
+        private final int[] days;
+        private final double[] values;
+        private int size;
+        private int lastDay = Integer.MIN_VALUE;
+        private long written;
+
+        SeriesBatch(Currency currency, int batchSize) {
+            this.currency = currency;
+            this.days = new int[batchSize];
+            this.values = new double[batchSize];
+        }
+
+        @Override
+        public void accept(int day, double value) {
+            if (day <= lastDay) {
+                return;
+            }
+            lastDay = day;
+            if (rateHistory.contains(currency, day)) {
+                return;
+            }
+            days[size] = day;
+            values[size++] = value / currency.unit();
+            if (size == days.length) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (size == 0) {
+                return;
+            }
+            batchWriter.upsert(currency, BASE_CURRENCY, days, values, size);
+            rateHistory.merge(currency, days, values, size);
+            written += size;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.example.metrics.RateMetrics;
+import org.example.metrics.RateMetrics.Query;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.entities.ExchangeRate;
+import org.example.repository.projections.StoredRate;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Full daily history of every SEK series, kept in memory in columnar form.
+ * <p>
+ * Each currency has a sorted {@code int[]} of epoch days next to a {@code double[]} of SEK per unit, so a range
+ * is two binary searches and any pair is triangulated on the fly. The series are persisted as
+ * {@code X -> SEK} rows, the only rates that are stored, and loaded back at startup; a series a
+ * {@link RateStateSnapshot} has already restored only reads the rows stored after its last day. The latest stored
+ * rate of any other pair is triangulated from them by {@link #latest}. Writers swap in a new series; readers never
+ * lock.
+ */
+@Component
+public class RateHistory implements SmartInitializingSingleton {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    static final Currency BASE_CURRENCY = Arrays.stream(CURRENCIES)
+            .filter(Currency::isBaseCurrency)
+            .findFirst()
+            .orElseThrow();
+
+    private final CurrencyExchangeRepository repository;
+    private final ExchangeRateBatchWriter batchWriter;
+    private final RateMetrics metrics;
+    private final AtomicReferenceArray<Series> series = new AtomicReferenceArray<>(CURRENCIES.length);
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public RateHistory(CurrencyExchangeRepository repository, ExchangeRateBatchWriter batchWriter, RateMetrics metrics) {
+        this.repository = repository;
+        this.batchWriter = batchWriter;
+        this.metrics = metrics;
+        for (Currency currency : CURRENCIES) {
+            series.set(currency.id(), Series.EMPTY);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Currency currency : CURRENCIES) {
+            if (currency.isBaseCurrency()) {
+                continue;
+            }
+            if (series.get(currency.id()) != Series.EMPTY) {
+                // Restored from a snapshot: only the rows stored since it was written are missing
+                loadNewer(currency);
+                continue;
+            }
+            List<ExchangeRate> rows = repository.findByCurrencyFromAndCurrencyToOrderByLatestRateDate(currency, BASE_CURRENCY);
+            int[] days = new int[rows.size()];
+            double[] values = new double[rows.size()];
+            int size = 0;
+            for (ExchangeRate row : rows) {
+                int day = (int) row.getLatestRateDate().toEpochDay();
+                if (size > 0 && days[size - 1] == day) {
+                    values[size - 1] = row.getRate();
+                } else {
+                    days[size] = day;
+                    values[size] = row.getRate();
+                    size++;
+                }
+            }
+            series.set(currency.id(), new Series(Arrays.copyOf(days, size), Arrays.copyOf(values, size)));
+        }
+    }
+
+    /**
+     * Merges freshly fetched observations into the currency's series and persists the days that were not
+     * known yet. Observations for days already held overwrite them in memory only.
+     */
+    public void record(Currency currency, List<ObservationResponse> observations) {
+        record(currency, ObservationSeries.of(observations));
+    }
+
+    /**
+     * Same as {@link #record(Currency, List)} for an already decoded series, as published: values are SEK per
+     * {@link Currency#unit()} units and are kept and stored per one unit.
+     */
+    public void record(Currency currency, ObservationSeries observations) {
+        if (currency.isBaseCurrency() || observations.isEmpty()) {
+            return;
+        }
+        ObservationSeries perUnit = observations.perUnit(currency.unit());
+        int[] days = perUnit.epochDays();
+        double[] values = perUnit.values();
+
+        List<ExchangeRate> newRows = new ArrayList<>();
+        Series held = series.get(currency.id());
+        for (int i = 0; i < days.length; i++) {
+            if (!held.contains(days[i])) {
+                newRows.add(new ExchangeRate(currency, values[i], LocalDate.ofEpochDay(days[i]), BASE_CURRENCY));
+            }
+        }
+        // Stored before they are held, so a failed upsert leaves the days missing and the next fetch writes them
+        // again. A concurrent record of the same days may write them twice, which the upsert makes harmless.
+        if (!newRows.isEmpty()) {
+            metrics.timeQuery(Query.UPSERT, () -> batchWriter.upsert(newRows));
+        }
+        writeLock.lock();
+        try {
+            series.set(currency.id(), series.get(currency.id()).merge(days, values));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The currency's whole series as it is right now.
+     */
+    Series series(Currency currency) {
+        return series.get(currency.id());
+    }
+
+    /**
+     * Installs a series read back from a snapshot, which then only catches up with newer rows at startup.
+     */
+    void restore(Currency currency, Series restored) {
+        if (currency.isBaseCurrency()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            series.set(currency.id(), restored);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Whether the currency's series already holds {@code epochDay}.
+     */
+    boolean contains(Currency currency, int epochDay) {
+        return series.get(currency.id()).contains(epochDay);
+    }
+
+    /**
+     * Merges in the rows stored after the last day held, such as those another instance of the cluster wrote,
+     * without writing them back.
+     */
+    void loadNewer(Currency currency) {
+        if (currency.isBaseCurrency()) {
+            return;
+        }
+        int[] held = series.get(currency.id()).days();
+        List<ExchangeRate> rows = held.length == 0
+                ? repository.findByCurrencyFromAndCurrencyToOrderByLatestRateDate(currency, BASE_CURRENCY)
+                : repository.findByCurrencyFromAndCurrencyToAndLatestRateDateAfterOrderByLatestRateDate(currency, BASE_CURRENCY, LocalDate.ofEpochDay(held[held.length - 1]));
+        int[] days = new int[rows.size()];
+        double[] values = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            days[i] = (int) rows.get(i).getLatestRateDate().toEpochDay();
+            values[i] = rows.get(i).getRate();
+        }
+        merge(currency, days, values, rows.size());
+    }
+
+    /**
+     * Merges the first {@code count} days, which must be ascending, into memory without persisting them. Used
+     * by writers that have already stored the rows themselves.
+     */
+    void merge(Currency currency, int[] days, double[] values, int count) {
+        if (count == 0) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Series current = series.get(currency.id());
+            series.set(currency.id(), current.merge(Arrays.copyOf(days, count), Arrays.copyOf(values, count)));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The pair's most recent stored rate, triangulated on the latest day both SEK series hold, or {@code null}
+     * when there is none.
+     */
+    public StoredRate latest(Currency currencyFrom, Currency currencyTo) {
+        if (currencyFrom.isBaseCurrency() && currencyTo.isBaseCurrency()) {
+            return null;
+        }
+        if (currencyTo.isBaseCurrency() || currencyFrom.isBaseCurrency()) {
+            Series quotedSeries = series.get((currencyTo.isBaseCurrency() ? currencyFrom : currencyTo).id());
+            int last = quotedSeries.days().length - 1;
+            if (last < 0) {
+                return null;
+            }
+            double value = quotedSeries.values()[last];
+            return stored(currencyFrom, currencyTo, currencyTo.isBaseCurrency() ? value : 1.0 / value, quotedSeries.days()[last]);
+        }
+
+        Series fromSeries = series.get(currencyFrom.id());
+        Series toSeries = series.get(currencyTo.id());
+        int i = fromSeries.days().length - 1;
+        int j = toSeries.days().length - 1;
+        while (i >= 0 && j >= 0) {
+            int fromDay = fromSeries.days()[i];
+            int toDay = toSeries.days()[j];
+            if (fromDay == toDay) {
+                return stored(currencyFrom, currencyTo, fromSeries.values()[i] / toSeries.values()[j], fromDay);
+            } else if (fromDay > toDay) {
+                i--;
+            } else {
+                j--;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the pair's daily rates between {@code start} and {@code end}, both inclusive, oldest first.
+     */
+    public List<ExchangeRateResponse> range(Currency currencyFrom, Currency currencyTo, LocalDate start, LocalDate end) {
+        int startDay = (int) start.toEpochDay();
+        int endDay = (int) end.toEpochDay();
+        if (currencyFrom.isBaseCurrency() && currencyTo.isBaseCurrency()) {
+            return List.of();
+        }
+        if (currencyTo.isBaseCurrency() || currencyFrom.isBaseCurrency()) {
+            Currency quoted = currencyTo.isBaseCurrency() ? currencyFrom : currencyTo;
+            Series quotedSeries = series.get(quoted.id());
+            int from = quotedSeries.lowerBound(startDay);
+            int to = quotedSeries.lowerBound(endDay + 1);
+            List<ExchangeRateResponse> rates = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                double value = quotedSeries.values()[i];
+                rates.add(response(currencyFrom, currencyTo, currencyTo.isBaseCurrency() ? value : 1.0 / value, quotedSeries.days()[i]));
+            }
+            return rates;
+        }
+
+        Series fromSeries = series.get(currencyFrom.id());
+        Series toSeries = series.get(currencyTo.id());
+        int i = fromSeries.lowerBound(startDay);
+        int j = toSeries.lowerBound(startDay);
+        int iEnd = fromSeries.lowerBound(endDay + 1);
+        int jEnd = toSeries.lowerBound(endDay + 1);
+        List<ExchangeRateResponse> rates = new ArrayList<>(Math.max(0, Math.min(iEnd - i, jEnd - j)));
+        while (i < iEnd && j < jEnd) {
+            int fromDay = fromSeries.days()[i];
+            int toDay = toSeries.days()[j];
+            if (fromDay == toDay) {
+                rates.add(response(currencyFrom, currencyTo, fromSeries.values()[i] / toSeries.values()[j], fromDay));
+                i++;
+                j++;
+            } else if (fromDay < toDay) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return rates;
+    }
+
+    private static StoredRate stored(Currency currencyFrom, Currency currencyTo, double rate, int epochDay) {
+        return new StoredRate(currencyFrom, currencyTo, rate, LocalDate.ofEpochDay(epochDay));
+    }
+
+    private static ExchangeRateResponse response(Currency currencyFrom, Currency currencyTo, double rate, int epochDay) {
+        return new ExchangeRateResponse(currencyFrom.code(), currencyTo.code(), rate, LocalDate.ofEpochDay(epochDay).toString(), false);
+    }
+
+    record Series(int[] days, double[] values) {
+
+        static final Series EMPTY = new Series(new int[0], new double[0]);
+
+        boolean contains(int day) {
+            return Arrays.binarySearch(days, day) >= 0;
+        }
+
+        /**
+         * Index of the first day that is not before {@code day}.
+         */
+        int lowerBound(int day) {
+            int index = Arrays.binarySearch(days, day);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && days[index - 1] == day) {
+                index--;
+            }
+            return index;
+        }
+
+        Series merge(int[] newDays, double[] newValues) {
+            int[] mergedDays = new int[days.length + newDays.length];
+            double[] mergedValues = new double[mergedDays.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < days.length || j < newDays.length) {
+                if (j == newDays.length || (i < days.length && days[i] < newDays[j])) {
+                    mergedDays[size] = days[i];
+                    mergedValues[size++] = values[i++];
+                } else if (i == days.length || newDays[j] < days[i]) {
+                    mergedDays[size] = newDays[j];
+                    mergedValues[size++] = newValues[j++];
+                } else {
+                    mergedDays[size] = newDays[j];
+                    mergedValues[size++] = newValues[j++];
+                    i++;
+                }
+            }
+            return new Series(Arrays.copyOf(mergedDays, size), Arrays.copyOf(mergedValues, size));
+        }
+    }
+}
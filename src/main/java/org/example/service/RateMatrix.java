@@ -0,0 +1,167 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+
+/**
+ * Every cross rate between the supported currencies, triangulated from the SEK series.
+ * <p>
+ * The Riksbank quotes each currency as SEK per {@link Currency#unit()} units, which is scaled down to SEK per
+ * one unit here, so the rate from {@code a} to {@code b} is {@code sek(a) / sek(b)} taken on the latest date
+ * both series were published. Rates and dates are kept in dense arrays indexed by {@code from.id() * N + to.id()};
+ * unknown pairs hold {@code NaN}.
+ */
+public final class RateMatrix {
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final int CURRENCY_COUNT = CURRENCIES.length;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final RateMatrix EMPTY = new RateMatrix(filled(Double.NaN), filledDays());
+
+    private final double[] rates;
+    private final long[] epochDays;
+
+    private RateMatrix(double[] rates, long[] epochDays) {
+        this.rates = rates;
+        this.epochDays = epochDays;
+    }
+
+    public static RateMatrix empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the matrix from the observations of each SEK series. Currencies without observations are
+     * left out, as are pairs whose series were never published on the same date.
+     */
+    public static RateMatrix fromObservations(Map<Currency, List<ObservationResponse>> observations) {
+        Map<Currency, ObservationSeries> series = new LinkedHashMap<>();
+        observations.forEach((currency, currencyObservations) -> series.put(currency, ObservationSeries.of(currencyObservations)));
+        return fromSeries(series);
+    }
+
+    /**
+     * Builds the matrix from already decoded SEK series, see {@link #fromObservations}.
+     */
+    public static RateMatrix fromSeries(Map<Currency, ObservationSeries> series) {
+        int[][] days = new int[CURRENCY_COUNT][];
+        double[][] values = new double[CURRENCY_COUNT][];
+        long latestDay = NO_DATE;
+        for (Currency currency : CURRENCIES) {
+            if (currency.isBaseCurrency()) {
+                continue;
+            }
+            ObservationSeries currencySeries = series.getOrDefault(currency, ObservationSeries.EMPTY).perUnit(currency.unit());
+            int[] seriesDays = currencySeries.epochDays();
+            days[currency.id()] = seriesDays;
+            values[currency.id()] = currencySeries.values();
+            if (seriesDays.length > 0) {
+                latestDay = Math.max(latestDay, seriesDays[seriesDays.length - 1]);
+            }
+        }
+
+        double[] rates = filled(Double.NaN);
+        long[] epochDays = filledDays();
+        for (Currency currencyFrom : CURRENCIES) {
+            for (Currency currencyTo : CURRENCIES) {
+                int index = index(currencyFrom, currencyTo);
+                if (currencyFrom.isBaseCurrency() && currencyTo.isBaseCurrency()) {
+                    if (latestDay != NO_DATE) {
+                        rates[index] = 1.0;
+                        epochDays[index] = latestDay;
+                    }
+                } else if (currencyFrom.isBaseCurrency()) {
+                    int last = days[currencyTo.id()].length - 1;
+                    if (last >= 0) {
+                        rates[index] = 1.0 / values[currencyTo.id()][last];
+                        epochDays[index] = days[currencyTo.id()][last];
+                    }
+                } else if (currencyTo.isBaseCurrency()) {
+                    int last = days[currencyFrom.id()].length - 1;
+                    if (last >= 0) {
+                        rates[index] = values[currencyFrom.id()][last];
+                        epochDays[index] = days[currencyFrom.id()][last];
+                    }
+                } else {
+                    triangulate(days[currencyFrom.id()], values[currencyFrom.id()],
+                            days[currencyTo.id()], values[currencyTo.id()], rates, epochDays, index);
+                }
+            }
+        }
+        return new RateMatrix(rates, epochDays);
+    }
+
+    public boolean contains(Currency currencyFrom, Currency currencyTo) {
+        return !Double.isNaN(rates[index(currencyFrom, currencyTo)]);
+    }
+
+    public double rate(Currency currencyFrom, Currency currencyTo) {
+        return rates[index(currencyFrom, currencyTo)];
+    }
+
+    public LocalDate date(Currency currencyFrom, Currency currencyTo) {
+        long epochDay = epochDays[index(currencyFrom, currencyTo)];
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Returns whether every pair has a rate published on {@code date}.
+     */
+    public boolean isCompleteOn(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        for (long pairDay : epochDays) {
+            if (pairDay != epochDay) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ExchangeRateResponse toResponse(Currency currencyFrom, Currency currencyTo) {
+        if (!contains(currencyFrom, currencyTo)) {
+            return null;
+        }
+        return new ExchangeRateResponse(currencyFrom.code(), currencyTo.code(), rate(currencyFrom, currencyTo), date(currencyFrom, currencyTo).toString(), false);
+    }
+
+    private static void triangulate(int[] fromDays, double[] fromValues, int[] toDays, double[] toValues,
+                                    double[] rates, long[] epochDays, int index) {
+        int i = fromDays.length - 1;
+        int j = toDays.length - 1;
+        while (i >= 0 && j >= 0) {
+            if (fromDays[i] == toDays[j]) {
+                rates[index] = fromValues[i] / toValues[j];
+                epochDays[index] = fromDays[i];
+                return;
+            }
+            if (fromDays[i] > toDays[j]) {
+                i--;
+            } else {
+                j--;
+            }
+        }
+    }
+
+    private static int index(Currency currencyFrom, Currency currencyTo) {
+        return currencyFrom.id() * CURRENCY_COUNT + currencyTo.id();
+    }
+
+    private static double[] filled(double value) {
+        double[] array = new double[CURRENCY_COUNT * CURRENCY_COUNT];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    private static long[] filledDays() {
+        long[] array = new long[CURRENCY_COUNT * CURRENCY_COUNT];
+        Arrays.fill(array, NO_DATE);
+        return array;
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.example.Currency;
+import org.example.config.PrefetchProperties;
+import org.example.external.dto.ObservationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.example.service.CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM;
+import static org.example.service.CurrencyExchangeServiceImpl.HOUR;
+import static org.example.service.CurrencyExchangeServiceImpl.MINUTE;
+
+/**
+ * Warms every currency pair at the daily publication time, so user-facing reads are served from memory
+ * instead of waiting on the Riksbank API.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.prefetch.enabled", matchIfMissing = true)
+public class RatePrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RatePrefetcher.class);
+
+    private final CrossRateEngine crossRateEngine;
+    private final BankCalendar bankCalendar;
+    private final CurrencyExchangeServiceImpl currencyExchangeService;
+    private final PrefetchProperties properties;
+    private final FetchLeadership fetchLeadership;
+
+    public RatePrefetcher(CrossRateEngine crossRateEngine, BankCalendar bankCalendar, CurrencyExchangeServiceImpl currencyExchangeService, PrefetchProperties properties, FetchLeadership fetchLeadership) {
+        this.crossRateEngine = crossRateEngine;
+        this.bankCalendar = bankCalendar;
+        this.currencyExchangeService = currencyExchangeService;
+        this.properties = properties;
+        this.fetchLeadership = fetchLeadership;
+    }
+
+    @Scheduled(cron = "0 " + MINUTE + " " + HOUR + " * * *", zone = EUROPE_STOCKHOLM)
+    public void prefetch() {
+        prefetch(ZonedDateTime.now(ZoneId.of(EUROPE_STOCKHOLM)));
+    }
+
+    /**
+     * Fetches today's SEK series in parallel and publishes every pair they complete as each one arrives, so a
+     * series that is late or retried does not hold back the others. Pairs that cannot be fetched are left to
+     * the lazy path in {@link CurrencyExchangeServiceImpl}. When the calendar cannot tell whether today is a bank
+     * day the prefetch still runs, since the retries give up after a bounded wait if nothing is published.
+     */
+    public void prefetch(ZonedDateTime stockholmTime) {
+        LocalDate today = stockholmTime.toLocalDate();
+        switch (bankCalendar.day(today)) {
+            case NON_BANK_DAY -> {
+                log.info("Skipping rate prefetch, {} is not a Swedish bank day", today);
+                return;
+            }
+            case UNKNOWN -> log.warn("Bank calendar for {} is unavailable, prefetching in case rates are published", today);
+            case BANK_DAY -> {
+            }
+        }
+        if (!fetchLeadership.tryLead(properties.maxBackoff())) {
+            log.info("Skipping rate prefetch, another instance fetches for the cluster");
+            return;
+        }
+
+        Map<Currency, List<ObservationResponse>> observations = fetchAll(stockholmTime);
+        if (observations.isEmpty()) {
+            log.warn("Rate prefetch for {} found no published rates", today);
+            return;
+        }
+        log.info("Prefetched rates for {} from {} series", today, observations.size());
+    }
+
+    private Map<Currency, List<ObservationResponse>> fetchAll(ZonedDateTime stockholmTime) {
+        LocalDate today = stockholmTime.toLocalDate();
+        Map<Currency, List<ObservationResponse>> fetched = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.parallelism()))) {
+            CompletionService<Map.Entry<Currency, List<ObservationResponse>>> arrivals = new ExecutorCompletionService<>(executor);
+            int pending = 0;
+            for (Currency currency : Currency.values()) {
+                if (!currency.isBaseCurrency()) {
+                    arrivals.submit(() -> Map.entry(currency, fetchWithRetry(currency, today)));
+                    pending++;
+                }
+            }
+            for (; pending > 0; pending--) {
+                try {
+                    Map.Entry<Currency, List<ObservationResponse>> arrived = arrivals.take().get();
+                    if (!arrived.getValue().isEmpty()) {
+                        fetched.put(arrived.getKey(), arrived.getValue());
+                        // Subscribers only hear about the pairs that changed, so republishing the earlier ones is cheap
+                        currencyExchangeService.publishRates(RateMatrix.fromObservations(fetched), stockholmTime, true);
+                    }
+                } catch (ExecutionException e) {
+                    log.warn("Rate prefetch failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return fetched;
+    }
+
+    /**
+     * Retries until the series is published. Every attempt renews the fetch lease for long enough to cover the
+     * longest wait before the next one, so no other instance starts fetching while this one backs off.
+     */
+    private List<ObservationResponse> fetchWithRetry(Currency currency, LocalDate today) throws InterruptedException {
+        Duration backoff = properties.initialBackoff();
+        for (int attempt = 1; attempt <= properties.maxAttempts(); attempt++) {
+            if (attempt > 1 && !fetchLeadership.tryLead(properties.maxBackoff())) {
+                log.info("Lost the fetch lease, leaving {} for {} to the instance that holds it", currency.seriesId(), today);
+                return List.of();
+            }
+            try {
+                List<ObservationResponse> series = crossRateEngine.fetchSeries(currency, today);
+                if (!series.isEmpty()) {
+                    return series;
+                }
+            } catch (Exception e) {
+                log.debug("Fetching {} failed on attempt {}", currency.seriesId(), attempt, e);
+            }
+            if (attempt < properties.maxAttempts()) {
+                Thread.sleep(backoff.toMillis());
+                backoff = min(backoff.multipliedBy(2), properties.maxBackoff());
+            }
+        }
+        log.warn("Giving up on {} for {} after {} attempts", currency.seriesId(), today, properties.maxAttempts());
+        return List.of();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.service;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.example.service.CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM;
+import static org.example.service.CurrencyExchangeServiceImpl.HOUR;
+import static org.example.service.CurrencyExchangeServiceImpl.MINUTE;
+
+/**
+ * Knows when the Riksbank publishes the next set of daily rates.
+ */
+public final class RatePublication {
+
+    private static final ZoneId STOCKHOLM = ZoneId.of(EUROPE_STOCKHOLM);
+
+    private RatePublication() {
+    }
+
+    /**
+     * Returns the first publication cutoff strictly after {@code now}, in Stockholm time.
+     */
+    public static ZonedDateTime nextPublication(ZonedDateTime now) {
+        ZonedDateTime stockholmTime = now.withZoneSameInstant(STOCKHOLM);
+        ZonedDateTime cutoff = stockholmTime.toLocalDate().atTime(HOUR, MINUTE).atZone(STOCKHOLM);
+        return stockholmTime.isBefore(cutoff) ? cutoff : cutoff.plusDays(1);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.service;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.controller.dto.responses.ExchangeResponse;
+
+/**
+ * Rates frozen for the lifetime of one batch or stream.
+ * <p>
+ * Each pair is resolved the first time it is needed, or all at once through {@link #resolveAll} before a stream
+ * starts writing, and kept as a fixed-point rate, so a conversion costs one array read and a
+ * {@link MoneyConverter} multiply no matter how many items share the pair. Not thread-safe; use one snapshot
+ * per request.
+ */
+public final class RateSnapshot {
+
+    private static final int CURRENCY_COUNT = Currency.count();
+
+    private final BiFunction<Currency, Currency, ExchangeRateResponse> resolver;
+    private final MoneyConverter converter;
+    private final double[] rates = new double[CURRENCY_COUNT * CURRENCY_COUNT];
+    private final long[] fixedRates = new long[CURRENCY_COUNT * CURRENCY_COUNT];
+    private final boolean[] resolved = new boolean[CURRENCY_COUNT * CURRENCY_COUNT];
+
+    RateSnapshot(BiFunction<Currency, Currency, ExchangeRateResponse> resolver, MoneyConverter converter) {
+        this.resolver = resolver;
+        this.converter = converter;
+        Arrays.fill(rates, Double.NaN);
+    }
+
+    /**
+     * Resolves every pair now, so later conversions never wait on a lookup.
+     */
+    RateSnapshot resolveAll() {
+        for (Currency currencyFrom : Currency.values()) {
+            for (Currency currencyTo : Currency.values()) {
+                rate(currencyFrom, currencyTo);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the pair's rate, or {@code NaN} when no rate is available.
+     */
+    public double rate(Currency currencyFrom, Currency currencyTo) {
+        int pair = currencyFrom.id() * CURRENCY_COUNT + currencyTo.id();
+        if (!resolved[pair]) {
+            ExchangeRateResponse latestRate = resolver.apply(currencyFrom, currencyTo);
+            if (latestRate != null) {
+                rates[pair] = latestRate.rate();
+                fixedRates[pair] = MoneyConverter.toFixedRate(latestRate.rate());
+            }
+            resolved[pair] = true;
+        }
+        return rates[pair];
+    }
+
+    /**
+     * Converts {@code amount}, rounded to the minor unit of {@code currencyTo}, or returns {@code null} when the
+     * pair has no rate.
+     */
+    public ExchangeResponse exchange(Currency currencyFrom, Currency currencyTo, double amount) {
+        double rate = rate(currencyFrom, currencyTo);
+        if (Double.isNaN(rate)) {
+            return null;
+        }
+        long fixedRate = fixedRates[currencyFrom.id() * CURRENCY_COUNT + currencyTo.id()];
+        return new ExchangeResponse(currencyFrom, currencyTo, amount, converter.exchange(amount, currencyFrom, currencyTo, fixedRate), rate);
+    }
+}
@@ -0,0 +1,260 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.cache.ExchangeRateCache;
+import org.example.config.SnapshotProperties;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.service.RateHistory.Series;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the in-memory rate state in a binary file, so a new instance serves warm from its first request.
+ * <p>
+ * The cached latest rates, the loaded bank-calendar years and the {@link RateHistory} columns are written
+ * periodically and on shutdown. At startup the file is memory-mapped and read back before anything else
+ * initializes, so neither the database nor the Riksbank API is touched for state the snapshot covers. A
+ * snapshot that is missing, damaged or older than {@code currency.snapshot.max-age} is ignored.
+ * <p>
+ * Layout, big-endian: magic, version and write time; the currency names, which the other sections refer to by
+ * position; cached rates; calendar bitmaps; history columns; and a CRC-32 of everything before it.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.snapshot.enabled", havingValue = "true")
+public class RateStateSnapshot implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RateStateSnapshot.class);
+
+    private static final int MAGIC = 0x52415445;
+    private static final int VERSION = 1;
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final ExchangeRateCache rateCache;
+    private final BankCalendar bankCalendar;
+    private final RateHistory rateHistory;
+    private final SnapshotProperties properties;
+
+    public RateStateSnapshot(ExchangeRateCache rateCache, BankCalendar bankCalendar, RateHistory rateHistory, SnapshotProperties properties) {
+        this.rateCache = rateCache;
+        this.bankCalendar = bankCalendar;
+        this.rateHistory = rateHistory;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs while singletons are still being created, so {@link RateHistory} sees the restored series before it
+     * would load them from the database.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        restore(Instant.now());
+    }
+
+    @Override
+    public void destroy() {
+        write(Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${currency.snapshot.interval:5m}", initialDelayString = "${currency.snapshot.interval:5m}")
+    public void write() {
+        write(Instant.now());
+    }
+
+    /**
+     * Writes the current state to a temporary file and moves it over the snapshot, so readers only ever see a
+     * complete file.
+     */
+    void write(Instant now) {
+        Map<CurrencyPair, ExchangeRateCache.Entry> rates = rateCache.entries(now);
+        Map<Integer, byte[]> years = bankCalendar.loadedYears();
+        Map<Currency, Series> history = new LinkedHashMap<>();
+        for (Currency currency : CURRENCIES) {
+            if (!currency.isBaseCurrency()) {
+                history.put(currency, rateHistory.series(currency));
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size(rates, years, history));
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(now.toEpochMilli());
+        buffer.putShort((short) CURRENCIES.length);
+        for (Currency currency : CURRENCIES) {
+            byte[] name = currency.code().getBytes(StandardCharsets.US_ASCII);
+            buffer.put((byte) name.length).put(name);
+        }
+
+        buffer.putInt(rates.size());
+        for (Map.Entry<CurrencyPair, ExchangeRateCache.Entry> rate : rates.entrySet()) {
+            ExchangeRateResponse response = rate.getValue().rate();
+            buffer.putShort((short) rate.getKey().currencyFrom().id())
+                    .putShort((short) rate.getKey().currencyTo().id())
+                    .putDouble(response.rate())
+                    .putInt((int) LocalDate.parse(response.latestRateDate()).toEpochDay())
+                    .putLong(rate.getValue().expiresAt().toEpochMilli());
+        }
+
+        buffer.putInt(years.size());
+        for (Map.Entry<Integer, byte[]> year : years.entrySet()) {
+            buffer.putShort(year.getKey().shortValue()).putShort((short) year.getValue().length).put(year.getValue());
+        }
+
+        buffer.putInt(history.size());
+        for (Map.Entry<Currency, Series> series : history.entrySet()) {
+            int[] days = series.getValue().days();
+            buffer.putShort((short) series.getKey().id()).putInt(days.length);
+            buffer.asIntBuffer().put(days);
+            buffer.position(buffer.position() + days.length * Integer.BYTES);
+            buffer.asDoubleBuffer().put(series.getValue().values());
+            buffer.position(buffer.position() + days.length * Double.BYTES);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path path = properties.path();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote rate snapshot {} ({} rates, {} calendar years)", path, rates.size(), years.size());
+        } catch (IOException e) {
+            log.warn("Could not write rate snapshot {}", path, e);
+        }
+    }
+
+    /**
+     * Reads the snapshot back into the cache, the calendar and the history. Returns whether it was used; a
+     * snapshot is applied completely or not at all.
+     */
+    boolean restore(Instant now) {
+        Path path = properties.path();
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int checked = buffer.limit() - Integer.BYTES;
+            CRC32 crc = new CRC32();
+            if (checked >= 16) {
+                crc.update(buffer.slice(0, checked));
+            }
+            if (checked < 16 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(checked) != (int) crc.getValue()) {
+                log.warn("Ignoring rate snapshot {}, it is damaged or from another version", path);
+                return false;
+            }
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong(8));
+            if (writtenAt.plus(properties.maxAge()).isBefore(now)) {
+                log.info("Ignoring rate snapshot {} written at {}, it is older than {}", path, writtenAt, properties.maxAge());
+                return false;
+            }
+            buffer.position(16);
+
+            // Map the snapshot's currencies to today's; currencies that no longer exist are skipped
+            Currency[] currencies = new Currency[buffer.getShort()];
+            for (int i = 0; i < currencies.length; i++) {
+                byte[] name = new byte[buffer.get()];
+                buffer.get(name);
+                currencies[i] = currency(new String(name, StandardCharsets.US_ASCII));
+            }
+
+            List<Runnable> restores = new ArrayList<>();
+            int rateCount = buffer.getInt();
+            for (int i = 0; i < rateCount; i++) {
+                Currency currencyFrom = currencies[buffer.getShort()];
+                Currency currencyTo = currencies[buffer.getShort()];
+                double rate = buffer.getDouble();
+                LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+                Instant expiresAt = Instant.ofEpochMilli(buffer.getLong());
+                if (currencyFrom != null && currencyTo != null && now.isBefore(expiresAt)) {
+                    ExchangeRateResponse response = new ExchangeRateResponse(currencyFrom.code(), currencyTo.code(), rate, date.toString(), false);
+                    restores.add(() -> rateCache.put(currencyFrom, currencyTo, response, expiresAt));
+                }
+            }
+
+            int yearCount = buffer.getInt();
+            for (int i = 0; i < yearCount; i++) {
+                int year = buffer.getShort();
+                byte[] bankDays = new byte[buffer.getShort()];
+                buffer.get(bankDays);
+                restores.add(() -> bankCalendar.restoreYear(year, bankDays));
+            }
+
+            int seriesCount = buffer.getInt();
+            for (int i = 0; i < seriesCount; i++) {
+                Currency currency = currencies[buffer.getShort()];
+                int[] days = new int[buffer.getInt()];
+                double[] values = new double[days.length];
+                buffer.asIntBuffer().get(days);
+                buffer.position(buffer.position() + days.length * Integer.BYTES);
+                buffer.asDoubleBuffer().get(values);
+                buffer.position(buffer.position() + days.length * Double.BYTES);
+                if (currency != null) {
+                    restores.add(() -> rateHistory.restore(currency, new Series(days, values)));
+                }
+            }
+
+            restores.forEach(Runnable::run);
+            log.info("Restored rate snapshot {} written at {} ({} rates, {} calendar years, {} series)", path, writtenAt, rateCount, yearCount, seriesCount);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read rate snapshot {}", path, e);
+            return false;
+        }
+    }
+
+    private static int size(Map<CurrencyPair, ExchangeRateCache.Entry> rates, Map<Integer, byte[]> years, Map<Currency, Series> history) {
+        int size = 4 + 4 + 8 + 2;
+        for (Currency currency : CURRENCIES) {
+            size += 1 + currency.code().length();
+        }
+        size += 4 + rates.size() * (2 + 2 + 8 + 4 + 8);
+        size += 4;
+        for (byte[] bankDays : years.values()) {
+            size += 2 + 2 + bankDays.length;
+        }
+        size += 4;
+        for (Series series : history.values()) {
+            size += 2 + 4 + series.days().length * (Integer.BYTES + Double.BYTES);
+        }
+        return size + 4;
+    }
+
+    private static Currency currency(String code) {
+        try {
+            return Currency.valueOf(code);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes rate changes to subscribers instead of having them poll for the daily update.
+ * <p>
+ * Each changed rate is serialized to JSON once, and that same string is handed to every subscriber of the pair,
+ * so a connection only costs the write. Publishing only queues the events: every subscriber has its own bounded
+ * queue, drained in publish order on a virtual thread of its own, so a slow connection holds up neither the
+ * thread that published the rates nor any other subscriber. A subscriber that falls more than
+ * {@link #PUBLICATIONS_BEHIND} full publications behind is dropped and told so, and can subscribe again to start
+ * over from the current rates.
+ */
+@Component
+public class RateUpdates {
+
+    private static final Logger log = LoggerFactory.getLogger(RateUpdates.class);
+    private static final int CURRENCY_COUNT = Currency.count();
+    private static final int ALL_PAIRS = CURRENCY_COUNT * CURRENCY_COUNT;
+    static final int PUBLICATIONS_BEHIND = 4;
+
+    /**
+     * One rate change, already serialized.
+     */
+    public record RateEvent(CurrencyPair pair, String json) {
+    }
+
+    private final ObjectWriter writer;
+    private final Executor delivery;
+    private final AtomicReferenceArray<ExchangeRateResponse> latest = new AtomicReferenceArray<>(ALL_PAIRS);
+    private final AtomicReferenceArray<RateEvent> latestEvents = new AtomicReferenceArray<>(ALL_PAIRS);
+    private final List<List<Subscriber>> subscribers = new ArrayList<>(ALL_PAIRS + 1);
+    /**
+     * Held while publishing and while a new subscriber is added and queued the current rates, so the current rate
+     * it starts with can never be queued after a newer one published at the same time.
+     */
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    @Autowired
+    public RateUpdates(ObjectMapper objectMapper) {
+        this(objectMapper, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-updates-", 0).factory()));
+    }
+
+    RateUpdates(ObjectMapper objectMapper, Executor delivery) {
+        this.writer = objectMapper.writerFor(ExchangeRateResponse.class);
+        this.delivery = delivery;
+        for (int i = 0; i <= ALL_PAIRS; i++) {
+            subscribers.add(new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Subscribes to changes of {@code pair}, or of every pair when it is {@code null}, starting with the
+     * {@linkplain #current current} rates. They go through the subscriber's queue ahead of any later change, so a
+     * rate is never followed by an older one. Returns the action that ends the subscription. When the subscriber
+     * falls too far behind, the subscription ends and {@code onDropped} runs instead.
+     */
+    public Runnable subscribe(CurrencyPair pair, Consumer<RateEvent> consumer, Runnable onDropped) {
+        List<Subscriber> list = subscribers.get(pair == null ? ALL_PAIRS : index(pair));
+        Subscriber subscriber = new Subscriber(consumer, onDropped, list, PUBLICATIONS_BEHIND * (pair == null ? ALL_PAIRS : 1));
+        publishLock.lock();
+        try {
+            list.add(subscriber);
+            current(pair).forEach(subscriber::offer);
+        } finally {
+            publishLock.unlock();
+        }
+        return subscriber::close;
+    }
+
+    /**
+     * The last published rate of {@code pair}, or of every pair when it is {@code null}, the state new subscribers
+     * start from.
+     */
+    public List<RateEvent> current(CurrencyPair pair) {
+        if (pair != null) {
+            RateEvent event = latestEvents.get(index(pair));
+            return event == null ? List.of() : List.of(event);
+        }
+        List<RateEvent> events = new ArrayList<>();
+        for (int i = 0; i < ALL_PAIRS; i++) {
+            RateEvent event = latestEvents.get(i);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Queues the rates that differ from the last ones published for their subscribers. Unchanged rates, such as
+     * a refresh that found nothing new, reach no one.
+     */
+    public void publish(Map<CurrencyPair, ExchangeRateResponse> rates) {
+        publishLock.lock();
+        try {
+            for (Map.Entry<CurrencyPair, ExchangeRateResponse> rate : rates.entrySet()) {
+                int index = index(rate.getKey());
+                ExchangeRateResponse previous = latest.getAndSet(index, rate.getValue());
+                if (!sameRate(previous, rate.getValue())) {
+                    RateEvent event = new RateEvent(rate.getKey(), encode(rate.getValue()));
+                    latestEvents.set(index, event);
+                    subscribers.get(index).forEach(subscriber -> subscriber.offer(event));
+                    subscribers.get(ALL_PAIRS).forEach(subscriber -> subscriber.offer(event));
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private String encode(ExchangeRateResponse rate) {
+        try {
+            return writer.writeValueAsString(rate);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + rate, e);
+        }
+    }
+
+    private static boolean sameRate(ExchangeRateResponse previous, ExchangeRateResponse current) {
+        return previous != null
+                && previous.rate() == current.rate()
+                && Objects.equals(previous.latestRateDate(), current.latestRateDate());
+    }
+
+    private static int index(CurrencyPair pair) {
+        return pair.currencyFrom().id() * CURRENCY_COUNT + pair.currencyTo().id();
+    }
+
+    /**
+     * One subscription and the events queued for it. At most one drain runs at a time, so events reach the
+     * consumer in the order they were offered.
+     */
+    private final class Subscriber {
+
+        private final Consumer<RateEvent> consumer;
+        private final Runnable onDropped;
+        private final List<Subscriber> list;
+        private final int capacity;
+        private final Queue<RateEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Consumer<RateEvent> consumer, Runnable onDropped, List<Subscriber> list, int capacity) {
+            this.consumer = consumer;
+            this.onDropped = onDropped;
+            this.list = list;
+            this.capacity = capacity;
+        }
+
+        void offer(RateEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > capacity) {
+                if (close()) {
+                    log.debug("Dropping a rate update subscriber more than {} events behind", capacity);
+                    delivery.execute(onDropped);
+                }
+                return;
+            }
+            queue.add(event);
+            if (draining.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                RateEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    try {
+                        consumer.accept(event);
+                    } catch (RuntimeException e) {
+                        log.debug("Could not deliver {} rate update", event.pair(), e);
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared found a drain running
+            } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        /**
+         * Ends the subscription, returning {@code false} when it had already ended.
+         */
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            list.remove(this);
+            queue.clear();
+            return true;
+        }
+    }
+}
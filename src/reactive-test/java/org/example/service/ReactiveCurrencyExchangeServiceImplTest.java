@@ -0,0 +1,147 @@
+package org.example.service;
+
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.example.Currency;
+import org.example.cache.ExchangeRateCache;
+import org.example.config.MoneyProperties;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCurrencyExchangeServiceImplTest {
+
+    @Mock
+    private CrossRateEngine crossRateEngine;
+
+    @Mock
+    private BankCalendar bankCalendar;
+
+    @Mock
+    private RateUpdates rateUpdates;
+
+    @Spy
+    private ExchangeRateCache rateCache = new ExchangeRateCache();
+
+    @Spy
+    private MoneyConverter moneyConverter = new MoneyConverter(new MoneyProperties(2, RoundingMode.HALF_EVEN, Map.of(), Map.of()));
+
+    @InjectMocks
+    private ReactiveCurrencyExchangeServiceImpl service;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of(CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM));
+
+    @Test
+    void getLatestExchangeRate_shouldServeFromCache_withoutCallingUpstream() {
+        // Given
+        ExchangeRateResponse cached = new ExchangeRateResponse("USD", "EUR", 0.85, today.toString(), false);
+        rateCache.put(Currency.USD, Currency.EUR, cached, Instant.now().plusSeconds(60));
+
+        // When & Then
+        StepVerifier.create(service.getLatestExchangeRate(Currency.USD, Currency.EUR))
+                .expectNext(cached)
+                .verifyComplete();
+        verifyNoInteractions(crossRateEngine);
+    }
+
+    @Test
+    void mayBeBankDay_shouldAskCalendar_offTheSubscribingThread() {
+        // Given
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(bankCalendar.mayBeBankDay(today)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return true;
+        });
+
+        // When & Then
+        StepVerifier.create(service.mayBeBankDay(today))
+                .expectNext(true)
+                .verifyComplete();
+        assertNotEquals(Thread.currentThread().getName(), threads.getFirst());
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldFetchAndCacheEveryPair_onCacheMiss() {
+        // Given
+        when(crossRateEngine.fetchRatesAsync(today.minusDays(7)))
+                .thenReturn(CompletableFuture.completedFuture(matrix(today, 6.8, 8.0)));
+
+        // When & Then
+        StepVerifier.create(service.getLatestExchangeRate(Currency.USD, Currency.EUR))
+                .expectNextMatches(rate -> rate.rate() == 0.85 && rate.latestRateDate().equals(today.toString()))
+                .verifyComplete();
+        assertNotNull(rateCache.get(Currency.EUR, Currency.SEK, Instant.now()));
+        verify(rateUpdates).publish(anyMap());
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldShareOneFetch_betweenConcurrentMisses() {
+        // Given
+        CompletableFuture<RateMatrix> upstream = new CompletableFuture<>();
+        when(crossRateEngine.fetchRatesAsync(any(LocalDate.class))).thenReturn(upstream);
+
+        // When
+        Mono<ExchangeRateResponse> first = service.getLatestExchangeRate(Currency.USD, Currency.EUR).cache();
+        Mono<ExchangeRateResponse> second = service.getLatestExchangeRate(Currency.EUR, Currency.USD).cache();
+        first.subscribe();
+        second.subscribe();
+        upstream.complete(matrix(today, 6.8, 8.0));
+
+        // Then
+        StepVerifier.create(first).expectNextCount(1).verifyComplete();
+        StepVerifier.create(second).expectNextCount(1).verifyComplete();
+        verify(crossRateEngine, times(1)).fetchRatesAsync(any(LocalDate.class));
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldCompleteEmpty_whenNoRateAvailable() {
+        // Given
+        when(crossRateEngine.fetchRatesAsync(any(LocalDate.class)))
+                .thenReturn(CompletableFuture.completedFuture(RateMatrix.empty()));
+
+        // When & Then
+        StepVerifier.create(service.getLatestExchangeRate(Currency.USD, Currency.EUR))
+                .verifyComplete();
+    }
+
+    @Test
+    void exchangeCurrency_shouldConvertWithLatestRate() {
+        // Given
+        rateCache.put(Currency.USD, Currency.EUR, new ExchangeRateResponse("USD", "EUR", 0.85, today.toString(), false), Instant.now().plusSeconds(60));
+
+        // When & Then
+        StepVerifier.create(service.exchangeCurrency(Currency.USD, Currency.EUR, 100.0))
+                .expectNextMatches(response -> response.exchangedAmount() == 85.0 && response.exchangeRate() == 0.85)
+                .verifyComplete();
+    }
+
+    private static RateMatrix matrix(LocalDate date, double sekPerUsd, double sekPerEur) {
+        return RateMatrix.fromObservations(Map.of(
+                Currency.USD, List.of(new ObservationResponse(date.toString(), sekPerUsd)),
+                Currency.EUR, List.of(new ObservationResponse(date.toString(), sekPerEur))
+        ));
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.time.ZonedDateTime;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.controller.dto.requests.ExchangeRequest;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.controller.dto.responses.ExchangeResponse;
+import org.example.service.RateUpdates;
+import org.example.service.RateUpdates.RateEvent;
+import org.example.service.ReactiveCurrencyExchangeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux version of {@link CurrencyExchangeController}'s rate and exchange endpoints, served when the
+ * {@code reactive} profile is active.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/currency")
+@Tag(name = "Currency Exchange", description = "Currency exchange rate and conversion operations")
+public class ReactiveCurrencyExchangeController {
+
+    private final ReactiveCurrencyExchangeService currencyExchangeService;
+    private final RateUpdates rateUpdates;
+
+    public ReactiveCurrencyExchangeController(ReactiveCurrencyExchangeService currencyExchangeService, RateUpdates rateUpdates) {
+        this.currencyExchangeService = currencyExchangeService;
+        this.rateUpdates = rateUpdates;
+    }
+
+    @Operation(summary = "Get current exchange rate", description = "Retrieves the latest exchange rate between two currencies. Responses carry an ETag and may be cached until the next publication")
+    @GetMapping("/current-rates/{currencyFrom}/{currencyTo}")
+    public Mono<ResponseEntity<ExchangeRateResponse>> getLatestExchangeRates(
+            @Parameter(description = "Source currency code") @PathVariable Currency currencyFrom,
+            @Parameter(description = "Target currency code") @PathVariable Currency currencyTo) {
+        ZonedDateTime now = ZonedDateTime.now();
+        return currencyExchangeService.getLatestExchangeRate(currencyFrom, currencyTo)
+                .flatMap(rate -> todayIsBankDay(rate, now).map(bankDay -> RateCaching.latestRate(rate, now, today -> bankDay)))
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    /**
+     * Asks the calendar through the service, off the event loop, and only when the caching headers depend on it.
+     */
+    private Mono<Boolean> todayIsBankDay(ExchangeRateResponse rate, ZonedDateTime now) {
+        if (rate.stale() || !RateCaching.dependsOnBankDay(rate.latestRateDate(), now)) {
+            return Mono.just(false);
+        }
+        return currencyExchangeService.mayBeBankDay(RateCaching.today(now));
+    }
+
+    @Operation(summary = "Exchange currency", description = "Converts an amount from one currency to another using the latest exchange rate")
+    @PostMapping(value = "/exchange")
+    public Mono<ExchangeResponse> exchangeCurrency(
+            @Parameter(description = "Exchange request with source currency, target currency, and amount") @RequestBody @NotNull @Valid ExchangeRequest request) {
+        return currencyExchangeService.exchangeCurrency(request.currencyFrom(), request.currencyTo(), request.amount())
+                .onErrorMap(ArithmeticException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Converted amount is out of range", e));
+    }
+
+    @Operation(summary = "Subscribe to rate updates", description = "Streams a server-sent event with the new rate whenever any pair's rate changes, starting with the current rates")
+    @GetMapping(value = "/rate-updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> subscribeToRateUpdates() {
+        return rateUpdateStream(null);
+    }
+
+    @Operation(summary = "Subscribe to a pair's rate updates", description = "Streams a server-sent event with the new rate whenever the pair's rate changes, starting with the current rate")
+    @GetMapping(value = "/rate-updates/{currencyFrom}/{currencyTo}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> subscribeToRateUpdates(
+            @Parameter(description = "Source currency code") @PathVariable Currency currencyFrom,
+            @Parameter(description = "Target currency code") @PathVariable Currency currencyTo) {
+        return rateUpdateStream(new CurrencyPair(currencyFrom, currencyTo));
+    }
+
+    /**
+     * String data is written as-is, so every subscriber gets the JSON {@link RateUpdates} serialized once.
+     */
+    private Flux<ServerSentEvent<String>> rateUpdateStream(CurrencyPair pair) {
+        return Flux.<RateEvent>create(sink -> {
+                    Runnable unsubscribe = rateUpdates.subscribe(pair, sink::next, sink::complete);
+                    sink.onDispose(unsubscribe::run);
+                })
+                .map(event -> ServerSentEvent.builder(event.json()).event("rate").build());
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.controller.dto.responses.ExchangeResponse;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCurrencyExchangeService {
+    Mono<ExchangeRateResponse> getLatestExchangeRate(Currency currencyFrom, Currency currencyTo);
+    Mono<ExchangeResponse> exchangeCurrency(Currency currencyFrom, Currency currencyTo, double amount);
+    Mono<Boolean> mayBeBankDay(LocalDate date);
+}
@@ -0,0 +1,138 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.cache.ExchangeRateCache;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.controller.dto.responses.ExchangeResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.example.service.CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM;
+import static org.example.service.CurrencyExchangeServiceImpl.HOUR;
+import static org.example.service.CurrencyExchangeServiceImpl.MINUTE;
+
+/**
+ * Non-blocking counterpart of {@link CurrencyExchangeServiceImpl} for the {@code reactive} profile.
+ * <p>
+ * Rates live in memory only: a cache miss fetches the SEK series through the asynchronous Riksbank client,
+ * triangulates every pair and caches them until the next publication. Nothing is read from or written to the
+ * database, so no request thread ever waits on JDBC. Concurrent misses share one upstream fetch.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCurrencyExchangeServiceImpl implements ReactiveCurrencyExchangeService {
+
+    private static final ZoneId STOCKHOLM = ZoneId.of(EUROPE_STOCKHOLM);
+
+    private final CrossRateEngine crossRateEngine;
+    private final ExchangeRateCache rateCache;
+    private final BankCalendar bankCalendar;
+    private final RateUpdates rateUpdates;
+    private final MoneyConverter moneyConverter;
+    private final ConcurrentMap<LocalDate, CompletableFuture<RateMatrix>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveCurrencyExchangeServiceImpl(CrossRateEngine crossRateEngine, ExchangeRateCache rateCache, BankCalendar bankCalendar, RateUpdates rateUpdates, MoneyConverter moneyConverter) {
+        this.crossRateEngine = crossRateEngine;
+        this.rateCache = rateCache;
+        this.bankCalendar = bankCalendar;
+        this.rateUpdates = rateUpdates;
+        this.moneyConverter = moneyConverter;
+    }
+
+    @Override
+    public Mono<ExchangeRateResponse> getLatestExchangeRate(Currency currencyFrom, Currency currencyTo) {
+        return Mono.defer(() -> {
+            ZonedDateTime stockholmTime = ZonedDateTime.now(STOCKHOLM);
+            ExchangeRateResponse cachedRate = rateCache.get(currencyFrom, currencyTo, stockholmTime.toInstant());
+            if (cachedRate != null) {
+                return Mono.just(cachedRate);
+            }
+            // Subscribers only share the fetch, so one of them cancelling must not cancel it for the rest
+            return Mono.fromFuture(refreshRates(stockholmTime), true)
+                    .mapNotNull(rates -> rates.contains(currencyFrom, currencyTo) ? rates.toResponse(currencyFrom, currencyTo) : null);
+        });
+    }
+
+    @Override
+    public Mono<ExchangeResponse> exchangeCurrency(Currency currencyFrom, Currency currencyTo, double amount) {
+        return getLatestExchangeRate(currencyFrom, currencyTo)
+                .map(latestRate -> new ExchangeResponse(currencyFrom, currencyTo, amount,
+                        moneyConverter.exchange(amount, currencyFrom, currencyTo, MoneyConverter.toFixedRate(latestRate.rate())), latestRate.rate()));
+    }
+
+    /**
+     * Whether a rate may be published on {@code date}, as {@link BankCalendar#mayBeBankDay}. The calendar can load
+     * a year from the database or the Riksbank API, so it is asked on the bounded elastic scheduler rather than the
+     * event loop.
+     */
+    @Override
+    public Mono<Boolean> mayBeBankDay(LocalDate date) {
+        return Mono.fromCallable(() -> bankCalendar.mayBeBankDay(date))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Fetches the past week of SEK series once for all concurrent callers and caches the triangulated rates.
+     */
+    private CompletableFuture<RateMatrix> refreshRates(ZonedDateTime stockholmTime) {
+        LocalDate fromDate = stockholmTime.toLocalDate().minusDays(7);
+        CompletableFuture<RateMatrix> call = new CompletableFuture<>();
+        CompletableFuture<RateMatrix> existing = inFlight.putIfAbsent(fromDate, call);
+        if (existing != null) {
+            return existing;
+        }
+
+        Mono.fromFuture(crossRateEngine.fetchRatesAsync(fromDate), true)
+                .zipWith(awaitingToday(stockholmTime))
+                .subscribe(fetched -> {
+                    publishRates(fetched.getT1(), stockholmTime, fetched.getT2());
+                    inFlight.remove(fromDate, call);
+                    call.complete(fetched.getT1());
+                }, failure -> {
+                    inFlight.remove(fromDate, call);
+                    call.completeExceptionally(failure);
+                });
+        return call;
+    }
+
+    /**
+     * Whether today's rates are due but may not be published yet. The calendar is only asked after the cutoff.
+     */
+    private Mono<Boolean> awaitingToday(ZonedDateTime stockholmTime) {
+        if (stockholmTime.toLocalTime().isBefore(LocalTime.of(HOUR, MINUTE))) {
+            return Mono.just(false);
+        }
+        return mayBeBankDay(stockholmTime.toLocalDate());
+    }
+
+    /**
+     * Caches fetched rates until the next publication and pushes the changed ones to subscribers. When
+     * {@code awaitingToday} is set only today's rates are cached, like
+     * {@link CurrencyExchangeServiceImpl#publishRates}, so older ones are looked up again.
+     */
+    private void publishRates(RateMatrix rates, ZonedDateTime stockholmTime, boolean awaitingToday) {
+        LocalDate today = stockholmTime.toLocalDate();
+        Map<CurrencyPair, ExchangeRateResponse> cacheable = new HashMap<>();
+        for (Currency currencyFrom : Currency.values()) {
+            for (Currency currencyTo : Currency.values()) {
+                if (rates.contains(currencyFrom, currencyTo) && (!awaitingToday || today.equals(rates.date(currencyFrom, currencyTo)))) {
+                    cacheable.put(new CurrencyPair(currencyFrom, currencyTo), rates.toResponse(currencyFrom, currencyTo));
+                }
+            }
+        }
+        rateCache.putAll(cacheable, RatePublication.nextPublication(stockholmTime).toInstant());
+        rateUpdates.publish(cacheable);
+    }
+}
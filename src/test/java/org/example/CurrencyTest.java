@@ -0,0 +1,85 @@
+package org.example;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CurrencyTest {
+
+    @Test
+    void values_shouldNumberBuiltInCurrenciesDensely_inRegistrationOrder() {
+        // When
+        Currency[] currencies = Currency.values();
+
+        // Then
+        assertArrayEquals(new Currency[]{Currency.SEK, Currency.EUR, Currency.USD}, currencies);
+        for (int id = 0; id < currencies.length; id++) {
+            assertEquals(id, currencies[id].id());
+            assertSame(currencies[id], Currency.of(id));
+        }
+    }
+
+    @Test
+    void valueOf_shouldParseRegisteredCodes() {
+        // When & Then
+        assertSame(Currency.EUR, Currency.valueOf("EUR"));
+        assertEquals("SEKUSDPMI", Currency.valueOf("USD").seriesId());
+    }
+
+    @Test
+    void valueOf_shouldReject_unknownOrMalformedCodes() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> Currency.valueOf("XAU"));
+        assertThrows(IllegalArgumentException.class, () -> Currency.valueOf("eur"));
+        assertThrows(IllegalArgumentException.class, () -> Currency.valueOf("EURO"));
+        assertThrows(IllegalArgumentException.class, () -> Currency.valueOf(null));
+    }
+
+    @Test
+    void register_shouldReturnExistingCurrency_whenCodeIsRegisteredAgain() {
+        // When & Then
+        assertSame(Currency.EUR, Currency.register("EUR", "SEKEURPMI"));
+        assertThrows(IllegalArgumentException.class, () -> Currency.register("EUR", "SEKUSDPMI"));
+        assertThrows(IllegalArgumentException.class, () -> Currency.register("EUR", "SEKEURPMI", 100));
+        assertEquals(1, Currency.EUR.unit());
+    }
+
+    @Test
+    void register_shouldFail_onceCurrenciesHaveBeenRead() {
+        // Given
+        Currency.count();
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> Currency.register("NOK", "SEKNOKPMI"));
+        assertThrows(IllegalArgumentException.class, () -> Currency.valueOf("NOK"));
+    }
+
+    @Test
+    void registry_shouldNumberAndParseThirtyCurrencies() {
+        // Given
+        List<String> codes = List.of("SEK", "AUD", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP",
+                "HKD", "HUF", "IDR", "INR", "ISK", "JPY", "KRW", "MAD", "MXN", "NOK",
+                "NZD", "PLN", "RUB", "SAR", "SGD", "THB", "TRY", "USD", "ZAR", "ILS");
+        Currency.Registry registry = new Currency.Registry();
+
+        // When
+        for (String code : codes) {
+            registry.register(code, "SEK" + code + "PMI", code.equals("JPY") || code.equals("KRW") ? 100 : 1);
+        }
+
+        // Then
+        Currency[] currencies = registry.registered();
+        assertEquals(30, currencies.length);
+        for (int id = 0; id < currencies.length; id++) {
+            assertEquals(id, currencies[id].id());
+            assertSame(currencies[id], registry.valueOf(codes.get(id)));
+        }
+        assertEquals(100, registry.valueOf("JPY").unit());
+        assertThrows(IllegalStateException.class, () -> registry.register("XAU", "SEKXAUPMI", 1));
+        assertThrows(IllegalArgumentException.class, () -> registry.valueOf("XAU"));
+    }
+}
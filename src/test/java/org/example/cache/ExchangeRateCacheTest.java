@@ -0,0 +1,55 @@
+package org.example.cache;
+
+import java.time.Instant;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExchangeRateCacheTest {
+
+    private final ExchangeRateCache cache = new ExchangeRateCache();
+
+    private final Instant now = Instant.parse("2024-01-15T12:00:00Z");
+
+    @Test
+    void get_shouldReturnRate_whenEntryHasNotExpired() {
+        // Given
+        ExchangeRateResponse rate = new ExchangeRateResponse("USD", "EUR", 0.85, "2024-01-15", false);
+        cache.put(Currency.USD, Currency.EUR, rate, now.plusSeconds(60));
+
+        // When
+        ExchangeRateResponse result = cache.get(Currency.USD, Currency.EUR, now);
+
+        // Then
+        assertSame(rate, result);
+    }
+
+    @Test
+    void get_shouldReturnNull_whenEntryHasExpired() {
+        // Given
+        ExchangeRateResponse rate = new ExchangeRateResponse("USD", "EUR", 0.85, "2024-01-15", false);
+        cache.put(Currency.USD, Currency.EUR, rate, now);
+
+        // When
+        ExchangeRateResponse result = cache.get(Currency.USD, Currency.EUR, now);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    void get_shouldKeepPairsApart() {
+        // Given
+        ExchangeRateResponse rate = new ExchangeRateResponse("USD", "EUR", 0.85, "2024-01-15", false);
+        cache.put(Currency.USD, Currency.EUR, rate, now.plusSeconds(60));
+
+        // When
+        ExchangeRateResponse inverse = cache.get(Currency.EUR, Currency.USD, now);
+
+        // Then
+        assertNull(inverse);
+    }
+}
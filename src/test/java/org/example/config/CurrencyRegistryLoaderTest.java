@@ -0,0 +1,71 @@
+package org.example.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.example.config.CurrencyRegistryLoader.Quote;
+import org.example.external.dto.SeriesResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CurrencyRegistryLoaderTest {
+
+    @Test
+    void currencies_shouldKeepOpenCurrencySeries_inCodeOrder() {
+        // Given
+        List<SeriesResponse> published = List.of(
+                series("SEKUSDPMI", "USD", false),
+                series("SEKNOKPMI", "NOK", false),
+                series("SEKETT", "SEK", false),
+                series("SEKLTLPMI", "LTL", true),
+                series("SECBREPOEFF", "Repo", false),
+                series("SEKDKKPMI", "DKK", false));
+
+        // When
+        Map<String, Quote> currencies = CurrencyRegistryLoader.currencies(properties(Map.of(), Map.of()), published);
+
+        // Then
+        assertEquals(List.of("DKK", "NOK", "USD"), List.copyOf(currencies.keySet()));
+        assertEquals(new Quote("SEKNOKPMI", 1), currencies.get("NOK"));
+    }
+
+    @Test
+    void currencies_shouldReadUnit_fromSeriesDescription() {
+        // Given
+        List<SeriesResponse> published = List.of(
+                series("SEKJPYPMI", "100 JPY", false),
+                series("SEKNOKPMI", "NOK", false));
+
+        // When
+        Map<String, Quote> currencies = CurrencyRegistryLoader.currencies(properties(Map.of(), Map.of()), published);
+
+        // Then
+        assertEquals(new Quote("SEKJPYPMI", 100), currencies.get("JPY"));
+        assertEquals(new Quote("SEKNOKPMI", 1), currencies.get("NOK"));
+    }
+
+    @Test
+    void currencies_shouldPreferConfiguredSeries() {
+        // Given
+        CurrencyRegistryProperties properties = properties(Map.of("nok", "SEKNOKPMI", "ISK", "SEKISKPMI", "JPY", "SEKJPYPMI"), Map.of("isk", 100));
+
+        // When
+        Map<String, Quote> currencies = CurrencyRegistryLoader.currencies(properties, List.of(series("SEKJPYPMI", "100 JPY", false)));
+
+        // Then
+        assertEquals(Map.of(
+                "ISK", new Quote("SEKISKPMI", 100),
+                "JPY", new Quote("SEKJPYPMI", 100),
+                "NOK", new Quote("SEKNOKPMI", 1)), currencies);
+    }
+
+    private static SeriesResponse series(String seriesId, String shortDescription, boolean closed) {
+        return new SeriesResponse(seriesId, shortDescription, null, null, closed);
+    }
+
+    private static CurrencyRegistryProperties properties(Map<String, String> series, Map<String, Integer> units) {
+        return new CurrencyRegistryProperties(true, series, units, Path.of("currency-series.json"), Duration.ofDays(7), Duration.ofSeconds(3));
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemaphoreBoundedExecutorTest {
+
+    @Test
+    void execute_shouldRunAtMostPermitsTasksAtOnce() throws Exception {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try (SemaphoreBoundedExecutor executor = new SemaphoreBoundedExecutor(Executors.newVirtualThreadPerTaskExecutor(), 2)) {
+            // When
+            for (int i = 0; i < 8; i++) {
+                tasks.add(executor.submit(() -> {
+                    mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    release.await(5, TimeUnit.SECONDS);
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+            while (running.get() < 2) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<?> task : tasks) {
+                task.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        // Then
+        assertEquals(2, mostRunning.get());
+        assertTrue(tasks.stream().allMatch(Future::isDone));
+    }
+}
@@ -1,21 +1,43 @@
 package org.example.controller;
 
-import org.example.CurrencyEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.Currency;
+import org.example.CurrencyPair;
 import org.example.controller.dto.requests.ExchangeRequest;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.controller.dto.responses.ExchangeResponse;
+import org.example.controller.dto.responses.ExchangeStreamError;
+import org.example.service.BankCalendar;
 import org.example.service.CurrencyExchangeService;
+import org.example.service.RateSnapshot;
+import org.example.service.RateUpdates;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,19 +46,29 @@ class CurrencyExchangeControllerTest {
     @Mock
     private CurrencyExchangeService currencyExchangeService;
 
+    @Mock
+    private RateUpdates rateUpdates;
+
+    @Mock
+    private BankCalendar bankCalendar;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private CurrencyExchangeController currencyExchangeController;
 
     @Test
     void getLatestExchangeRates_shouldReturnExchangeRate_whenValidCurrenciesProvided() {
         // Given
-        CurrencyEnum currencyFrom = CurrencyEnum.USD;
-        CurrencyEnum currencyTo = CurrencyEnum.EUR;
+        Currency currencyFrom = Currency.USD;
+        Currency currencyTo = Currency.EUR;
         ExchangeRateResponse expectedResponse = new ExchangeRateResponse(
                 "USD",
                 "EUR",
                 0.85,
-                "2024-01-15"
+                "2024-01-15",
+                false
         );
 
         when(currencyExchangeService.getLatestExchangeRate(currencyFrom, currencyTo))
@@ -53,6 +85,7 @@ class CurrencyExchangeControllerTest {
         assertEquals("EUR", response.getBody().currencyTo());
         assertEquals(0.85, response.getBody().rate());
         assertEquals("2024-01-15", response.getBody().latestRateDate());
+        assertEquals("\"USD-EUR-2024-01-15\"", response.getHeaders().getETag());
 
         verify(currencyExchangeService).getLatestExchangeRate(currencyFrom, currencyTo);
     }
@@ -60,13 +93,14 @@ class CurrencyExchangeControllerTest {
     @Test
     void getLatestExchangeRates_shouldReturnExchangeRate_whenDifferentCurrencyPairProvided() {
         // Given
-        CurrencyEnum currencyFrom = CurrencyEnum.SEK;
-        CurrencyEnum currencyTo = CurrencyEnum.USD;
+        Currency currencyFrom = Currency.SEK;
+        Currency currencyTo = Currency.USD;
         ExchangeRateResponse expectedResponse = new ExchangeRateResponse(
                 "SEK",
                 "USD",
                 1.27,
-                "2024-01-15"
+                "2024-01-15",
+                false
         );
 
         when(currencyExchangeService.getLatestExchangeRate(currencyFrom, currencyTo))
@@ -86,19 +120,53 @@ class CurrencyExchangeControllerTest {
         verify(currencyExchangeService).getLatestExchangeRate(currencyFrom, currencyTo);
     }
 
+    @Test
+    void getExchangeRates_shouldReturnHistory_whenValidRangeProvided() {
+        // Given
+        LocalDate start = LocalDate.of(2024, 1, 15);
+        LocalDate end = LocalDate.of(2024, 1, 16);
+        List<ExchangeRateResponse> expectedResponse = List.of(
+                new ExchangeRateResponse("USD", "EUR", 0.85, "2024-01-15", false),
+                new ExchangeRateResponse("USD", "EUR", 0.86, "2024-01-16", false)
+        );
+
+        when(currencyExchangeService.getExchangeRates(Currency.USD, Currency.EUR, start, end))
+                .thenReturn(expectedResponse);
+
+        // When
+        ResponseEntity<List<ExchangeRateResponse>> response = currencyExchangeController.getExchangeRates(Currency.USD, Currency.EUR, start, end);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    void getExchangeRates_shouldRejectRange_whenStartIsAfterEnd() {
+        // Given
+        LocalDate start = LocalDate.of(2024, 1, 16);
+        LocalDate end = LocalDate.of(2024, 1, 15);
+
+        // When/Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                currencyExchangeController.getExchangeRates(Currency.USD, Currency.EUR, start, end));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(currencyExchangeService);
+    }
+
     @Test
     void exchangeCurrency_shouldReturnExchangeResponse_whenValidRequestProvided() {
         // Given
-        ExchangeRequest request = new ExchangeRequest(CurrencyEnum.USD, CurrencyEnum.EUR, 100.0);
+        ExchangeRequest request = new ExchangeRequest(Currency.USD, Currency.EUR, 100.0);
         ExchangeResponse expectedResponse = new ExchangeResponse(
-                CurrencyEnum.USD,
-                CurrencyEnum.EUR,
+                Currency.USD,
+                Currency.EUR,
                 100.0,
                 85.0,
                 0.85
         );
 
-        when(currencyExchangeService.exchangeCurrency(CurrencyEnum.USD, CurrencyEnum.EUR, 100.0))
+        when(currencyExchangeService.exchangeCurrency(Currency.USD, Currency.EUR, 100.0))
                 .thenReturn(expectedResponse);
 
         // When
@@ -108,28 +176,28 @@ class CurrencyExchangeControllerTest {
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(CurrencyEnum.USD, response.getBody().currencyFrom());
-        assertEquals(CurrencyEnum.EUR, response.getBody().currencyTo());
+        assertEquals(Currency.USD, response.getBody().currencyFrom());
+        assertEquals(Currency.EUR, response.getBody().currencyTo());
         assertEquals(100.0, response.getBody().originalAmount());
         assertEquals(85.0, response.getBody().exchangedAmount());
         assertEquals(0.85, response.getBody().exchangeRate());
 
-        verify(currencyExchangeService).exchangeCurrency(CurrencyEnum.USD, CurrencyEnum.EUR, 100.0);
+        verify(currencyExchangeService).exchangeCurrency(Currency.USD, Currency.EUR, 100.0);
     }
 
     @Test
     void exchangeCurrency_shouldReturnExchangeResponse_whenLargeAmountProvided() {
         // Given
-        ExchangeRequest request = new ExchangeRequest(CurrencyEnum.EUR, CurrencyEnum.USD, 10000.0);
+        ExchangeRequest request = new ExchangeRequest(Currency.EUR, Currency.USD, 10000.0);
         ExchangeResponse expectedResponse = new ExchangeResponse(
-                CurrencyEnum.EUR,
-                CurrencyEnum.USD,
+                Currency.EUR,
+                Currency.USD,
                 10000.0,
                 8600.0,
                 0.86
         );
 
-        when(currencyExchangeService.exchangeCurrency(CurrencyEnum.EUR, CurrencyEnum.USD, 10000.0))
+        when(currencyExchangeService.exchangeCurrency(Currency.EUR, Currency.USD, 10000.0))
                 .thenReturn(expectedResponse);
 
         // When
@@ -139,28 +207,28 @@ class CurrencyExchangeControllerTest {
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(CurrencyEnum.EUR, response.getBody().currencyFrom());
-        assertEquals(CurrencyEnum.USD, response.getBody().currencyTo());
+        assertEquals(Currency.EUR, response.getBody().currencyFrom());
+        assertEquals(Currency.USD, response.getBody().currencyTo());
         assertEquals(10000.0, response.getBody().originalAmount());
         assertEquals(8600.0, response.getBody().exchangedAmount());
         assertEquals(0.86, response.getBody().exchangeRate());
 
-        verify(currencyExchangeService).exchangeCurrency(CurrencyEnum.EUR, CurrencyEnum.USD, 10000.0);
+        verify(currencyExchangeService).exchangeCurrency(Currency.EUR, Currency.USD, 10000.0);
     }
 
     @Test
     void exchangeCurrency_shouldReturnExchangeResponse_whenZeroAmountProvided() {
         // Given
-        ExchangeRequest request = new ExchangeRequest(CurrencyEnum.USD, CurrencyEnum.EUR, 0.0);
+        ExchangeRequest request = new ExchangeRequest(Currency.USD, Currency.EUR, 0.0);
         ExchangeResponse expectedResponse = new ExchangeResponse(
-                CurrencyEnum.USD,
-                CurrencyEnum.EUR,
+                Currency.USD,
+                Currency.EUR,
                 0.0,
                 0.0,
                 0.85
         );
 
-        when(currencyExchangeService.exchangeCurrency(CurrencyEnum.USD, CurrencyEnum.EUR, 0.0))
+        when(currencyExchangeService.exchangeCurrency(Currency.USD, Currency.EUR, 0.0))
                 .thenReturn(expectedResponse);
 
         // When
@@ -173,15 +241,15 @@ class CurrencyExchangeControllerTest {
         assertEquals(0.0, response.getBody().originalAmount());
         assertEquals(0.0, response.getBody().exchangedAmount());
 
-        verify(currencyExchangeService).exchangeCurrency(CurrencyEnum.USD, CurrencyEnum.EUR, 0.0);
+        verify(currencyExchangeService).exchangeCurrency(Currency.USD, Currency.EUR, 0.0);
     }
 
     @Test
     void exchangeCurrency_shouldHandleBadInput_whenNegativeAmountProvided() {
         // Given
-        ExchangeRequest request = new ExchangeRequest(CurrencyEnum.USD, CurrencyEnum.EUR, -100.0);
+        ExchangeRequest request = new ExchangeRequest(Currency.USD, Currency.EUR, -100.0);
 
-        when(currencyExchangeService.exchangeCurrency(CurrencyEnum.USD, CurrencyEnum.EUR, -100.0))
+        when(currencyExchangeService.exchangeCurrency(Currency.USD, Currency.EUR, -100.0))
                 .thenThrow(new IllegalArgumentException("Amount must be non-negative"));
 
         // When/Then
@@ -191,6 +259,140 @@ class CurrencyExchangeControllerTest {
             assertEquals("Amount must be non-negative", e.getMessage());
         }
 
-        verify(currencyExchangeService).exchangeCurrency(CurrencyEnum.USD, CurrencyEnum.EUR, -100.0);
+        verify(currencyExchangeService).exchangeCurrency(Currency.USD, Currency.EUR, -100.0);
+    }
+
+    @Test
+    void exchangeCurrencies_shouldReturnResultsInRequestOrder() {
+        // Given
+        List<ExchangeRequest> requests = List.of(
+                new ExchangeRequest(Currency.USD, Currency.EUR, 100.0),
+                new ExchangeRequest(Currency.EUR, Currency.USD, 10.0)
+        );
+        List<ExchangeResponse> expectedResponses = List.of(
+                new ExchangeResponse(Currency.USD, Currency.EUR, 100.0, 85.0, 0.85),
+                new ExchangeResponse(Currency.EUR, Currency.USD, 10.0, 11.6, 1.16)
+        );
+
+        when(currencyExchangeService.exchangeCurrencies(requests))
+                .thenReturn(expectedResponses);
+
+        // When
+        ResponseEntity<List<ExchangeResponse>> response = currencyExchangeController.exchangeCurrencies(requests);
+
+        // Then
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponses, response.getBody());
+
+        verify(currencyExchangeService).exchangeCurrencies(requests);
+    }
+
+    @Test
+    void exchangeCurrencies_shouldReturnBadRequest_whenConvertedAmountOverflows() {
+        // Given
+        List<ExchangeRequest> requests = List.of(new ExchangeRequest(Currency.EUR, Currency.SEK, ExchangeRequest.MAX_AMOUNT));
+        when(currencyExchangeService.exchangeCurrencies(requests))
+                .thenThrow(new ArithmeticException("Converting EUR to SEK overflows"));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> currencyExchangeController.exchangeCurrencies(requests));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void exchangeCurrencyStream_shouldWriteOneResultLinePerRequestLine() throws Exception {
+        // Given
+        RateSnapshot rates = mock(RateSnapshot.class);
+        when(currencyExchangeService.rateSnapshot()).thenReturn(rates);
+        when(rates.exchange(Currency.USD, Currency.EUR, 100.0))
+                .thenReturn(new ExchangeResponse(Currency.USD, Currency.EUR, 100.0, 85.0, 0.85));
+        when(rates.exchange(Currency.EUR, Currency.SEK, 10.0))
+                .thenReturn(null);
+        String body = """
+                {"currencyFrom":"USD","currencyTo":"EUR","amount":100.0}
+                {"currencyFrom":"EUR","currencyTo":"SEK","amount":10.0}
+                """;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        currencyExchangeController.exchangeCurrencyStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+
+        // Then
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(Currency.USD, objectMapper.readValue(lines[0], ExchangeResponse.class).currencyFrom());
+        assertEquals(85.0, objectMapper.readValue(lines[0], ExchangeResponse.class).exchangedAmount());
+        assertEquals("null", lines[1]);
+        verify(currencyExchangeService, times(1)).rateSnapshot();
+    }
+
+    @Test
+    void exchangeCurrencyStream_shouldReportInvalidLinesInBand_andCarryOn() throws Exception {
+        // Given
+        RateSnapshot rates = mock(RateSnapshot.class);
+        when(currencyExchangeService.rateSnapshot()).thenReturn(rates);
+        when(rates.exchange(Currency.USD, Currency.EUR, 100.0))
+                .thenReturn(new ExchangeResponse(Currency.USD, Currency.EUR, 100.0, 85.0, 0.85));
+        String body = """
+                {"currencyFrom":"USD","amount":100.0}
+                {"currencyFrom":"USD","currencyTo":
+                {"currencyFrom":"USD","currencyTo":"XXX","amount":1.0}
+
+                {"currencyFrom":"USD","currencyTo":"EUR","amount":100.0}
+                """;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        currencyExchangeController.exchangeCurrencyStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+
+        // Then
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(4, lines.length);
+        assertEquals(1, objectMapper.readValue(lines[0], ExchangeStreamError.class).line());
+        assertEquals(2, objectMapper.readValue(lines[1], ExchangeStreamError.class).line());
+        assertEquals(3, objectMapper.readValue(lines[2], ExchangeStreamError.class).line());
+        assertEquals(85.0, objectMapper.readValue(lines[3], ExchangeResponse.class).exchangedAmount());
+    }
+
+    @Test
+    void exchangeCurrencyStream_shouldReportOverlongLineInBand_andCarryOn() throws Exception {
+        // Given
+        RateSnapshot rates = mock(RateSnapshot.class);
+        when(currencyExchangeService.rateSnapshot()).thenReturn(rates);
+        when(rates.exchange(Currency.USD, Currency.EUR, 100.0))
+                .thenReturn(new ExchangeResponse(Currency.USD, Currency.EUR, 100.0, 85.0, 0.85));
+        String body = "{\"currencyFrom\":\"USD\",\"padding\":\"" + "x".repeat(CurrencyExchangeController.MAX_STREAM_LINE_LENGTH) + "\"}\n"
+                + "{\"currencyFrom\":\"USD\",\"currencyTo\":\"EUR\",\"amount\":100.0}\r\n";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        currencyExchangeController.exchangeCurrencyStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+
+        // Then
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readValue(lines[0], ExchangeStreamError.class).line());
+        assertEquals(85.0, objectMapper.readValue(lines[1], ExchangeResponse.class).exchangedAmount());
+    }
+
+    @Test
+    void subscribeToRateUpdates_shouldSubscribeToRequestedPair() {
+        // Given
+        CurrencyPair pair = new CurrencyPair(Currency.USD, Currency.EUR);
+        when(rateUpdates.subscribe(eq(pair), any(), any())).thenReturn(() -> {
+        });
+
+        // When
+        SseEmitter emitter = currencyExchangeController.subscribeToRateUpdates(Currency.USD, Currency.EUR);
+
+        // Then
+        assertEquals(CurrencyExchangeController.SUBSCRIPTION_TIMEOUT.toMillis(), emitter.getTimeout());
+        verify(rateUpdates).subscribe(eq(pair), any(), any());
+        verify(rateUpdates, never()).current(any());
     }
 }
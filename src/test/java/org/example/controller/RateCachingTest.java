@@ -0,0 +1,130 @@
+package org.example.controller;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateCachingTest {
+
+    private static final ZoneId STOCKHOLM = ZoneId.of("Europe/Stockholm");
+    private static final Predicate<LocalDate> BANK_DAYS = day -> day.getDayOfWeek().getValue() < 6;
+
+    @Test
+    void cacheControl_shouldAllowCachingUntilNextCutoff_beforeCutoff() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 16, 10, 15, 0, 0, STOCKHOLM);
+
+        // When
+        CacheControl cacheControl = RateCaching.cacheControl("2024-01-15", now, BANK_DAYS);
+
+        // Then
+        assertEquals(CacheControl.maxAge(Duration.ofHours(6)).cachePublic().getHeaderValue(), cacheControl.getHeaderValue());
+    }
+
+    @Test
+    void cacheControl_shouldAllowCachingUntilTomorrow_whenTodaysRateIsPublished() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 16, 17, 15, 0, 0, STOCKHOLM);
+
+        // When
+        CacheControl cacheControl = RateCaching.cacheControl("2024-01-16", now, BANK_DAYS);
+
+        // Then
+        assertEquals(CacheControl.maxAge(Duration.ofHours(23)).cachePublic().getHeaderValue(), cacheControl.getHeaderValue());
+    }
+
+    @Test
+    void cacheControl_shouldKeepMaxAgeShort_whileTodaysRateIsPending() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 16, 16, 20, 0, 0, STOCKHOLM);
+
+        // When
+        CacheControl cacheControl = RateCaching.cacheControl("2024-01-15", now, BANK_DAYS);
+
+        // Then
+        assertEquals(CacheControl.maxAge(RateCaching.PENDING_PUBLICATION_MAX_AGE).cachePublic().getHeaderValue(), cacheControl.getHeaderValue());
+    }
+
+    @Test
+    void cacheControl_shouldAllowCachingUntilNextCutoff_afterCutoffOnNonBankDay() {
+        // Given
+        ZonedDateTime saturday = ZonedDateTime.of(2024, 1, 20, 16, 20, 0, 0, STOCKHOLM);
+
+        // When
+        CacheControl cacheControl = RateCaching.cacheControl("2024-01-19", saturday, BANK_DAYS);
+
+        // Then
+        assertEquals(CacheControl.maxAge(Duration.ofHours(23).plusMinutes(55)).cachePublic().getHeaderValue(), cacheControl.getHeaderValue());
+    }
+
+    @Test
+    void rateRange_shouldRevalidatePastRanges_ratherThanMarkThemImmutable() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 16, 16, 20, 0, 0, STOCKHOLM);
+        ExchangeRateResponse last = new ExchangeRateResponse("USD", "EUR", 0.86, "2024-01-15", false);
+
+        // When
+        ResponseEntity<List<ExchangeRateResponse>> response = RateCaching.rateRange(Currency.USD, Currency.EUR,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 15), List.of(last), now, BANK_DAYS);
+
+        // Then
+        assertEquals(CacheControl.maxAge(RateCaching.HISTORICAL_MAX_AGE).cachePublic().getHeaderValue(),
+                response.getHeaders().getCacheControl());
+        assertFalse(response.getHeaders().getCacheControl().contains("immutable"));
+    }
+
+    @Test
+    void latestRate_shouldTagStaleRatesSeparately_andNotCacheThem() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 16, 10, 0, 0, 0, STOCKHOLM);
+        ExchangeRateResponse rate = new ExchangeRateResponse("USD", "EUR", 0.85, "2024-01-15", false);
+
+        // When
+        ResponseEntity<ExchangeRateResponse> fresh = RateCaching.latestRate(rate, now, BANK_DAYS);
+        ResponseEntity<ExchangeRateResponse> stale = RateCaching.latestRate(rate.asStale(), now, BANK_DAYS);
+
+        // Then
+        assertNotEquals(fresh.getHeaders().getETag(), stale.getHeaders().getETag());
+        assertEquals("no-cache", stale.getHeaders().getCacheControl());
+        assertEquals(ZonedDateTime.of(2024, 1, 15, 16, 15, 0, 0, STOCKHOLM).toInstant().toEpochMilli(), fresh.getHeaders().getLastModified());
+    }
+
+    @Test
+    void latestRate_shouldOmitValidators_whenNoRateAvailable() {
+        // When
+        ResponseEntity<ExchangeRateResponse> response = RateCaching.latestRate(null, ZonedDateTime.now(), BANK_DAYS);
+
+        // Then
+        assertNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void rateRange_shouldChangeEtag_whenRangeGainsDays() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 16, 10, 0, 0, 0, STOCKHOLM);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 31);
+        ExchangeRateResponse first = new ExchangeRateResponse("USD", "EUR", 0.85, "2024-01-02", false);
+        ExchangeRateResponse last = new ExchangeRateResponse("USD", "EUR", 0.86, "2024-01-15", false);
+
+        // When
+        String partial = RateCaching.rateRange(Currency.USD, Currency.EUR, start, end, List.of(last), now, BANK_DAYS).getHeaders().getETag();
+        String complete = RateCaching.rateRange(Currency.USD, Currency.EUR, start, end, List.of(first, last), now, BANK_DAYS).getHeaders().getETag();
+
+        // Then
+        assertNotEquals(partial, complete);
+    }
+}
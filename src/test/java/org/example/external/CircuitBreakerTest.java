@@ -0,0 +1,99 @@
+package org.example.external;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(30), nanos::get);
+
+    @Test
+    void allowRequest_shouldStayClosed_belowFailureThreshold() {
+        // When
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        // Then
+        assertFalse(circuitBreaker.isOpen());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void allowRequest_shouldRefuseCalls_onceThresholdIsReached() {
+        // When
+        tripCircuit();
+
+        // Then
+        assertTrue(circuitBreaker.isOpen());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void recordSuccess_shouldResetConsecutiveFailures() {
+        // When
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+
+        // Then
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void allowRequest_shouldLetOneProbeThrough_afterOpenDuration() {
+        // Given
+        tripCircuit();
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // When
+        boolean first = circuitBreaker.allowRequest();
+        boolean second = circuitBreaker.allowRequest();
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void recordSuccess_shouldCloseCircuit_whenProbeSucceeds() {
+        // Given
+        tripCircuit();
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        circuitBreaker.allowRequest();
+
+        // When
+        circuitBreaker.recordSuccess();
+
+        // Then
+        assertFalse(circuitBreaker.isOpen());
+        assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void recordFailure_shouldReopenCircuit_whenProbeFails() {
+        // Given
+        tripCircuit();
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        circuitBreaker.allowRequest();
+
+        // When
+        circuitBreaker.recordFailure();
+
+        // Then
+        assertTrue(circuitBreaker.isOpen());
+        assertFalse(circuitBreaker.allowRequest());
+    }
+
+    private void tripCircuit() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure();
+        }
+    }
+}
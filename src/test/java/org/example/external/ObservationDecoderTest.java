@@ -0,0 +1,100 @@
+package org.example.external;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import org.example.external.dto.ObservationSeries;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObservationDecoderTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void decode_shouldReturnSortedColumns_andSkipUnknownFields() throws IOException {
+        // Given
+        String json = "[{\"date\":\"2024-03-01\",\"value\":11.3,\"extra\":{\"nested\":[1,2]}},"
+                + "{\"value\":11.1,\"date\":\"2024-02-29\"}]";
+
+        // When
+        ObservationSeries series = decode(json);
+
+        // Then
+        assertArrayEquals(new int[]{epochDay(2024, 2, 29), epochDay(2024, 3, 1)}, series.epochDays());
+        assertArrayEquals(new double[]{11.1, 11.3}, series.values());
+    }
+
+    @Test
+    void perUnit_shouldScaleSeriesQuotedForSeveralUnits_downToOneUnit() throws IOException {
+        // Given
+        ObservationSeries series = decode("[{\"date\":\"2024-03-01\",\"value\":7.05}]");
+
+        // When & Then
+        assertArrayEquals(new double[]{0.0705}, series.perUnit(100).values(), 1e-12);
+        assertSame(series, series.perUnit(1));
+    }
+
+    @Test
+    void decode_shouldSkipObservationsWithoutValue() throws IOException {
+        // When
+        ObservationSeries series = decode("[{\"date\":\"2024-01-02\",\"value\":null},{\"date\":\"2024-01-03\",\"value\":11.2}]");
+
+        // Then
+        assertArrayEquals(new int[]{epochDay(2024, 1, 3)}, series.epochDays());
+    }
+
+    @Test
+    void decode_shouldReturnEmptySeries_whenBodyIsEmpty() throws IOException {
+        // When & Then
+        assertTrue(decode("").isEmpty());
+        assertTrue(decode("[]").isEmpty());
+    }
+
+    @Test
+    void decode_shouldRejectBodiesThatAreNotArrays() {
+        // When & Then
+        assertThrows(IOException.class, () -> decode("{\"message\":\"Too many requests\"}"));
+    }
+
+    @Test
+    void parseEpochDay_shouldMatchLocalDate_acrossMonthsAndLeapYears() {
+        // Given
+        LocalDate date = LocalDate.of(1899, 12, 25);
+        LocalDate end = LocalDate.of(2101, 1, 5);
+
+        // When & Then
+        for (; date.isBefore(end); date = date.plusDays(3)) {
+            char[] text = date.toString().toCharArray();
+            assertEquals(date.toEpochDay(), ObservationDecoder.parseEpochDay(text, 0, text.length));
+        }
+    }
+
+    @Test
+    void parseEpochDay_shouldRejectInvalidDates() {
+        // Given
+        char[] invalidDay = "2023-02-29".toCharArray();
+        char[] notADate = "20x4-01-02".toCharArray();
+
+        // When & Then
+        assertThrows(DateTimeException.class, () -> ObservationDecoder.parseEpochDay(invalidDay, 0, invalidDay.length));
+        assertThrows(DateTimeException.class, () -> ObservationDecoder.parseEpochDay(notADate, 0, notADate.length));
+    }
+
+    private ObservationSeries decode(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return ObservationDecoder.decode(parser);
+        }
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        return (int) LocalDate.of(year, month, day).toEpochDay();
+    }
+}
@@ -1,24 +1,42 @@
 package org.example.external;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.example.config.RiksbankenProperties;
 import org.example.external.dto.CalendarDayResponse;
 import org.example.external.dto.CrossRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.example.metrics.RateMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
@@ -29,15 +47,22 @@ class RiksbankenApiTest {
     private HttpClient httpClient;
 
     @Mock
-    private HttpResponse<String> httpResponse;
+    private HttpResponse<byte[]> byteResponse;
+
+    @Mock
+    private HttpResponse<InputStream> streamResponse;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private RiksbankenApi riksbankenApi;
 
     @BeforeEach
     void setUp() {
-        riksbankenApi = new RiksbankenApi(httpClient, objectMapper);
+        riksbankenApi = new RiksbankenApi(httpClient, objectMapper, new RiksbankenProperties(Duration.ofSeconds(5), REQUEST_TIMEOUT, 4, 64), new RateMetrics(meterRegistry));
     }
 
     @Test
@@ -46,8 +71,8 @@ class RiksbankenApiTest {
         LocalDate date = LocalDate.of(2024, 1, 1);
         String jsonResponse = "[{\"calendarDate\":\"2024-01-01\",\"swedishBankday\":false,\"weekYear\":2024,\"weekNumber\":1,\"quarterNumber\":1,\"ultimo\":false}]";
 
-        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(httpResponse);
-        when(httpResponse.body()).thenReturn(jsonResponse);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(streamResponse);
+        when(streamResponse.body()).thenReturn(body(jsonResponse));
 
         // When
         List<CalendarDayResponse> result = riksbankenApi.getCalendarDays(date);
@@ -59,6 +84,27 @@ class RiksbankenApiTest {
         assertFalse(result.getFirst().swedishBankday());
     }
 
+    @Test
+    void getCalendarDays_shouldReturnWholeRange_whenRangeRequested() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 2);
+        String jsonResponse = "[{\"calendarDate\":\"2024-01-01\",\"swedishBankday\":false,\"weekYear\":2024,\"weekNumber\":1,\"quarterNumber\":1,\"ultimo\":false},"
+                + "{\"calendarDate\":\"2024-01-02\",\"swedishBankday\":true,\"weekYear\":2024,\"weekNumber\":1,\"quarterNumber\":1,\"ultimo\":false}]";
+
+        when(httpClient.send(argThat(request -> request.uri().getPath().endsWith("/CalendarDays/2024-01-01/2024-01-02")), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                .thenReturn(streamResponse);
+        when(streamResponse.body()).thenReturn(body(jsonResponse));
+
+        // When
+        List<CalendarDayResponse> result = riksbankenApi.getCalendarDays(from, to);
+
+        // Then
+        assertEquals(2, result.size());
+        assertFalse(result.getFirst().swedishBankday());
+        assertTrue(result.get(1).swedishBankday());
+    }
+
     @Test
     void getCrossRates_shouldReturnListOfCrossRateResponse() throws Exception {
         // Given
@@ -67,8 +113,8 @@ class RiksbankenApiTest {
         LocalDate from = LocalDate.of(2024, 1, 1);
         String jsonResponse = "[{\"date\":\"2024-01-01\",\"value\":10.5}]";
 
-        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(httpResponse);
-        when(httpResponse.body()).thenReturn(jsonResponse);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(streamResponse);
+        when(streamResponse.body()).thenReturn(body(jsonResponse));
 
         // When
         List<CrossRateResponse> result = riksbankenApi.getCrossRates(seriesId1, seriesId2, from);
@@ -80,13 +126,174 @@ class RiksbankenApiTest {
         assertEquals(10.5, result.getFirst().value());
     }
 
+    @Test
+    void getObservations_shouldReturnListOfObservationResponse() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        String jsonResponse = "[{\"date\":\"2024-01-02\",\"value\":11.1}]";
+
+        when(httpClient.send(argThat(request -> request.uri().getPath().endsWith("/Observations/SEKEURPMI/2024-01-01")), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                .thenReturn(streamResponse);
+        when(streamResponse.body()).thenReturn(body(jsonResponse));
+
+        // When
+        List<ObservationResponse> result = riksbankenApi.getObservations("SEKEURPMI", from);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals("2024-01-02", result.getFirst().date());
+        assertEquals(11.1, result.getFirst().value());
+    }
+
+    @Test
+    void streamObservations_shouldPassEveryObservationToConsumer() throws Exception {
+        // Given
+        String jsonResponse = "[{\"date\":\"2024-01-02\",\"value\":11.1},{\"date\":\"2024-01-03\",\"value\":11.2}]";
+
+        when(httpClient.send(argThat(request -> request.uri().getPath().endsWith("/Observations/SEKEURPMI/2024-01-01/2024-12-31")), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                .thenReturn(streamResponse);
+        when(streamResponse.statusCode()).thenReturn(200);
+        when(streamResponse.body()).thenReturn(body(jsonResponse));
+        List<Integer> days = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+
+        // When
+        riksbankenApi.streamObservations("SEKEURPMI", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), (epochDay, value) -> {
+            days.add(epochDay);
+            values.add(value);
+        });
+
+        // Then
+        assertEquals(List.of((int) LocalDate.of(2024, 1, 2).toEpochDay(), (int) LocalDate.of(2024, 1, 3).toEpochDay()), days);
+        assertEquals(List.of(11.1, 11.2), values);
+    }
+
+    @Test
+    void streamObservations_shouldThrow_whenUpstreamRejectsRequest() throws Exception {
+        // Given
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(streamResponse);
+        when(streamResponse.statusCode()).thenReturn(429);
+        when(streamResponse.body()).thenReturn(body(""));
+
+        // When & Then
+        assertThrows(IOException.class, () ->
+                riksbankenApi.streamObservations("SEKEURPMI", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), (epochDay, value) -> {
+                }));
+    }
+
+    @Test
+    void getObservationsAsync_shouldCompleteWithObservations_andApplyRequestTimeout() {
+        // Given
+        String jsonResponse = "[{\"date\":\"2024-01-02\",\"value\":11.1}]";
+
+        when(httpClient.sendAsync(argThat(request -> request.uri().getPath().endsWith("/Observations/SEKEURPMI/2024-01-01")
+                && request.timeout().equals(Optional.of(REQUEST_TIMEOUT))), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteResponse));
+        when(byteResponse.body()).thenReturn(jsonResponse.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<ObservationResponse> result = riksbankenApi.getObservationsAsync("SEKEURPMI", LocalDate.of(2024, 1, 1)).join();
+
+        // Then
+        assertEquals(List.of(new ObservationResponse("2024-01-02", 11.1)), result);
+    }
+
+    @Test
+    void getCalendarDaysAsync_shouldCompleteWithCalendarDays() {
+        // Given
+        String jsonResponse = "[{\"calendarDate\":\"2024-01-02\",\"swedishBankday\":true,\"weekYear\":2024,\"weekNumber\":1,\"quarterNumber\":1,\"ultimo\":false}]";
+
+        when(httpClient.sendAsync(argThat(request -> request.uri().getPath().endsWith("/CalendarDays/2024-01-01/2024-01-02")), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteResponse));
+        when(byteResponse.body()).thenReturn(jsonResponse.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<CalendarDayResponse> result = riksbankenApi.getCalendarDaysAsync(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2)).join();
+
+        // Then
+        assertEquals(1, result.size());
+        assertTrue(result.getFirst().swedishBankday());
+    }
+
+    @Test
+    void getObservationsAsync_shouldCompleteExceptionally_whenBodyIsNotJson() {
+        // Given
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteResponse));
+        when(byteResponse.body()).thenReturn("<html>Service Unavailable</html>".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        CompletableFuture<List<ObservationResponse>> result = riksbankenApi.getObservationsAsync("SEKEURPMI", LocalDate.of(2024, 1, 1));
+        assertThrows(CompletionException.class, result::join);
+    }
+
+    @Test
+    void getObservationSeriesAsync_shouldDecodeDatesToEpochDays() {
+        // Given
+        String jsonResponse = "[{\"date\":\"2024-01-03\",\"value\":11.2},{\"date\":\"2024-01-02\",\"value\":11.1}]";
+
+        when(httpClient.sendAsync(argThat(request -> request.uri().getPath().endsWith("/Observations/SEKEURPMI/2024-01-01")), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteResponse));
+        when(byteResponse.body()).thenReturn(jsonResponse.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        ObservationSeries result = riksbankenApi.getObservationSeriesAsync("SEKEURPMI", LocalDate.of(2024, 1, 1)).join();
+
+        // Then
+        assertArrayEquals(new int[]{(int) LocalDate.of(2024, 1, 2).toEpochDay(), (int) LocalDate.of(2024, 1, 3).toEpochDay()}, result.epochDays());
+        assertArrayEquals(new double[]{11.1, 11.2}, result.values());
+        assertEquals(1, meterRegistry.get("riksbank.request").tag("series", "SEKEURPMI").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void getObservationSeriesAsync_shouldCompleteExceptionally_whenUpstreamRejectsRequest() {
+        // Given
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteResponse));
+        when(byteResponse.statusCode()).thenReturn(503);
+
+        // When & Then
+        CompletableFuture<ObservationSeries> result = riksbankenApi.getObservationSeriesAsync("SEKEURPMI", LocalDate.of(2024, 1, 1));
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(1, meterRegistry.get("riksbank.request").tag("series", "SEKEURPMI").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void getObservationsAsync_shouldCompleteExceptionally_whenUpstreamRejectsRequest() {
+        // Given
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteResponse));
+        when(byteResponse.statusCode()).thenReturn(429);
+
+        // When & Then
+        CompletableFuture<List<ObservationResponse>> result = riksbankenApi.getObservationsAsync("SEKEURPMI", LocalDate.of(2024, 1, 1));
+        assertThrows(CompletionException.class, result::join);
+    }
+
+    @Test
+    void getObservations_shouldThrow_whenUpstreamRejectsRequest() throws Exception {
+        // Given
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(streamResponse);
+        when(streamResponse.statusCode()).thenReturn(500);
+        when(streamResponse.body()).thenReturn(body("[]"));
+
+        // When & Then
+        assertThrows(IOException.class, () -> riksbankenApi.getObservations("SEKEURPMI", LocalDate.of(2024, 1, 1)));
+        assertEquals(1, meterRegistry.get("riksbank.request").tag("endpoint", "observations").tag("outcome", "error").timer().count());
+    }
+
     @Test
     void getCalendarDays_shouldThrowExceptionWhenHttpClientFails() throws Exception {
         // Given
         LocalDate date = LocalDate.of(2024, 1, 1);
-        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(new RuntimeException("API Error"));
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(new RuntimeException("API Error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> riksbankenApi.getCalendarDays(date));
+        assertEquals(1, meterRegistry.get("riksbank.request").tag("endpoint", "calendar_days").tag("outcome", "error").timer().count());
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
     }
 }
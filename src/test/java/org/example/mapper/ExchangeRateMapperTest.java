@@ -1,9 +1,10 @@
 package org.example.mapper;
 
 import java.time.LocalDate;
-import org.example.CurrencyEnum;
+import org.example.Currency;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.repository.entities.ExchangeRate;
+import org.example.repository.projections.StoredRate;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
@@ -19,8 +20,8 @@ class ExchangeRateMapperTest {
         // Given
         LocalDate now = LocalDate.now();
         ExchangeRate exchangeRate = new ExchangeRate();
-        exchangeRate.setCurrencyFrom(CurrencyEnum.USD);
-        exchangeRate.setCurrencyTo(CurrencyEnum.SEK);
+        exchangeRate.setCurrencyFrom(Currency.USD);
+        exchangeRate.setCurrencyTo(Currency.SEK);
         exchangeRate.setRate(10.5);
         exchangeRate.setLatestRateDate(now);
 
@@ -28,8 +29,24 @@ class ExchangeRateMapperTest {
         ExchangeRateResponse response = mapper.toDto(exchangeRate);
 
         // Then
-        assertEquals(CurrencyEnum.USD.name(), response.currencyFrom());
-        assertEquals(CurrencyEnum.SEK.name(), response.currencyTo());
+        assertEquals(Currency.USD.code(), response.currencyFrom());
+        assertEquals(Currency.SEK.code(), response.currencyTo());
+        assertEquals(10.5, response.rate());
+        assertEquals(now.toString(), response.latestRateDate());
+    }
+
+    @Test
+    void toDto_shouldMapStoredRateToExchangeRateResponse() {
+        // Given
+        LocalDate now = LocalDate.now();
+        StoredRate storedRate = new StoredRate(Currency.USD, Currency.SEK, 10.5, now);
+
+        // When
+        ExchangeRateResponse response = mapper.toDto(storedRate);
+
+        // Then
+        assertEquals(Currency.USD.code(), response.currencyFrom());
+        assertEquals(Currency.SEK.code(), response.currencyTo());
         assertEquals(10.5, response.rate());
         assertEquals(now.toString(), response.latestRateDate());
     }
@@ -37,7 +54,7 @@ class ExchangeRateMapperTest {
     @Test
     void toDto_shouldReturnNullWhenInputIsNull() {
         // When
-        ExchangeRateResponse response = mapper.toDto(null);
+        ExchangeRateResponse response = mapper.toDto((ExchangeRate) null);
 
         // Then
         assertNull(response);
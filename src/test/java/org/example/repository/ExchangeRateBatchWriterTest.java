@@ -0,0 +1,87 @@
+package org.example.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.example.Currency;
+import org.example.repository.entities.ExchangeRate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeRateBatchWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ExchangeRateBatchWriter batchWriter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE exchange_rate (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    currency_from VARCHAR(255) NOT NULL,
+                    currency_to VARCHAR(255) NOT NULL,
+                    latest_rate_date DATE NOT NULL,
+                    rate DOUBLE PRECISION NOT NULL,
+                    CONSTRAINT uk_exchange_rate_pair_date UNIQUE (currency_from, currency_to, latest_rate_date)
+                )""");
+        batchWriter = new ExchangeRateBatchWriter(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void upsert_shouldInsertNewRowsAndUpdateExistingOnes() {
+        // Given
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        batchWriter.upsert(List.of(new ExchangeRate(Currency.EUR, 11.2, date, Currency.SEK)));
+
+        // When
+        batchWriter.upsert(List.of(
+                new ExchangeRate(Currency.EUR, 11.3, date, Currency.SEK),
+                new ExchangeRate(Currency.USD, 10.4, date, Currency.SEK)));
+
+        // Then
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exchange_rate", Integer.class));
+        assertEquals(11.3, jdbcTemplate.queryForObject(
+                "SELECT rate FROM exchange_rate WHERE currency_from = 'EUR' AND currency_to = 'SEK'", Double.class));
+    }
+
+    @Test
+    void upsert_shouldWriteOnlyFirstCountColumnarRates_andStayIdempotent() {
+        // Given
+        int[] days = {(int) LocalDate.of(2024, 1, 15).toEpochDay(), (int) LocalDate.of(2024, 1, 16).toEpochDay(), 0};
+        double[] rates = {11.2, 11.3, 99.0};
+
+        // When
+        batchWriter.upsert(Currency.EUR, Currency.SEK, days, rates, 2);
+        batchWriter.upsert(Currency.EUR, Currency.SEK, days, rates, 2);
+
+        // Then
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exchange_rate", Integer.class));
+        assertEquals(LocalDate.of(2024, 1, 16), jdbcTemplate.queryForObject("SELECT MAX(latest_rate_date) FROM exchange_rate", LocalDate.class));
+    }
+
+    @Test
+    void upsertSql_shouldUseOnConflict_onPostgresql_andMergeElsewhere() {
+        // When & Then
+        assertTrue(ExchangeRateBatchWriter.upsertSql("PostgreSQL").startsWith("INSERT INTO exchange_rate"));
+        assertTrue(ExchangeRateBatchWriter.upsertSql("PostgreSQL").contains("ON CONFLICT (currency_from, currency_to, latest_rate_date) DO UPDATE"));
+        assertTrue(ExchangeRateBatchWriter.upsertSql("H2").startsWith("MERGE INTO exchange_rate"));
+    }
+}
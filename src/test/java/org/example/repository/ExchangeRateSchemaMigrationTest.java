@@ -0,0 +1,95 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeRateSchemaMigrationTest {
+
+    private static final String LEGACY_TABLE = """
+            CREATE TABLE exchange_rate (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                currency_from VARCHAR(255) NOT NULL,
+                currency_to VARCHAR(255) NOT NULL,
+                latest_rate_date DATE NOT NULL,
+                rate DOUBLE PRECISION NOT NULL
+            )""";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ExchangeRateSchemaMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        migration = new ExchangeRateSchemaMigration(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void migrate_shouldKeepNewestRowPerDay_andAddUniqueKey() {
+        // Given
+        jdbcTemplate.execute(LEGACY_TABLE);
+        jdbcTemplate.update("""
+                INSERT INTO exchange_rate (currency_from, currency_to, latest_rate_date, rate) VALUES
+                    ('EUR', 'SEK', DATE '2024-01-15', 11.1),
+                    ('EUR', 'SEK', DATE '2024-01-15', 11.2),
+                    ('EUR', 'SEK', DATE '2024-01-16', 11.3)""");
+        assertFalse(migration.hasUniqueKey());
+
+        // When
+        migration.migrate();
+
+        // Then
+        assertTrue(migration.hasUniqueKey());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exchange_rate", Integer.class));
+        assertEquals(11.2, jdbcTemplate.queryForObject(
+                "SELECT rate FROM exchange_rate WHERE latest_rate_date = DATE '2024-01-15'", Double.class));
+    }
+
+    @Test
+    void migrate_shouldDeleteRowsOfPairsNowTriangulated_andDropTheirIndex() {
+        // Given
+        jdbcTemplate.execute(LEGACY_TABLE);
+        jdbcTemplate.execute("CREATE INDEX idx_exchange_rate_latest ON exchange_rate (currency_from, currency_to, latest_rate_date DESC, rate)");
+        jdbcTemplate.update("""
+                INSERT INTO exchange_rate (currency_from, currency_to, latest_rate_date, rate) VALUES
+                    ('EUR', 'SEK', DATE '2024-01-15', 11.2),
+                    ('EUR', 'USD', DATE '2024-01-15', 1.08),
+                    ('SEK', 'EUR', DATE '2024-01-15', 0.089)""");
+
+        // When
+        migration.migrate();
+
+        // Then
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exchange_rate", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_EXCHANGE_RATE_LATEST'", Integer.class));
+    }
+
+    @Test
+    void migrate_shouldLeaveFreshDatabaseToHibernate() {
+        // When
+        migration.migrate();
+
+        // Then
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'EXCHANGE_RATE'", Integer.class));
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.repository;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FetchLeaseStoreTest {
+
+    private static final String LEASE = "riksbank-fetch";
+    private static final Duration DURATION = Duration.ofMinutes(2);
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private FetchLeaseStore leaseStore;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("""
+                CREATE TABLE fetch_lease (
+                    name VARCHAR(64) PRIMARY KEY,
+                    holder VARCHAR(128) NOT NULL,
+                    expires_at BIGINT NOT NULL
+                )""");
+        leaseStore = new FetchLeaseStore(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void tryAcquire_shouldGrantLeaseToOneNode_whileItIsHeld() {
+        // When
+        boolean first = leaseStore.tryAcquire(LEASE, "node-a", DURATION);
+        boolean second = leaseStore.tryAcquire(LEASE, "node-b", DURATION);
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals("node-a", jdbcTemplate.queryForObject("SELECT holder FROM fetch_lease WHERE name = ?", String.class, LEASE));
+    }
+
+    @Test
+    void tryAcquire_shouldExtendLease_whenHolderAcquiresAgain() {
+        // Given
+        leaseStore.tryAcquire(LEASE, "node-a", Duration.ofSeconds(1));
+        long firstExpiry = expiresAt();
+
+        // When
+        boolean renewed = leaseStore.tryAcquire(LEASE, "node-a", DURATION);
+
+        // Then
+        assertTrue(renewed);
+        assertTrue(expiresAt() >= firstExpiry + DURATION.minusSeconds(1).toMillis());
+        assertFalse(leaseStore.tryAcquire(LEASE, "node-b", DURATION));
+    }
+
+    @Test
+    void tryAcquire_shouldHandLeaseOver_onceItExpiresOnDatabaseClock() {
+        // Given
+        leaseStore.tryAcquire(LEASE, "node-a", Duration.ZERO);
+
+        // When
+        boolean takenOver = leaseStore.tryAcquire(LEASE, "node-b", DURATION);
+
+        // Then
+        assertTrue(takenOver);
+        assertFalse(leaseStore.tryAcquire(LEASE, "node-a", DURATION));
+    }
+
+    @Test
+    void tryAcquire_shouldComputeExpiry_fromDatabaseClock() {
+        // Given
+        long before = jdbcTemplate.queryForObject("SELECT CAST(EXTRACT(EPOCH FROM CURRENT_TIMESTAMP) * 1000 AS BIGINT)", Long.class);
+
+        // When
+        leaseStore.tryAcquire(LEASE, "node-a", DURATION);
+
+        // Then
+        long held = expiresAt() - before;
+        assertTrue(held >= DURATION.toMillis() && held < DURATION.plusSeconds(5).toMillis());
+    }
+
+    @Test
+    void release_shouldFreeLease_onlyForItsHolder() {
+        // Given
+        leaseStore.tryAcquire(LEASE, "node-a", DURATION);
+
+        // When
+        leaseStore.release(LEASE, "node-b");
+        boolean whileHeld = leaseStore.tryAcquire(LEASE, "node-b", DURATION);
+        leaseStore.release(LEASE, "node-a");
+        boolean afterRelease = leaseStore.tryAcquire(LEASE, "node-b", DURATION);
+
+        // Then
+        assertFalse(whileHeld);
+        assertTrue(afterRelease);
+    }
+
+    @Test
+    void remaining_shouldReportTimeLeft_onDatabaseClock_andZeroOnceExpired() {
+        // Given
+        leaseStore.tryAcquire(LEASE, "node-a", DURATION);
+
+        // When
+        Duration held = leaseStore.remaining(LEASE);
+        leaseStore.release(LEASE, "node-a");
+        Duration released = leaseStore.remaining(LEASE);
+
+        // Then
+        assertTrue(held.compareTo(DURATION.minusSeconds(5)) > 0 && held.compareTo(DURATION) <= 0);
+        assertEquals(Duration.ZERO, released);
+        assertEquals(Duration.ZERO, leaseStore.remaining("unknown"));
+    }
+
+    @Test
+    void acquireSql_shouldUseOnConflict_onPostgresql_andMergeElsewhere() {
+        // When & Then
+        assertTrue(FetchLeaseStore.acquireSql("PostgreSQL").contains("ON CONFLICT (name) DO UPDATE"));
+        assertTrue(FetchLeaseStore.acquireSql("H2").startsWith("MERGE INTO fetch_lease"));
+    }
+
+    private long expiresAt() {
+        return jdbcTemplate.queryForObject("SELECT expires_at FROM fetch_lease WHERE name = ?", Long.class, LEASE);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.example.Currency;
+import org.example.repository.entities.ExchangeRate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the JPA and JDBC queries of the rate path on virtual threads and fails if any of them parks while pinned
+ * to its carrier, which would cap virtual-thread mode at the number of carriers. The database is a file, as the
+ * application runs it, so the queries go through H2's file store and its locks rather than memory alone.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:file:./target/pinning-test/currencydb;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "currency.prefetch.enabled=false"
+})
+class VirtualThreadPinningTest {
+
+    private static final int CONCURRENT_CALLS = 64;
+
+    @Autowired
+    private CurrencyExchangeRepository repository;
+
+    @Autowired
+    private ExchangeRateBatchWriter batchWriter;
+
+    @Test
+    void ratePathQueries_shouldNotPinCarrierThreads() throws Exception {
+        // Given
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        batchWriter.upsert(List.of(new ExchangeRate(Currency.USD, 10.4, date, Currency.SEK)));
+        List<String> pinned = new CopyOnWriteArrayList<>();
+
+        // When
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.add(describe(event)));
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> calls = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_CALLS; i++) {
+                    LocalDate day = date.plusDays(i % 7);
+                    calls.add(executor.submit(() -> {
+                        assertFalse(repository.findByCurrencyFromAndCurrencyToAndLatestRateDateAfterOrderByLatestRateDate(Currency.USD, Currency.SEK, date.minusDays(1)).isEmpty());
+                        repository.findLatestRateDates();
+                        batchWriter.upsert(List.of(new ExchangeRate(Currency.USD, 10.4, day, Currency.SEK)));
+                    }));
+                }
+                for (Future<?> call : calls) {
+                    call.get();
+                }
+            }
+            recording.stop();
+        }
+
+        // Then
+        assertTrue(pinned.isEmpty(), () -> "Virtual threads were pinned:\n" + String.join("\n\n", pinned));
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder description = new StringBuilder("pinned for ").append(event.getDuration());
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                description.append("\n  at ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName());
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.CalendarDayResponse;
+import org.example.repository.BankCalendarRepository;
+import org.example.repository.entities.BankCalendarYear;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BankCalendarTest {
+
+    @Mock
+    private RiksbankenApi riksbankenApi;
+
+    @Mock
+    private BankCalendarRepository repository;
+
+    private BankCalendar bankCalendar;
+
+    @BeforeEach
+    void setUp() {
+        bankCalendar = new BankCalendar(riksbankenApi, repository);
+    }
+
+    @Test
+    void day_shouldLoadWholeYearOnce_andPersistIt() throws Exception {
+        // Given
+        when(repository.findById(2024)).thenReturn(Optional.empty());
+        when(riksbankenApi.getCalendarDays(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                .thenReturn(weekdaysAreBankDays(2024));
+
+        // When
+        BankCalendar.Day monday = bankCalendar.day(LocalDate.of(2024, 1, 15));
+        BankCalendar.Day saturday = bankCalendar.day(LocalDate.of(2024, 1, 13));
+        BankCalendar.Day leapDay = bankCalendar.day(LocalDate.of(2024, 2, 29));
+
+        // Then
+        assertEquals(BankCalendar.Day.BANK_DAY, monday);
+        assertEquals(BankCalendar.Day.NON_BANK_DAY, saturday);
+        assertEquals(BankCalendar.Day.BANK_DAY, leapDay);
+        verify(riksbankenApi, times(1)).getCalendarDays(any(LocalDate.class), any(LocalDate.class));
+        verify(repository).save(any(BankCalendarYear.class));
+    }
+
+    @Test
+    void day_shouldUsePersistedYear_withoutCallingApi() throws Exception {
+        // Given
+        BitSet bankDays = new BitSet();
+        bankDays.set(LocalDate.of(2024, 1, 15).getDayOfYear() - 1);
+        when(repository.findById(2024)).thenReturn(Optional.of(new BankCalendarYear(2024, bankDays.toByteArray())));
+
+        // When
+        BankCalendar.Day result = bankCalendar.day(LocalDate.of(2024, 1, 15));
+
+        // Then
+        assertEquals(BankCalendar.Day.BANK_DAY, result);
+        assertEquals(BankCalendar.Day.NON_BANK_DAY, bankCalendar.day(LocalDate.of(2024, 1, 16)));
+        verify(riksbankenApi, never()).getCalendarDays(any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void day_shouldBeUnknown_andBackOff_whenApiFails() throws Exception {
+        // Given
+        when(repository.findById(2024)).thenReturn(Optional.empty());
+        when(riksbankenApi.getCalendarDays(any(LocalDate.class), any(LocalDate.class)))
+                .thenThrow(new RuntimeException("API error"));
+
+        // When
+        BankCalendar.Day first = bankCalendar.day(LocalDate.of(2024, 1, 15));
+        boolean second = bankCalendar.mayBeBankDay(LocalDate.of(2024, 1, 16));
+
+        // Then
+        assertEquals(BankCalendar.Day.UNKNOWN, first);
+        assertTrue(second);
+        verify(riksbankenApi, times(1)).getCalendarDays(any(LocalDate.class), any(LocalDate.class));
+        verify(repository, never()).save(any(BankCalendarYear.class));
+    }
+
+    private static List<CalendarDayResponse> weekdaysAreBankDays(int year) {
+        List<CalendarDayResponse> days = new ArrayList<>();
+        LocalDate date = LocalDate.of(year, 1, 1);
+        for (int i = 0; i < Year.of(year).length(); i++, date = date.plusDays(1)) {
+            boolean weekday = date.getDayOfWeek().getValue() <= 5;
+            days.add(new CalendarDayResponse(date.toString(), weekday, year, 1, 1, false));
+        }
+        return days;
+    }
+}
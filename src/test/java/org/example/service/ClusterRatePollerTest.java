@@ -0,0 +1,107 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.mapper.ExchangeRateMapper;
+import org.example.metrics.RateMetrics;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.projections.LatestRateDate;
+import org.example.repository.projections.StoredRate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterRatePollerTest {
+
+    @Mock
+    private CurrencyExchangeRepository repository;
+
+    @Mock
+    private ExchangeRateMapper mapper;
+
+    @Mock
+    private RateHistory rateHistory;
+
+    @Mock
+    private CurrencyExchangeServiceImpl currencyExchangeService;
+
+    @Spy
+    private RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private ClusterRatePoller poller;
+
+    private ZonedDateTime stockholmTime;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        stockholmTime = ZonedDateTime.of(2024, 1, 15, 16, 20, 0, 0, ZoneId.of(CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM));
+        today = stockholmTime.toLocalDate();
+    }
+
+    @Test
+    void poll_shouldLoadMovedSeries_andPublishEveryPairTriangulatedFromIt() {
+        // Given
+        StoredRate eurSek = new StoredRate(Currency.EUR, Currency.SEK, 11.2, today);
+        StoredRate usdEur = new StoredRate(Currency.USD, Currency.EUR, 0.92, today);
+        ExchangeRateResponse eurSekResponse = new ExchangeRateResponse("EUR", "SEK", 11.2, today.toString(), false);
+        ExchangeRateResponse usdEurResponse = new ExchangeRateResponse("USD", "EUR", 0.92, today.toString(), false);
+        when(repository.findLatestRateDates())
+                .thenReturn(List.of(new LatestRateDate(Currency.EUR, Currency.SEK, today)));
+        when(rateHistory.latest(any(), any())).thenReturn(null);
+        when(rateHistory.latest(Currency.EUR, Currency.SEK)).thenReturn(eurSek);
+        when(rateHistory.latest(Currency.USD, Currency.EUR)).thenReturn(usdEur);
+        when(mapper.toDto(eurSek)).thenReturn(eurSekResponse);
+        when(mapper.toDto(usdEur)).thenReturn(usdEurResponse);
+
+        // When
+        poller.poll(stockholmTime);
+
+        // Then
+        verify(rateHistory).loadNewer(Currency.EUR);
+        verify(currencyExchangeService).publishStoredRates(Map.of(
+                new CurrencyPair(Currency.EUR, Currency.SEK), eurSekResponse,
+                new CurrencyPair(Currency.USD, Currency.EUR), usdEurResponse), stockholmTime);
+    }
+
+    @Test
+    void poll_shouldOnlyActOnSeriesWhoseDateMoved() {
+        // Given
+        when(repository.findLatestRateDates())
+                .thenReturn(List.of(new LatestRateDate(Currency.USD, Currency.SEK, today.minusDays(3)),
+                        new LatestRateDate(Currency.USD, Currency.EUR, today)))
+                .thenReturn(List.of(new LatestRateDate(Currency.USD, Currency.SEK, today.minusDays(3))))
+                .thenReturn(List.of(new LatestRateDate(Currency.USD, Currency.SEK, today)));
+
+        // When
+        poller.poll(stockholmTime);
+        poller.poll(stockholmTime);
+        poller.poll(stockholmTime);
+
+        // Then
+        verify(rateHistory, times(2)).loadNewer(Currency.USD);
+        verify(rateHistory, never()).loadNewer(Currency.EUR);
+        verify(repository, times(3)).findLatestRateDates();
+        verifyNoMoreInteractions(repository);
+    }
+}
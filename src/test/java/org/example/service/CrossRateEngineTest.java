@@ -0,0 +1,154 @@
+package org.example.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.example.Currency;
+import org.example.external.CircuitBreaker;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.ObservationResponse;
+import org.example.external.dto.ObservationSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CrossRateEngineTest {
+
+    @Mock
+    private RiksbankenApi riksbankenApi;
+
+    @Mock
+    private RateHistory rateHistory;
+
+    @Spy
+    private CircuitBreaker circuitBreaker = new CircuitBreaker(5, Duration.ofSeconds(30));
+
+    @InjectMocks
+    private CrossRateEngine crossRateEngine;
+
+    private final LocalDate from = LocalDate.of(2024, 1, 8);
+
+    @Test
+    void fetchRates_shouldFetchOneSeriesPerNonBaseCurrency() {
+        // Given
+        ObservationSeries eur = series("2024-01-15", 11.2);
+        when(riksbankenApi.getObservationSeriesAsync(Currency.EUR.seriesId(), from))
+                .thenReturn(CompletableFuture.completedFuture(eur));
+        when(riksbankenApi.getObservationSeriesAsync(Currency.USD.seriesId(), from))
+                .thenReturn(CompletableFuture.completedFuture(series("2024-01-15", 10.4)));
+
+        // When
+        RateMatrix rates = crossRateEngine.fetchRates(from);
+
+        // Then
+        assertEquals(11.2 / 10.4, rates.rate(Currency.EUR, Currency.USD));
+        verify(riksbankenApi, times(Currency.count() - 1)).getObservationSeriesAsync(anyString(), any(LocalDate.class));
+        verify(riksbankenApi, never()).getObservationSeriesAsync(Currency.SEK.seriesId(), from);
+        verify(rateHistory).record(Currency.EUR, eur);
+    }
+
+    @Test
+    void fetchRates_shouldKeepOtherPairs_whenOneSeriesFails() {
+        // Given
+        when(riksbankenApi.getObservationSeriesAsync(Currency.EUR.seriesId(), from))
+                .thenReturn(CompletableFuture.completedFuture(series("2024-01-15", 11.2)));
+        when(riksbankenApi.getObservationSeriesAsync(Currency.USD.seriesId(), from))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("API error")));
+
+        // When
+        RateMatrix rates = crossRateEngine.fetchRates(from);
+
+        // Then
+        assertTrue(rates.contains(Currency.EUR, Currency.SEK));
+        assertFalse(rates.contains(Currency.EUR, Currency.USD));
+        verify(rateHistory, never()).record(eq(Currency.USD), any(ObservationSeries.class));
+        verify(circuitBreaker).recordFailure();
+    }
+
+    @Test
+    void fetchRates_shouldServeFetchedRates_whenStoringThemFails() {
+        // Given
+        ObservationSeries eur = series("2024-01-15", 11.2);
+        when(riksbankenApi.getObservationSeriesAsync(Currency.EUR.seriesId(), from))
+                .thenReturn(CompletableFuture.completedFuture(eur));
+        when(riksbankenApi.getObservationSeriesAsync(Currency.USD.seriesId(), from))
+                .thenReturn(CompletableFuture.completedFuture(series("2024-01-15", 10.4)));
+        doThrow(new DataAccessResourceFailureException("database down")).when(rateHistory).record(Currency.EUR, eur);
+
+        // When
+        RateMatrix rates = crossRateEngine.fetchRates(from);
+
+        // Then
+        assertEquals(11.2 / 10.4, rates.rate(Currency.EUR, Currency.USD));
+        verify(circuitBreaker, never()).recordFailure();
+    }
+
+    @Test
+    void fetchRates_shouldSkipUpstream_whenCircuitIsOpen() {
+        // Given
+        doReturn(false).when(circuitBreaker).allowRequest();
+
+        // When
+        RateMatrix rates = crossRateEngine.fetchRates(from);
+
+        // Then
+        assertFalse(rates.contains(Currency.EUR, Currency.SEK));
+        verifyNoInteractions(riksbankenApi, rateHistory);
+    }
+
+    @Test
+    void fetchRatesAsync_shouldSkipFailedSeries_withoutRecordingHistory() {
+        // Given
+        when(riksbankenApi.getObservationSeriesAsync(Currency.EUR.seriesId(), from))
+                .thenReturn(CompletableFuture.completedFuture(series("2024-01-15", 11.2)));
+        when(riksbankenApi.getObservationSeriesAsync(Currency.USD.seriesId(), from))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("API error")));
+
+        // When
+        RateMatrix rates = crossRateEngine.fetchRatesAsync(from).join();
+
+        // Then
+        assertTrue(rates.contains(Currency.EUR, Currency.SEK));
+        assertFalse(rates.contains(Currency.EUR, Currency.USD));
+        verify(circuitBreaker).recordFailure();
+        verifyNoInteractions(rateHistory);
+    }
+
+    @Test
+    void fetchSeries_shouldRecordObservationsInHistory() throws Exception {
+        // Given
+        List<ObservationResponse> observations = List.of(new ObservationResponse("2024-01-15", 11.2));
+        when(riksbankenApi.getObservations(Currency.EUR.seriesId(), from)).thenReturn(observations);
+
+        // When
+        List<ObservationResponse> result = crossRateEngine.fetchSeries(Currency.EUR, from);
+
+        // Then
+        assertEquals(observations, result);
+        verify(rateHistory).record(Currency.EUR, observations);
+    }
+
+    private static ObservationSeries series(String date, double value) {
+        return ObservationSeries.of(List.of(new ObservationResponse(date, value)));
+    }
+}
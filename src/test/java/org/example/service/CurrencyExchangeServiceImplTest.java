@@ -1,27 +1,41 @@
 package org.example.service;
 
-import org.example.CurrencyEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.cache.ExchangeRateCache;
+import org.example.config.ClusterProperties;
+import org.example.config.MoneyProperties;
+import org.example.controller.dto.requests.ExchangeRequest;
 import org.example.controller.dto.responses.ExchangeRateResponse;
 import org.example.controller.dto.responses.ExchangeResponse;
-import org.example.external.RiksbankenApi;
-import org.example.external.dto.CalendarDayResponse;
-import org.example.external.dto.CrossRateResponse;
+import org.example.external.CircuitBreaker;
+import org.example.external.dto.ObservationResponse;
 import org.example.mapper.ExchangeRateMapper;
-import org.example.repository.CurrencyExchangeRepository;
-import org.example.repository.entities.ExchangeRate;
+import org.example.metrics.RateMetrics;
+import org.example.repository.FetchLeaseStore;
+import org.example.repository.projections.StoredRate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,34 +45,66 @@ class CurrencyExchangeServiceImplTest {
     private ExchangeRateMapper mapper;
 
     @Mock
-    private CurrencyExchangeRepository repository;
+    private CrossRateEngine crossRateEngine;
 
     @Mock
-    private RiksbankenApi riksbankenApi;
+    private BankCalendar bankCalendar;
+
+    @Mock
+    private RateHistory rateHistory;
+
+    @Spy
+    private ExchangeRateCache rateCache = new ExchangeRateCache();
+
+    @Spy
+    private Executor upstreamExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private Executor revalidationExecutor = new SyncTaskExecutor();
+
+    @Mock
+    private CircuitBreaker circuitBreaker;
+
+    @Mock
+    private RateUpdates rateUpdates;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RateMetrics metrics = new RateMetrics(meterRegistry);
+
+    @Spy
+    private MoneyConverter moneyConverter = new MoneyConverter(new MoneyProperties(2, RoundingMode.HALF_EVEN, Map.of(), Map.of()));
+
+    @Spy
+    private FetchLeadership fetchLeadership = new FetchLeadership(mock(FetchLeaseStore.class),
+            new ClusterProperties(false, null, Duration.ofMinutes(2), Duration.ofSeconds(10)));
 
-    @InjectMocks
     private CurrencyExchangeServiceImpl service;
 
-    private CurrencyEnum currencyFrom;
-    private CurrencyEnum currencyTo;
+    private Currency currencyFrom;
+    private Currency currencyTo;
     private LocalDate today;
-    private ExchangeRate mockExchangeRate;
+    private StoredRate mockExchangeRate;
     private ExchangeRateResponse mockExchangeRateResponse;
 
     @BeforeEach
     void setUp() {
-        currencyFrom = CurrencyEnum.USD;
-        currencyTo = CurrencyEnum.EUR;
+        // Built by hand: constructor injection cannot tell the two executors apart
+        service = new CurrencyExchangeServiceImpl(mapper, crossRateEngine, rateCache, bankCalendar, rateHistory, upstreamExecutor,
+                revalidationExecutor, circuitBreaker, metrics, rateUpdates, moneyConverter, fetchLeadership);
+        currencyFrom = Currency.USD;
+        currencyTo = Currency.EUR;
         today = LocalDate.now();
 
-        mockExchangeRate = new ExchangeRate(currencyFrom, 0.85, today, currencyTo);
-        mockExchangeRateResponse = new ExchangeRateResponse(CurrencyEnum.USD.name(), CurrencyEnum.EUR.name(), 0.85, today.toString());
+        mockExchangeRate = new StoredRate(currencyFrom, currencyTo, 0.85, today);
+        mockExchangeRateResponse = new ExchangeRateResponse(Currency.USD.code(), Currency.EUR.code(), 0.85, today.toString(), false);
     }
 
     @Test
     void getLatestExchangeRate_shouldReturnFromDatabase_whenTodayRateExists() {
         // Given
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(mockExchangeRate);
         when(mapper.toDto(mockExchangeRate)).thenReturn(mockExchangeRateResponse);
 
@@ -67,117 +113,155 @@ class CurrencyExchangeServiceImplTest {
 
         // Then
         assertNotNull(result);
-        assertEquals(CurrencyEnum.USD.name(), result.currencyFrom());
-        assertEquals(CurrencyEnum.EUR.name(), result.currencyTo());
+        assertEquals(Currency.USD.code(), result.currencyFrom());
+        assertEquals(Currency.EUR.code(), result.currencyTo());
         assertEquals(0.85, result.rate());
-        verify(repository).findLatestExchangeRateByCurrencies(currencyFrom, currencyTo);
+        verify(rateHistory).latest(currencyFrom, currencyTo);
         verify(mapper).toDto(mockExchangeRate);
-        verifyNoInteractions(riksbankenApi);
+        verifyNoInteractions(crossRateEngine);
     }
 
     @Test
-    void getLatestExchangeRate_shouldFetchFromApi_whenTodayIsBankDayAndAfterCutoff() throws Exception {
+    void getLatestExchangeRate_shouldServeFromCache_whenRateAlreadyResolved() {
         // Given
-        ExchangeRate oldRate = new ExchangeRate(currencyFrom, 0.84, today.minusDays(1), currencyTo);
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
-                .thenReturn(oldRate);
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(mockExchangeRate);
+        when(mapper.toDto(mockExchangeRate)).thenReturn(mockExchangeRateResponse);
+
+        // When
+        ExchangeRateResponse first = service.getLatestExchangeRate(currencyFrom, currencyTo);
+        ExchangeRateResponse second = service.getLatestExchangeRate(currencyFrom, currencyTo);
+
+        // Then
+        assertSame(first, second);
+        verify(rateHistory, times(1)).latest(currencyFrom, currencyTo);
+        verifyNoInteractions(crossRateEngine);
+        assertEquals(1, meterRegistry.get("currency.rate.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("currency.rate.cache").tag("result", "miss").counter().count());
+        assertEquals(1, resolutions("cache"));
+        assertEquals(1, resolutions("history_today"));
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldNotCache_whenNoRateAvailable() {
+        // Given
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(null);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(RateMatrix.empty());
+
+        // When
+        service.getLatestExchangeRate(currencyFrom, currencyTo);
+        service.getLatestExchangeRate(currencyFrom, currencyTo);
+
+        // Then
+        verify(rateHistory, times(2)).latest(currencyFrom, currencyTo);
+        verify(crossRateEngine, times(2)).fetchRates(any(LocalDate.class));
+        assertNull(rateCache.get(currencyFrom, currencyTo, Instant.now()));
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldCacheEveryPair_fromOneUpstreamFetch() {
+        // Given
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(null);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(matrix(today.minusDays(2), 6.8, 8.0));
+
+        // When
+        service.getLatestExchangeRate(currencyFrom, currencyTo);
+        ExchangeRateResponse inverse = service.getLatestExchangeRate(currencyTo, currencyFrom);
 
-        CalendarDayResponse bankDay = new CalendarDayResponse(today.toString(), true, 2024, 1, 1, false);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenReturn(List.of(bankDay));
+        // Then
+        assertNotNull(inverse);
+        assertEquals(8.0 / 6.8, inverse.rate());
+        verify(crossRateEngine, times(1)).fetchRates(any(LocalDate.class));
+        verify(rateHistory, never()).latest(currencyTo, currencyFrom);
+        verify(rateUpdates).publish(argThat(rates -> rates.containsKey(new CurrencyPair(currencyTo, currencyFrom))));
+        assertEquals(1, meterRegistry.get("currency.upstream.fetch").tag("result", "executed").functionCounter().count());
+        assertEquals(0, meterRegistry.get("currency.upstream.fetch").tag("result", "deduplicated").functionCounter().count());
+    }
 
-        CrossRateResponse crossRate = new CrossRateResponse(today.toString(), 0.86);
-        when(riksbankenApi.getCrossRates(
-                eq(currencyFrom.getCurrencyCode()),
-                eq(currencyTo.getCurrencyCode()),
-                any(LocalDate.class)))
-                .thenReturn(List.of(crossRate));
+    @Test
+    void getLatestExchangeRate_shouldFetchFromApi_whenTodayIsBankDayAndAfterCutoff() {
+        // Given
+        StoredRate oldRate = new StoredRate(currencyFrom, currencyTo, 0.84, today.minusDays(1));
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(oldRate);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(true);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(matrix(today, 6.88, 8.0));
 
         // When
         ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
 
         // Then
         assertNotNull(result);
-        assertEquals(CurrencyEnum.USD.name(), result.currencyFrom());
-        assertEquals(CurrencyEnum.EUR.name(), result.currencyTo());
+        assertEquals(Currency.USD.code(), result.currencyFrom());
+        assertEquals(Currency.EUR.code(), result.currencyTo());
         assertEquals(0.86, result.rate());
         assertEquals(today.toString(), result.latestRateDate());
-        verify(repository).save(any(ExchangeRate.class));
+        verify(upstreamExecutor).execute(any(Runnable.class));
     }
 
     @Test
-    void getLatestExchangeRate_shouldFetchFromPastWeek_whenTodayIsNotBankDay() throws Exception {
+    void getLatestExchangeRate_shouldFetchFromPastWeek_whenTodayIsNotBankDay() {
         // Given
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(null);
-
-        CalendarDayResponse nonBankDay = new CalendarDayResponse(today.toString(), false, 2024, 1, 1, false);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenReturn(List.of(nonBankDay));
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
 
         LocalDate lastWeek = today.minusDays(2);
-        CrossRateResponse crossRate = new CrossRateResponse(lastWeek.toString(), 0.85);
-        when(riksbankenApi.getCrossRates(
-                eq(currencyFrom.getCurrencyCode()),
-                eq(currencyTo.getCurrencyCode()),
-                any(LocalDate.class)))
-                .thenReturn(List.of(crossRate));
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(matrix(lastWeek, 6.8, 8.0));
 
         // When
         ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
 
         // Then
         assertNotNull(result);
-        assertEquals(CurrencyEnum.USD.name(), result.currencyFrom());
-        assertEquals(CurrencyEnum.EUR.name(), result.currencyTo());
+        assertEquals(Currency.USD.code(), result.currencyFrom());
+        assertEquals(Currency.EUR.code(), result.currencyTo());
         assertEquals(0.85, result.rate());
-        verify(repository).save(any(ExchangeRate.class));
+        assertNotNull(rateCache.get(currencyTo, currencyFrom, Instant.now()));
     }
 
     @Test
-    void getLatestExchangeRate_shouldReturnNull_whenNoRateAvailable() throws Exception {
+    void getLatestExchangeRate_shouldReturnNull_whenNoRateAvailable() {
         // Given
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(null);
-
-        CalendarDayResponse nonBankDay = new CalendarDayResponse(today.toString(), false, 2024, 1, 1, false);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenReturn(List.of(nonBankDay));
-
-        when(riksbankenApi.getCrossRates(
-                eq(currencyFrom.getCurrencyCode()),
-                eq(currencyTo.getCurrencyCode()),
-                any(LocalDate.class)))
-                .thenReturn(Collections.emptyList());
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(RateMatrix.empty());
 
         // When
         ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
 
         // Then
         assertNull(result);
-        verify(repository, never()).save(any(ExchangeRate.class));
     }
 
     @Test
-    void getLatestExchangeRate_shouldReturnDbRate_whenApiReturnsOlderRate() throws Exception {
+    void getLatestExchangeRate_shouldReturnDbRate_whenApiReturnsOlderRate() {
         // Given
         LocalDate oldDate = today.minusDays(5);
-        ExchangeRate dbRate = new ExchangeRate(currencyFrom, 0.85, today.minusDays(2), currencyTo);
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        StoredRate dbRate = new StoredRate(currencyFrom, currencyTo, 0.85, today.minusDays(2));
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(dbRate);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(matrix(oldDate, 6.72, 8.0));
 
-        CalendarDayResponse nonBankDay = new CalendarDayResponse(today.toString(), false, 2024, 1, 1, false);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenReturn(List.of(nonBankDay));
-
-        CrossRateResponse olderCrossRate = new CrossRateResponse(oldDate.toString(), 0.84);
-        when(riksbankenApi.getCrossRates(
-                eq(currencyFrom.getCurrencyCode()),
-                eq(currencyTo.getCurrencyCode()),
-                any(LocalDate.class)))
-                .thenReturn(List.of(olderCrossRate));
-
-        when(mapper.toDto(dbRate)).thenReturn(new ExchangeRateResponse(CurrencyEnum.USD.name(), CurrencyEnum.EUR.name(), 0.85, dbRate.getLatestRateDate().toString()));
+        when(mapper.toDto(dbRate)).thenReturn(new ExchangeRateResponse(Currency.USD.code(), Currency.EUR.code(), 0.85, dbRate.latestRateDate().toString(), false));
 
         // When
         ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
@@ -186,17 +270,38 @@ class CurrencyExchangeServiceImplTest {
         assertNotNull(result);
         assertEquals(0.85, result.rate());
         verify(mapper).toDto(dbRate);
-        verify(repository, never()).save(any(ExchangeRate.class));
     }
 
     @Test
-    void getLatestExchangeRate_shouldHandleApiException_whenCalendarDaysFails() throws Exception {
+    void getLatestExchangeRate_shouldServeStoredRate_whenAnotherInstanceFetches() {
+        // Given
+        StoredRate storedRate = new StoredRate(currencyFrom, currencyTo, 0.84, today.minusDays(2));
+        ExchangeRateResponse storedResponse = new ExchangeRateResponse(Currency.USD.code(), Currency.EUR.code(), 0.84, today.minusDays(2).toString(), false);
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(storedRate);
+        when(mapper.toDto(storedRate)).thenReturn(storedResponse);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        doReturn(false).when(fetchLeadership).tryLead();
+
+        // When
+        ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
+
+        // Then
+        assertEquals(0.84, result.rate());
+        verifyNoInteractions(crossRateEngine);
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldFallBackToDatabase_whenBankDayStatusUnavailable() {
         // Given
-        ExchangeRate oldRate = new ExchangeRate(currencyFrom, 0.85, today.minusDays(1), currencyTo);
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        StoredRate oldRate = new StoredRate(currencyFrom, currencyTo, 0.85, today.minusDays(1));
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(oldRate);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenThrow(new RuntimeException("API error"));
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(RateMatrix.empty());
         when(mapper.toDto(oldRate)).thenReturn(mockExchangeRateResponse);
 
         // When
@@ -209,69 +314,122 @@ class CurrencyExchangeServiceImplTest {
     }
 
     @Test
-    void getLatestExchangeRate_shouldHandleApiException_whenCrossRatesFails() throws Exception {
+    void getLatestExchangeRate_shouldSelectLatestRate_whenMultipleRatesFromPastWeek() {
         // Given
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(null);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
 
-        CalendarDayResponse nonBankDay = new CalendarDayResponse(today.toString(), false, 2024, 1, 1, false);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenReturn(List.of(nonBankDay));
+        LocalDate date1 = today.minusDays(5);
+        LocalDate date2 = today.minusDays(2);
+        LocalDate date3 = today.minusDays(7);
 
-        when(riksbankenApi.getCrossRates(
-                eq(currencyFrom.getCurrencyCode()),
-                eq(currencyTo.getCurrencyCode()),
-                any(LocalDate.class)))
-                .thenThrow(new RuntimeException("API error"));
+        RateMatrix rates = RateMatrix.fromObservations(Map.of(
+                Currency.USD, List.of(
+                        new ObservationResponse(date1.toString(), 6.64),
+                        new ObservationResponse(date2.toString(), 6.8),
+                        new ObservationResponse(date3.toString(), 6.56)),
+                Currency.EUR, List.of(
+                        new ObservationResponse(date1.toString(), 8.0),
+                        new ObservationResponse(date2.toString(), 8.0),
+                        new ObservationResponse(date3.toString(), 8.0))
+        ));
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(rates);
 
         // When
         ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
 
         // Then
-        assertNull(result);
+        assertNotNull(result);
+        assertEquals(0.85, result.rate());
+        assertEquals(date2.toString(), result.latestRateDate());
+        assertEquals(1, resolutions("upstream_past_week"));
     }
 
     @Test
-    void getLatestExchangeRate_shouldSelectLatestRate_whenMultipleRatesFromPastWeek() throws Exception {
+    void getLatestExchangeRate_shouldServeStaleDbRate_whenCircuitIsOpen() {
         // Given
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
-                .thenReturn(null);
+        StoredRate oldRate = new StoredRate(currencyFrom, currencyTo, 0.85, today.minusDays(1));
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(oldRate);
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(RateMatrix.empty());
+        when(mapper.toDto(oldRate)).thenReturn(mockExchangeRateResponse);
 
-        CalendarDayResponse nonBankDay = new CalendarDayResponse(today.toString(), false, 2024, 1, 1, false);
-        when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                .thenReturn(List.of(nonBankDay));
+        // When
+        ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
 
-        LocalDate date1 = today.minusDays(5);
-        LocalDate date2 = today.minusDays(2);
-        LocalDate date3 = today.minusDays(7);
+        // Then
+        assertTrue(result.stale());
+        assertEquals(0.85, result.rate());
+        assertEquals(1, resolutions("stale"));
+        verify(crossRateEngine).fetchRates(today.minusDays(7));
+        assertNull(rateCache.get(currencyFrom, currencyTo, Instant.now()));
+    }
 
-        List<CrossRateResponse> rates = List.of(
-                new CrossRateResponse(date1.toString(), 0.83),
-                new CrossRateResponse(date2.toString(), 0.85),
-                new CrossRateResponse(date3.toString(), 0.82)
-        );
+    @Test
+    void getLatestExchangeRate_shouldRevalidateOnce_whileStaleRatesAreServed() {
+        // Given
+        StoredRate oldRate = new StoredRate(currencyFrom, currencyTo, 0.85, today.minusDays(1));
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(oldRate);
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        when(mapper.toDto(oldRate)).thenReturn(mockExchangeRateResponse);
+        doNothing().when(revalidationExecutor).execute(any(Runnable.class));
 
-        when(riksbankenApi.getCrossRates(
-                eq(currencyFrom.getCurrencyCode()),
-                eq(currencyTo.getCurrencyCode()),
-                any(LocalDate.class)))
-                .thenReturn(rates);
+        // When
+        service.getLatestExchangeRate(currencyFrom, currencyTo);
+        service.getLatestExchangeRate(currencyFrom, currencyTo);
+
+        // Then
+        verify(revalidationExecutor, times(1)).execute(any(Runnable.class));
+        verifyNoInteractions(upstreamExecutor);
+        verifyNoInteractions(crossRateEngine);
+    }
+
+    @Test
+    void getLatestExchangeRate_shouldDropRevalidation_whenItsExecutorIsBusy() {
+        // Given
+        StoredRate oldRate = new StoredRate(currencyFrom, currencyTo, 0.85, today.minusDays(1));
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(oldRate);
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        when(mapper.toDto(oldRate)).thenReturn(mockExchangeRateResponse);
+        doThrow(new RejectedExecutionException()).when(revalidationExecutor).execute(any(Runnable.class));
 
         // When
-        ExchangeRateResponse result = service.getLatestExchangeRate(currencyFrom, currencyTo);
+        ExchangeRateResponse first = service.getLatestExchangeRate(currencyFrom, currencyTo);
+        service.getLatestExchangeRate(currencyFrom, currencyTo);
 
         // Then
-        assertNotNull(result);
-        assertEquals(0.85, result.rate());
-        assertEquals(date2.toString(), result.latestRateDate());
-        verify(repository).save(any(ExchangeRate.class));
+        assertTrue(first.stale());
+        verify(revalidationExecutor, times(2)).execute(any(Runnable.class));
+        verifyNoInteractions(crossRateEngine);
+    }
+
+    @Test
+    void getExchangeRates_shouldServeRangeFromHistory() {
+        // Given
+        LocalDate start = today.minusDays(10);
+        List<ExchangeRateResponse> history = List.of(mockExchangeRateResponse);
+        when(rateHistory.range(currencyFrom, currencyTo, start, today)).thenReturn(history);
+
+        // When
+        List<ExchangeRateResponse> result = service.getExchangeRates(currencyFrom, currencyTo, start, today);
+
+        // Then
+        assertSame(history, result);
+        verifyNoInteractions(crossRateEngine);
     }
 
     @Test
     void exchangeCurrency_shouldReturnExchangeResponse_whenRateExists() {
         // Given
         double amount = 100.0;
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(mockExchangeRate);
         when(mapper.toDto(mockExchangeRate)).thenReturn(mockExchangeRateResponse);
 
@@ -291,17 +449,12 @@ class CurrencyExchangeServiceImplTest {
     void exchangeCurrency_shouldReturnNull_whenNoRateExists() {
         // Given
         double amount = 100.0;
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(null);
-
-        try {
-            when(riksbankenApi.getCalendarDays(any(LocalDate.class)))
-                    .thenReturn(Collections.emptyList());
-            when(riksbankenApi.getCrossRates(anyString(), anyString(), any(LocalDate.class)))
-                    .thenReturn(Collections.emptyList());
-        } catch (Exception e) {
-            fail("Setup should not throw exception");
-        }
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(RateMatrix.empty());
 
         // When
         ExchangeResponse result = service.exchangeCurrency(currencyFrom, currencyTo, amount);
@@ -314,7 +467,7 @@ class CurrencyExchangeServiceImplTest {
     void exchangeCurrency_shouldCalculateCorrectly_withZeroAmount() {
         // Given
         double amount = 0.0;
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(mockExchangeRate);
         when(mapper.toDto(mockExchangeRate)).thenReturn(mockExchangeRateResponse);
 
@@ -332,7 +485,7 @@ class CurrencyExchangeServiceImplTest {
     void exchangeCurrency_shouldCalculateCorrectly_withLargeAmount() {
         // Given
         double amount = 1000000.0;
-        when(repository.findLatestExchangeRateByCurrencies(currencyFrom, currencyTo))
+        when(rateHistory.latest(currencyFrom, currencyTo))
                 .thenReturn(mockExchangeRate);
         when(mapper.toDto(mockExchangeRate)).thenReturn(mockExchangeRateResponse);
 
@@ -345,4 +498,98 @@ class CurrencyExchangeServiceImplTest {
         assertEquals(850000.0, result.exchangedAmount());
         assertEquals(0.85, result.exchangeRate());
     }
+
+    @Test
+    void exchangeCurrency_shouldRoundToMinorUnitOfTargetCurrency() {
+        // Given
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(mockExchangeRate);
+        when(mapper.toDto(mockExchangeRate)).thenReturn(mockExchangeRateResponse);
+
+        // When
+        ExchangeResponse result = service.exchangeCurrency(currencyFrom, currencyTo, 0.29);
+
+        // Then
+        assertEquals(0.25, result.exchangedAmount());
+        assertEquals(0.85, result.exchangeRate());
+    }
+
+    @Test
+    void exchangeCurrencies_shouldResolveEachPairOnce_andKeepRequestOrder() {
+        // Given
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(null);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(matrix(today.minusDays(1), 6.8, 8.0));
+
+        List<ExchangeRequest> requests = List.of(
+                new ExchangeRequest(currencyFrom, currencyTo, 100.0),
+                new ExchangeRequest(currencyTo, currencyFrom, 8.0),
+                new ExchangeRequest(currencyFrom, currencyTo, 200.0)
+        );
+
+        // When
+        List<ExchangeResponse> results = service.exchangeCurrencies(requests);
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals(85.0, results.get(0).exchangedAmount());
+        assertEquals(currencyTo, results.get(1).currencyFrom());
+        assertEquals(9.41, results.get(1).exchangedAmount());
+        assertEquals(170.0, results.get(2).exchangedAmount());
+        verify(rateHistory, times(1)).latest(currencyFrom, currencyTo);
+        verify(crossRateEngine, times(1)).fetchRates(any(LocalDate.class));
+    }
+
+    @Test
+    void exchangeCurrencies_shouldReturnNullItems_whenPairHasNoRate() {
+        // Given
+        when(rateHistory.latest(currencyFrom, currencyTo))
+                .thenReturn(null);
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(RateMatrix.empty());
+
+        // When
+        List<ExchangeResponse> results = service.exchangeCurrencies(List.of(
+                new ExchangeRequest(currencyFrom, currencyTo, 100.0),
+                new ExchangeRequest(currencyFrom, currencyTo, 50.0)));
+
+        // Then
+        assertEquals(2, results.size());
+        assertNull(results.get(0));
+        assertNull(results.get(1));
+        verify(rateHistory, times(1)).latest(currencyFrom, currencyTo);
+    }
+
+    @Test
+    void rateSnapshot_shouldResolveEveryPairUpFront_withOneUpstreamFetch() {
+        // Given
+        when(bankCalendar.mayBeBankDay(any(LocalDate.class)))
+                .thenReturn(false);
+        when(crossRateEngine.fetchRates(any(LocalDate.class)))
+                .thenReturn(matrix(today.minusDays(1), 6.8, 8.0));
+
+        // When
+        RateSnapshot rates = service.rateSnapshot();
+
+        // Then
+        verify(crossRateEngine, times(1)).fetchRates(any(LocalDate.class));
+        verify(rateHistory, times(1)).latest(any(), any());
+        assertEquals(85.0, rates.exchange(currencyFrom, currencyTo, 100.0).exchangedAmount());
+    }
+
+    private static RateMatrix matrix(LocalDate date, double sekPerUsd, double sekPerEur) {
+        return RateMatrix.fromObservations(Map.of(
+                Currency.USD, List.of(new ObservationResponse(date.toString(), sekPerUsd)),
+                Currency.EUR, List.of(new ObservationResponse(date.toString(), sekPerEur))
+        ));
+    }
+
+    private long resolutions(String branch) {
+        return meterRegistry.get("currency.rate.resolution").tag("branch", branch).timer().count();
+    }
 }
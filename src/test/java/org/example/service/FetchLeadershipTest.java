@@ -0,0 +1,58 @@
+package org.example.service;
+
+import java.time.Duration;
+import org.example.config.ClusterProperties;
+import org.example.repository.FetchLeaseStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FetchLeadershipTest {
+
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(2);
+
+    @Mock
+    private FetchLeaseStore leaseStore;
+
+    @Test
+    void tryLead_shouldNotAskDatabaseAgain_whileAnotherInstancesLeaseIsKnownToHold() {
+        // Given
+        FetchLeadership follower = new FetchLeadership(leaseStore, new ClusterProperties(true, "node-b", LEASE_DURATION, Duration.ofSeconds(10)));
+        when(leaseStore.tryAcquire(FetchLeadership.LEASE, "node-b", LEASE_DURATION)).thenReturn(false);
+        when(leaseStore.remaining(FetchLeadership.LEASE)).thenReturn(Duration.ofMinutes(1));
+
+        // When
+        boolean first = follower.tryLead();
+        boolean second = follower.tryLead();
+
+        // Then
+        assertFalse(first);
+        assertFalse(second);
+        verify(leaseStore, times(1)).tryAcquire(FetchLeadership.LEASE, "node-b", LEASE_DURATION);
+    }
+
+    @Test
+    void tryLead_shouldTryAgain_onceTheKnownLeaseHasRunOut() {
+        // Given
+        FetchLeadership follower = new FetchLeadership(leaseStore, new ClusterProperties(true, "node-b", LEASE_DURATION, Duration.ofSeconds(10)));
+        when(leaseStore.tryAcquire(FetchLeadership.LEASE, "node-b", LEASE_DURATION)).thenReturn(false, true);
+        when(leaseStore.remaining(FetchLeadership.LEASE)).thenReturn(Duration.ZERO);
+
+        // When
+        boolean first = follower.tryLead();
+        boolean second = follower.tryLead();
+
+        // Then
+        assertFalse(first);
+        assertTrue(second);
+        verify(leaseStore, times(2)).tryAcquire(FetchLeadership.LEASE, "node-b", LEASE_DURATION);
+    }
+}
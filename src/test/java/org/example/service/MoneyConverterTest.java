@@ -0,0 +1,111 @@
+package org.example.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Random;
+import org.example.Currency;
+import org.example.config.MoneyProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyConverterTest {
+
+    private final MoneyConverter converter = converter(RoundingMode.HALF_EVEN, Map.of());
+
+    @Test
+    void convert_shouldRoundToTargetScale() {
+        // When
+        long exchanged = converter.convert(10_000, Currency.EUR, Currency.USD, MoneyConverter.toFixedRate(8.0 / 6.8));
+
+        // Then
+        assertEquals(11_765, exchanged);
+    }
+
+    @Test
+    void convert_shouldApplyTargetRoundingMode_onTies() {
+        // Given
+        long rate = MoneyConverter.toFixedRate(0.5);
+
+        // When & Then
+        assertEquals(2, converter.convert(5, Currency.USD, Currency.EUR, rate));
+        assertEquals(4, converter.convert(7, Currency.USD, Currency.EUR, rate));
+        assertEquals(-4, converter.convert(-7, Currency.USD, Currency.EUR, rate));
+        assertEquals(3, converter(RoundingMode.HALF_UP, Map.of()).convert(5, Currency.USD, Currency.EUR, rate));
+        assertEquals(-3, converter(RoundingMode.FLOOR, Map.of()).convert(-5, Currency.USD, Currency.EUR, rate));
+        assertEquals(-2, converter(RoundingMode.CEILING, Map.of()).convert(-5, Currency.USD, Currency.EUR, rate));
+    }
+
+    @Test
+    void convert_shouldRescale_betweenCurrenciesWithDifferentScales() {
+        // Given
+        MoneyConverter converter = converter(RoundingMode.HALF_EVEN, Map.of(Currency.SEK, 0, Currency.USD, 4));
+        long rate = MoneyConverter.toFixedRate(10.4);
+
+        // When & Then
+        assertEquals(1_040, converter.convert(1_000_000, Currency.USD, Currency.SEK, rate));
+        assertEquals(96_154, converter.convert(100, Currency.SEK, Currency.USD, MoneyConverter.toFixedRate(1 / 10.4)));
+    }
+
+    @Test
+    void convert_shouldMatchBigDecimal_whenProductNeedsMoreThan64Bits() {
+        // Given
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long amount = random.nextLong() >> random.nextInt(64);
+            long rate = random.nextLong() >>> (1 + random.nextInt(40));
+            BigDecimal expected = BigDecimal.valueOf(amount, 2)
+                    .multiply(BigDecimal.valueOf(rate, MoneyConverter.RATE_SCALE))
+                    .setScale(2, RoundingMode.HALF_EVEN);
+            if (expected.unscaledValue().bitLength() >= Long.SIZE - 1) {
+                continue;
+            }
+
+            // When
+            long exchanged = converter.convert(amount, Currency.USD, Currency.EUR, rate);
+
+            // Then
+            assertEquals(expected.unscaledValue().longValueExact(), exchanged, () -> amount + " at " + rate);
+        }
+    }
+
+    @Test
+    void convert_shouldThrow_whenResultOverflows() {
+        // When & Then
+        assertThrows(ArithmeticException.class,
+                () -> converter.convert(Long.MAX_VALUE, Currency.EUR, Currency.SEK, MoneyConverter.toFixedRate(11.2)));
+    }
+
+    @Test
+    void toMinorUnits_shouldReadDecimalAmountsExactly() {
+        // When & Then
+        assertEquals(29, converter.toMinorUnits(0.29, Currency.SEK));
+        assertEquals(1_234_567, converter.toMinorUnits(12_345.67, Currency.SEK));
+        assertEquals(100, converter.toMinorUnits(1.005, Currency.SEK));
+        assertEquals(2, converter.toMinorUnits(0.015, Currency.SEK));
+        assertEquals(-268, converter.toMinorUnits(-2.675, Currency.SEK));
+    }
+
+    @Test
+    void exchange_shouldReturnExactDecimalOfMinorUnits() {
+        // When
+        double exchanged = converter.exchange(0.1, Currency.SEK, Currency.EUR, MoneyConverter.toFixedRate(3.0));
+
+        // Then
+        assertEquals(0.3, exchanged);
+    }
+
+    @Test
+    void constructor_shouldRejectScaleAboveMaximum() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> converter(RoundingMode.HALF_EVEN, Map.of(Currency.EUR, MoneyConverter.MAX_SCALE + 1)));
+    }
+
+    private static MoneyConverter converter(RoundingMode rounding, Map<Currency, Integer> scale) {
+        return new MoneyConverter(new MoneyProperties(2, rounding, scale, Map.of()));
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import org.example.Currency;
+import org.example.config.BackfillProperties;
+import org.example.external.ObservationConsumer;
+import org.example.external.RiksbankenApi;
+import org.example.repository.BackfillProgressRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.entities.BackfillProgress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateBackfillTest {
+
+    @Mock
+    private RiksbankenApi riksbankenApi;
+
+    @Mock
+    private ExchangeRateBatchWriter batchWriter;
+
+    @Mock
+    private BackfillProgressRepository progressRepository;
+
+    @Mock
+    private RateHistory rateHistory;
+
+    @Mock
+    private ExecutorService runner;
+
+    @Test
+    void onApplicationReady_shouldHandBackfillToItsOwnThread_insteadOfRunningIt() {
+        // Given
+        RateBackfill backfill = new RateBackfill(riksbankenApi, batchWriter, progressRepository, rateHistory,
+                new BackfillProperties(LocalDate.of(2024, 1, 1), Period.ofYears(1), 1000, 2), runner);
+
+        // When
+        backfill.onApplicationReady();
+
+        // Then
+        verify(runner).execute(any(Runnable.class));
+        verifyNoInteractions(riksbankenApi, progressRepository, batchWriter);
+    }
+
+    @Test
+    void backfillSeries_shouldRequestWindowsFromConfiguredStart_andSaveProgressAfterEach() throws Exception {
+        // Given
+        RateBackfill backfill = backfill(LocalDate.of(2024, 1, 1), Period.ofMonths(1), 1000);
+        when(progressRepository.findById("SEKEURPMI")).thenReturn(Optional.empty());
+
+        // When
+        backfill.backfillSeries(Currency.EUR, LocalDate.of(2024, 3, 15));
+
+        // Then
+        InOrder order = inOrder(riksbankenApi, progressRepository);
+        order.verify(riksbankenApi).streamObservations(eq("SEKEURPMI"), eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 1, 31)), any());
+        order.verify(progressRepository).save(argThat(progress -> progress.getCompletedThrough().equals(LocalDate.of(2024, 1, 31))));
+        order.verify(riksbankenApi).streamObservations(eq("SEKEURPMI"), eq(LocalDate.of(2024, 2, 1)), eq(LocalDate.of(2024, 2, 29)), any());
+        order.verify(progressRepository).save(argThat(progress -> progress.getCompletedThrough().equals(LocalDate.of(2024, 2, 29))));
+        order.verify(riksbankenApi).streamObservations(eq("SEKEURPMI"), eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 15)), any());
+        order.verify(progressRepository).save(argThat(progress -> progress.getCompletedThrough().equals(LocalDate.of(2024, 3, 15))));
+    }
+
+    @Test
+    void backfillSeries_shouldResumeAfterLastCompletedWindow() throws Exception {
+        // Given
+        RateBackfill backfill = backfill(LocalDate.of(2024, 1, 1), Period.ofMonths(1), 1000);
+        when(progressRepository.findById("SEKEURPMI"))
+                .thenReturn(Optional.of(new BackfillProgress("SEKEURPMI", LocalDate.of(2024, 2, 29))));
+
+        // When
+        backfill.backfillSeries(Currency.EUR, LocalDate.of(2024, 3, 15));
+
+        // Then
+        verify(riksbankenApi).streamObservations(eq("SEKEURPMI"), eq(LocalDate.of(2024, 3, 1)), eq(LocalDate.of(2024, 3, 15)), any());
+        verify(progressRepository).save(argThat(progress -> progress.getCompletedThrough().equals(LocalDate.of(2024, 3, 15))));
+    }
+
+    @Test
+    void backfillSeries_shouldDoNothing_whenAlreadyComplete() throws Exception {
+        // Given
+        RateBackfill backfill = backfill(LocalDate.of(2024, 1, 1), Period.ofYears(1), 1000);
+        when(progressRepository.findById("SEKEURPMI"))
+                .thenReturn(Optional.of(new BackfillProgress("SEKEURPMI", LocalDate.of(2024, 3, 15))));
+
+        // When
+        long written = backfill.backfillSeries(Currency.EUR, LocalDate.of(2024, 3, 15));
+
+        // Then
+        assertEquals(0, written);
+        verify(riksbankenApi, never()).streamObservations(any(), any(), any(), any());
+        verify(progressRepository, never()).save(any());
+    }
+
+    @Test
+    void backfillSeries_shouldWriteInBatches_andSkipKnownAndRepeatedDays() throws Exception {
+        // Given
+        RateBackfill backfill = backfill(LocalDate.of(2024, 1, 1), Period.ofYears(1), 2);
+        int knownDay = day(2024, 1, 4);
+        when(progressRepository.findById("SEKEURPMI")).thenReturn(Optional.empty());
+        when(rateHistory.contains(eq(Currency.EUR), anyInt())).thenAnswer(invocation -> invocation.<Integer>getArgument(1) == knownDay);
+        doAnswer(invocation -> {
+            ObservationConsumer consumer = invocation.getArgument(3);
+            consumer.accept(day(2024, 1, 2), 11.1);
+            consumer.accept(day(2024, 1, 3), 11.2);
+            consumer.accept(day(2024, 1, 3), 11.2);
+            consumer.accept(day(2024, 1, 4), 11.3);
+            consumer.accept(day(2024, 1, 5), 11.4);
+            consumer.accept(day(2024, 1, 8), 11.5);
+            return null;
+        }).when(riksbankenApi).streamObservations(eq("SEKEURPMI"), any(), any(), any());
+
+        // When
+        long written = backfill.backfillSeries(Currency.EUR, LocalDate.of(2024, 1, 31));
+
+        // Then
+        assertEquals(4, written);
+        verify(batchWriter, times(2)).upsert(eq(Currency.EUR), eq(Currency.SEK), any(), any(), eq(2));
+        verify(rateHistory, times(2)).merge(eq(Currency.EUR), any(), any(), eq(2));
+    }
+
+    @Test
+    void backfill_shouldFinishOtherSeries_whenOneSeriesFails() throws Exception {
+        // Given
+        RateBackfill backfill = backfill(LocalDate.of(2024, 1, 1), Period.ofYears(1), 1000);
+        when(progressRepository.findById(any())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0).equals("SEKEURPMI")) {
+                throw new IOException("Upstream unavailable");
+            }
+            ObservationConsumer consumer = invocation.getArgument(3);
+            consumer.accept(day(2024, 1, 2), 10.4);
+            return null;
+        }).when(riksbankenApi).streamObservations(any(), any(), any(), any());
+
+        // When
+        long written = backfill.backfill(LocalDate.of(2024, 1, 31));
+
+        // Then
+        assertEquals(1, written);
+        verify(progressRepository).save(argThat(progress -> progress.getSeriesId().equals("SEKUSDPMI")));
+        verify(progressRepository, never()).save(argThat(progress -> progress.getSeriesId().equals("SEKEURPMI")));
+    }
+
+    private RateBackfill backfill(LocalDate from, Period window, int batchSize) {
+        return new RateBackfill(riksbankenApi, batchWriter, progressRepository, rateHistory, new BackfillProperties(from, window, batchSize, 2));
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+}
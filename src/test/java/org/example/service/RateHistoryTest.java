@@ -0,0 +1,202 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.example.metrics.RateMetrics;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.entities.ExchangeRate;
+import org.example.repository.projections.StoredRate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateHistoryTest {
+
+    @Mock
+    private CurrencyExchangeRepository repository;
+
+    @Mock
+    private ExchangeRateBatchWriter batchWriter;
+
+    @Spy
+    private RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private RateHistory rateHistory;
+
+    @Test
+    void afterSingletonsInstantiated_shouldLoadSeriesFromDatabase() {
+        // Given
+        when(repository.findByCurrencyFromAndCurrencyToOrderByLatestRateDate(Currency.EUR, Currency.SEK))
+                .thenReturn(List.of(
+                        new ExchangeRate(Currency.EUR, 11.2, LocalDate.of(2024, 1, 15), Currency.SEK),
+                        new ExchangeRate(Currency.EUR, 11.3, LocalDate.of(2024, 1, 16), Currency.SEK)));
+        when(repository.findByCurrencyFromAndCurrencyToOrderByLatestRateDate(Currency.USD, Currency.SEK))
+                .thenReturn(List.of());
+
+        // When
+        rateHistory.afterSingletonsInstantiated();
+
+        // Then
+        List<ExchangeRateResponse> rates = rateHistory.range(Currency.EUR, Currency.SEK, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        assertEquals(List.of(
+                new ExchangeRateResponse("EUR", "SEK", 11.2, "2024-01-15", false),
+                new ExchangeRateResponse("EUR", "SEK", 11.3, "2024-01-16", false)), rates);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldCatchRestoredSeriesUp_withRowsStoredAfterIt() {
+        // Given
+        rateHistory.restore(Currency.EUR, new RateHistory.Series(
+                new int[]{(int) LocalDate.of(2024, 1, 15).toEpochDay()}, new double[]{11.2}));
+        when(repository.findByCurrencyFromAndCurrencyToAndLatestRateDateAfterOrderByLatestRateDate(Currency.EUR, Currency.SEK, LocalDate.of(2024, 1, 15)))
+                .thenReturn(List.of(new ExchangeRate(Currency.EUR, 11.3, LocalDate.of(2024, 1, 16), Currency.SEK)));
+        when(repository.findByCurrencyFromAndCurrencyToOrderByLatestRateDate(Currency.USD, Currency.SEK))
+                .thenReturn(List.of());
+
+        // When
+        rateHistory.afterSingletonsInstantiated();
+
+        // Then
+        List<ExchangeRateResponse> rates = rateHistory.range(Currency.EUR, Currency.SEK, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        assertEquals(List.of(
+                new ExchangeRateResponse("EUR", "SEK", 11.2, "2024-01-15", false),
+                new ExchangeRateResponse("EUR", "SEK", 11.3, "2024-01-16", false)), rates);
+        verify(repository, never()).findByCurrencyFromAndCurrencyToOrderByLatestRateDate(Currency.EUR, Currency.SEK);
+    }
+
+    @Test
+    void record_shouldPersistOnlyDaysNotAlreadyKnown() {
+        // Given
+        rateHistory.record(Currency.EUR, List.of(new ObservationResponse("2024-01-15", 11.2)));
+
+        // When
+        rateHistory.record(Currency.EUR, List.of(
+                new ObservationResponse("2024-01-16", 11.3),
+                new ObservationResponse("2024-01-15", 11.2)));
+
+        // Then
+        verify(batchWriter).upsert(ArgumentMatchers.<List<ExchangeRate>>argThat(rows -> rows.size() == 1
+                && rows.getFirst().getLatestRateDate().equals(LocalDate.of(2024, 1, 16))
+                && rows.getFirst().getCurrencyTo() == Currency.SEK));
+    }
+
+    @Test
+    void record_shouldWriteDaysAgain_whenEarlierUpsertFailed() {
+        // Given
+        List<ObservationResponse> observations = List.of(new ObservationResponse("2024-01-15", 11.2));
+        doThrow(new DataAccessResourceFailureException("database down")).doNothing().when(batchWriter).upsert(anyList());
+        assertThrows(DataAccessResourceFailureException.class, () -> rateHistory.record(Currency.EUR, observations));
+
+        // When
+        rateHistory.record(Currency.EUR, observations);
+
+        // Then
+        verify(batchWriter, times(2)).upsert(anyList());
+        assertEquals(1, rateHistory.range(Currency.EUR, Currency.SEK, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15)).size());
+    }
+
+    @Test
+    void record_shouldIgnoreBaseCurrency() {
+        // When
+        rateHistory.record(Currency.SEK, List.of(new ObservationResponse("2024-01-15", 1.0)));
+
+        // Then
+        verify(batchWriter, never()).upsert(anyList());
+    }
+
+    @Test
+    void range_shouldTriangulatePairsOnCommonDates_withinInclusiveBounds() {
+        // Given
+        rateHistory.record(Currency.EUR, List.of(
+                new ObservationResponse("2024-01-12", 11.1),
+                new ObservationResponse("2024-01-15", 11.2),
+                new ObservationResponse("2024-01-16", 11.3),
+                new ObservationResponse("2024-01-17", 11.4)));
+        rateHistory.record(Currency.USD, List.of(
+                new ObservationResponse("2024-01-15", 10.4),
+                new ObservationResponse("2024-01-17", 10.5)));
+
+        // When
+        List<ExchangeRateResponse> rates = rateHistory.range(Currency.EUR, Currency.USD, LocalDate.of(2024, 1, 13), LocalDate.of(2024, 1, 17));
+
+        // Then
+        assertEquals(List.of(
+                new ExchangeRateResponse("EUR", "USD", 11.2 / 10.4, "2024-01-15", false),
+                new ExchangeRateResponse("EUR", "USD", 11.4 / 10.5, "2024-01-17", false)), rates);
+    }
+
+    @Test
+    void range_shouldInvertSeries_whenConvertingFromSek() {
+        // Given
+        rateHistory.record(Currency.USD, List.of(new ObservationResponse("2024-01-15", 10.4)));
+
+        // When
+        List<ExchangeRateResponse> rates = rateHistory.range(Currency.SEK, Currency.USD, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15));
+
+        // Then
+        assertEquals(List.of(new ExchangeRateResponse("SEK", "USD", 1 / 10.4, "2024-01-15", false)), rates);
+    }
+
+    @Test
+    void range_shouldReturnEmpty_whenNothingInRange() {
+        // Given
+        rateHistory.record(Currency.USD, List.of(new ObservationResponse("2024-01-15", 10.4)));
+
+        // When
+        List<ExchangeRateResponse> rates = rateHistory.range(Currency.USD, Currency.SEK, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 28));
+
+        // Then
+        assertTrue(rates.isEmpty());
+    }
+
+    @Test
+    void latest_shouldTriangulateOnLatestCommonDate() {
+        // Given
+        rateHistory.record(Currency.EUR, List.of(
+                new ObservationResponse("2024-01-15", 11.2),
+                new ObservationResponse("2024-01-16", 11.3),
+                new ObservationResponse("2024-01-17", 11.4)));
+        rateHistory.record(Currency.USD, List.of(
+                new ObservationResponse("2024-01-15", 10.4),
+                new ObservationResponse("2024-01-16", 10.5)));
+
+        // When & Then
+        assertEquals(new StoredRate(Currency.EUR, Currency.USD, 11.3 / 10.5, LocalDate.of(2024, 1, 16)), rateHistory.latest(Currency.EUR, Currency.USD));
+        assertEquals(new StoredRate(Currency.EUR, Currency.SEK, 11.4, LocalDate.of(2024, 1, 17)), rateHistory.latest(Currency.EUR, Currency.SEK));
+        assertEquals(new StoredRate(Currency.SEK, Currency.USD, 1 / 10.5, LocalDate.of(2024, 1, 16)), rateHistory.latest(Currency.SEK, Currency.USD));
+        assertNull(rateHistory.latest(Currency.SEK, Currency.SEK));
+    }
+
+    @Test
+    void latest_shouldReturnNull_whenSeriesNeverPublishedOnSameDate() {
+        // Given
+        rateHistory.record(Currency.EUR, List.of(new ObservationResponse("2024-01-15", 11.2)));
+        rateHistory.record(Currency.USD, List.of(new ObservationResponse("2024-01-16", 10.4)));
+
+        // When & Then
+        assertNull(rateHistory.latest(Currency.EUR, Currency.USD));
+    }
+}
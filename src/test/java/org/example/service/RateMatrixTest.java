@@ -0,0 +1,87 @@
+package org.example.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.example.Currency;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.dto.ObservationResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateMatrixTest {
+
+    @Test
+    void fromObservations_shouldTriangulateEveryPairFromSekSeries() {
+        // Given
+        Map<Currency, List<ObservationResponse>> observations = Map.of(
+                Currency.EUR, List.of(new ObservationResponse("2024-01-15", 11.2)),
+                Currency.USD, List.of(new ObservationResponse("2024-01-15", 10.4))
+        );
+
+        // When
+        RateMatrix matrix = RateMatrix.fromObservations(observations);
+
+        // Then
+        assertEquals(11.2, matrix.rate(Currency.EUR, Currency.SEK));
+        assertEquals(1 / 11.2, matrix.rate(Currency.SEK, Currency.EUR));
+        assertEquals(11.2 / 10.4, matrix.rate(Currency.EUR, Currency.USD));
+        assertEquals(10.4 / 11.2, matrix.rate(Currency.USD, Currency.EUR));
+        assertEquals(1.0, matrix.rate(Currency.USD, Currency.USD));
+        assertEquals(1.0, matrix.rate(Currency.SEK, Currency.SEK));
+        assertTrue(matrix.isCompleteOn(LocalDate.of(2024, 1, 15)));
+    }
+
+    @Test
+    void fromObservations_shouldUseLatestCommonDate_whenSeriesDiffer() {
+        // Given
+        Map<Currency, List<ObservationResponse>> observations = Map.of(
+                Currency.EUR, List.of(
+                        new ObservationResponse("2024-01-16", 11.3),
+                        new ObservationResponse("2024-01-15", 11.2)),
+                Currency.USD, List.of(new ObservationResponse("2024-01-15", 10.4))
+        );
+
+        // When
+        RateMatrix matrix = RateMatrix.fromObservations(observations);
+
+        // Then
+        assertEquals(LocalDate.of(2024, 1, 16), matrix.date(Currency.EUR, Currency.SEK));
+        assertEquals(LocalDate.of(2024, 1, 15), matrix.date(Currency.EUR, Currency.USD));
+        assertEquals(11.2 / 10.4, matrix.rate(Currency.EUR, Currency.USD));
+        assertFalse(matrix.isCompleteOn(LocalDate.of(2024, 1, 16)));
+    }
+
+    @Test
+    void fromObservations_shouldLeaveOutPairs_whenSeriesMissing() {
+        // Given
+        Map<Currency, List<ObservationResponse>> observations = Map.of(
+                Currency.EUR, List.of(new ObservationResponse("2024-01-15", 11.2))
+        );
+
+        // When
+        RateMatrix matrix = RateMatrix.fromObservations(observations);
+
+        // Then
+        assertTrue(matrix.contains(Currency.EUR, Currency.SEK));
+        assertFalse(matrix.contains(Currency.USD, Currency.EUR));
+        assertNull(matrix.toResponse(Currency.SEK, Currency.USD));
+    }
+
+    @Test
+    void toResponse_shouldDescribePair() {
+        // Given
+        RateMatrix matrix = RateMatrix.fromObservations(Map.of(
+                Currency.USD, List.of(new ObservationResponse("2024-01-15", 10.4))));
+
+        // When
+        ExchangeRateResponse response = matrix.toResponse(Currency.USD, Currency.SEK);
+
+        // Then
+        assertEquals(new ExchangeRateResponse("USD", "SEK", 10.4, "2024-01-15", false), response);
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.example.Currency;
+import org.example.config.ClusterProperties;
+import org.example.config.PrefetchProperties;
+import org.example.external.dto.ObservationResponse;
+import org.example.repository.FetchLeaseStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatePrefetcherTest {
+
+    private static final ZoneId STOCKHOLM = ZoneId.of(CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM);
+
+    @Mock
+    private CrossRateEngine crossRateEngine;
+
+    @Mock
+    private BankCalendar bankCalendar;
+
+    @Mock
+    private CurrencyExchangeServiceImpl currencyExchangeService;
+
+    @Mock
+    private FetchLeaseStore leaseStore;
+
+    private PrefetchProperties properties;
+    private RatePrefetcher prefetcher;
+
+    private ZonedDateTime publicationTime;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PrefetchProperties(3, Duration.ZERO, Duration.ZERO, 2);
+        FetchLeadership standalone = new FetchLeadership(mock(FetchLeaseStore.class), new ClusterProperties(false, null, Duration.ofMinutes(2), Duration.ofSeconds(10)));
+        prefetcher = new RatePrefetcher(crossRateEngine, bankCalendar, currencyExchangeService, properties, standalone);
+        publicationTime = ZonedDateTime.of(2024, 1, 15, 16, 15, 0, 0, STOCKHOLM);
+        today = publicationTime.toLocalDate();
+    }
+
+    @Test
+    void prefetch_shouldPublishEveryPair_whenRatesArePublished() throws Exception {
+        // Given
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.BANK_DAY);
+        when(crossRateEngine.fetchSeries(Currency.EUR, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 11.2)));
+        when(crossRateEngine.fetchSeries(Currency.USD, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 10.4)));
+
+        // When
+        prefetcher.prefetch(publicationTime);
+
+        // Then
+        ArgumentCaptor<RateMatrix> published = ArgumentCaptor.forClass(RateMatrix.class);
+        verify(currencyExchangeService, times(2)).publishRates(published.capture(), eq(publicationTime), eq(true));
+        assertTrue(published.getValue().isCompleteOn(today));
+        verify(crossRateEngine, never()).fetchSeries(eq(Currency.SEK), any(LocalDate.class));
+    }
+
+    @Test
+    void prefetch_shouldRetry_untilRateIsPublished() throws Exception {
+        // Given
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.BANK_DAY);
+        when(crossRateEngine.fetchSeries(Currency.EUR, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 11.2)));
+        when(crossRateEngine.fetchSeries(Currency.USD, today))
+                .thenReturn(Collections.emptyList())
+                .thenThrow(new RuntimeException("API error"))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 10.4)));
+
+        // When
+        prefetcher.prefetch(publicationTime);
+
+        // Then
+        verify(crossRateEngine, times(3)).fetchSeries(Currency.USD, today);
+        ArgumentCaptor<RateMatrix> published = ArgumentCaptor.forClass(RateMatrix.class);
+        verify(currencyExchangeService, times(2)).publishRates(published.capture(), eq(publicationTime), eq(true));
+        assertEquals(10.4, published.getValue().rate(Currency.USD, Currency.SEK));
+    }
+
+    @Test
+    void prefetch_shouldPublishSeries_beforeSlowerOnesArrive() throws Exception {
+        // Given
+        CountDownLatch firstPublished = new CountDownLatch(1);
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.BANK_DAY);
+        when(crossRateEngine.fetchSeries(Currency.EUR, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 11.2)));
+        when(crossRateEngine.fetchSeries(Currency.USD, today)).thenAnswer(invocation -> {
+            assertTrue(firstPublished.await(5, TimeUnit.SECONDS));
+            return List.of(new ObservationResponse(today.toString(), 10.4));
+        });
+        doAnswer(invocation -> {
+            firstPublished.countDown();
+            return null;
+        }).when(currencyExchangeService).publishRates(any(RateMatrix.class), eq(publicationTime), eq(true));
+
+        // When
+        prefetcher.prefetch(publicationTime);
+
+        // Then
+        ArgumentCaptor<RateMatrix> published = ArgumentCaptor.forClass(RateMatrix.class);
+        verify(currencyExchangeService, times(2)).publishRates(published.capture(), eq(publicationTime), eq(true));
+        RateMatrix first = published.getAllValues().get(0);
+        assertEquals(11.2, first.rate(Currency.EUR, Currency.SEK));
+        assertFalse(first.contains(Currency.USD, Currency.SEK));
+        assertTrue(published.getAllValues().get(1).isCompleteOn(today));
+    }
+
+    @Test
+    void prefetch_shouldSkip_whenTodayIsNotBankDay() throws Exception {
+        // Given
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.NON_BANK_DAY);
+
+        // When
+        prefetcher.prefetch(publicationTime);
+
+        // Then
+        verify(crossRateEngine, never()).fetchSeries(any(Currency.class), any(LocalDate.class));
+        verify(currencyExchangeService, never()).publishRates(any(RateMatrix.class), any(ZonedDateTime.class), anyBoolean());
+    }
+
+    @Test
+    void prefetch_shouldStillRun_whenCalendarIsUnavailable() throws Exception {
+        // Given
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.UNKNOWN);
+        when(crossRateEngine.fetchSeries(Currency.EUR, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 11.2)));
+        when(crossRateEngine.fetchSeries(Currency.USD, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 10.4)));
+
+        // When
+        prefetcher.prefetch(publicationTime);
+
+        // Then
+        verify(currencyExchangeService, times(2)).publishRates(any(RateMatrix.class), eq(publicationTime), eq(true));
+    }
+
+    @Test
+    void prefetch_shouldSkip_whenAnotherInstanceHoldsFetchLease() throws Exception {
+        // Given
+        ClusterProperties cluster = new ClusterProperties(true, "node-b", Duration.ofMinutes(2), Duration.ofSeconds(10));
+        RatePrefetcher follower = new RatePrefetcher(crossRateEngine, bankCalendar, currencyExchangeService, properties,
+                new FetchLeadership(leaseStore, cluster));
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.BANK_DAY);
+        when(leaseStore.tryAcquire(FetchLeadership.LEASE, "node-b", Duration.ofMinutes(2))).thenReturn(false);
+
+        // When
+        follower.prefetch(publicationTime);
+
+        // Then
+        verifyNoInteractions(crossRateEngine, currencyExchangeService);
+    }
+
+    @Test
+    void prefetch_shouldRenewFetchLease_beforeEveryRetry() throws Exception {
+        // Given
+        ClusterProperties cluster = new ClusterProperties(true, "node-a", Duration.ofMinutes(2), Duration.ofSeconds(10));
+        RatePrefetcher leader = new RatePrefetcher(crossRateEngine, bankCalendar, currencyExchangeService, properties,
+                new FetchLeadership(leaseStore, cluster));
+        when(bankCalendar.day(today)).thenReturn(BankCalendar.Day.BANK_DAY);
+        when(leaseStore.tryAcquire(FetchLeadership.LEASE, "node-a", Duration.ofMinutes(2))).thenReturn(true);
+        when(crossRateEngine.fetchSeries(Currency.EUR, today))
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 11.2)));
+        when(crossRateEngine.fetchSeries(Currency.USD, today))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(new ObservationResponse(today.toString(), 10.4)));
+
+        // When
+        leader.prefetch(publicationTime);
+
+        // Then
+        verify(leaseStore, times(3)).tryAcquire(FetchLeadership.LEASE, "node-a", Duration.ofMinutes(2));
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.service;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RatePublicationTest {
+
+    private static final ZoneId STOCKHOLM = ZoneId.of(CurrencyExchangeServiceImpl.EUROPE_STOCKHOLM);
+
+    @Test
+    void nextPublication_shouldReturnTodaysCutoff_whenBeforeCutoff() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 15, 10, 0, 0, 0, STOCKHOLM);
+
+        // When
+        ZonedDateTime next = RatePublication.nextPublication(now);
+
+        // Then
+        assertEquals(ZonedDateTime.of(2024, 1, 15, 16, 15, 0, 0, STOCKHOLM), next);
+    }
+
+    @Test
+    void nextPublication_shouldReturnTomorrowsCutoff_whenAtOrAfterCutoff() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 15, 16, 15, 0, 0, STOCKHOLM);
+
+        // When
+        ZonedDateTime next = RatePublication.nextPublication(now);
+
+        // Then
+        assertEquals(ZonedDateTime.of(2024, 1, 16, 16, 15, 0, 0, STOCKHOLM), next);
+    }
+
+    @Test
+    void nextPublication_shouldConvertToStockholmTime() {
+        // Given
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 15, 15, 30, 0, 0, ZoneId.of("UTC"));
+
+        // When
+        ZonedDateTime next = RatePublication.nextPublication(now);
+
+        // Then
+        assertEquals(ZonedDateTime.of(2024, 1, 16, 16, 15, 0, 0, STOCKHOLM), next);
+    }
+}
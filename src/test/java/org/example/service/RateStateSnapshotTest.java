@@ -0,0 +1,186 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import org.example.Currency;
+import org.example.cache.ExchangeRateCache;
+import org.example.config.SnapshotProperties;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.external.RiksbankenApi;
+import org.example.external.dto.ObservationResponse;
+import org.example.metrics.RateMetrics;
+import org.example.repository.BankCalendarRepository;
+import org.example.repository.CurrencyExchangeRepository;
+import org.example.repository.ExchangeRateBatchWriter;
+import org.example.repository.entities.BankCalendarYear;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateStateSnapshotTest {
+
+    @Mock
+    private RiksbankenApi riksbankenApi;
+
+    @Mock
+    private BankCalendarRepository calendarRepository;
+
+    @Mock
+    private CurrencyExchangeRepository repository;
+
+    @Mock
+    private ExchangeRateBatchWriter batchWriter;
+
+    @TempDir
+    private Path directory;
+
+    private final RateMetrics metrics = new RateMetrics(new SimpleMeterRegistry());
+
+    private final Instant now = Instant.parse("2024-01-15T10:00:00Z");
+    private final LocalDate monday = LocalDate.of(2024, 1, 15);
+
+    @Test
+    void restore_shouldServeRatesCalendarAndHistory_withoutUpstream_readingOnlyNewerRows() {
+        // Given
+        SnapshotProperties properties = properties(Duration.ofHours(24));
+        snapshotOfRunningInstance(properties);
+        ExchangeRateCache rateCache = new ExchangeRateCache();
+        BankCalendar bankCalendar = new BankCalendar(riksbankenApi, calendarRepository);
+        RateHistory rateHistory = new RateHistory(repository, batchWriter, metrics);
+
+        // When
+        boolean restored = new RateStateSnapshot(rateCache, bankCalendar, rateHistory, properties).restore(now);
+        rateHistory.afterSingletonsInstantiated();
+
+        // Then
+        assertTrue(restored);
+        ExchangeRateResponse cached = rateCache.get(Currency.USD, Currency.EUR, now);
+        assertEquals(0.92, cached.rate());
+        assertEquals("2024-01-12", cached.latestRateDate());
+        assertEquals(BankCalendar.Day.BANK_DAY, bankCalendar.day(monday));
+        assertEquals(BankCalendar.Day.NON_BANK_DAY, bankCalendar.day(monday.minusDays(1)));
+        List<ExchangeRateResponse> history = rateHistory.range(Currency.EUR, Currency.SEK, monday.minusDays(3), monday);
+        assertEquals(1, history.size());
+        assertEquals(11.2, history.getFirst().rate());
+        verify(repository).findByCurrencyFromAndCurrencyToAndLatestRateDateAfterOrderByLatestRateDate(Currency.EUR, Currency.SEK, LocalDate.of(2024, 1, 12));
+        verify(repository, never()).findByCurrencyFromAndCurrencyToOrderByLatestRateDate(Currency.EUR, Currency.SEK);
+        verifyNoInteractions(riksbankenApi, calendarRepository);
+    }
+
+    @Test
+    void restore_shouldSkipExpiredRates() {
+        // Given
+        SnapshotProperties properties = properties(Duration.ofHours(24));
+        snapshotOfRunningInstance(properties);
+        ExchangeRateCache rateCache = new ExchangeRateCache();
+        RateStateSnapshot snapshot = new RateStateSnapshot(rateCache, new BankCalendar(riksbankenApi, calendarRepository),
+                new RateHistory(repository, batchWriter, metrics), properties);
+
+        // When
+        snapshot.restore(now.plus(Duration.ofHours(12)));
+
+        // Then
+        assertNull(rateCache.get(Currency.USD, Currency.EUR, now));
+    }
+
+    @Test
+    void restore_shouldIgnoreSnapshot_olderThanMaxAge() {
+        // Given
+        SnapshotProperties properties = properties(Duration.ofMinutes(30));
+        snapshotOfRunningInstance(properties);
+        ExchangeRateCache rateCache = new ExchangeRateCache();
+        RateStateSnapshot snapshot = new RateStateSnapshot(rateCache, new BankCalendar(riksbankenApi, calendarRepository),
+                new RateHistory(repository, batchWriter, metrics), properties);
+
+        // When
+        boolean restored = snapshot.restore(now.plus(Duration.ofHours(1)));
+
+        // Then
+        assertFalse(restored);
+        assertNull(rateCache.get(Currency.USD, Currency.EUR, now));
+    }
+
+    @Test
+    void restore_shouldIgnoreDamagedSnapshot() throws IOException {
+        // Given
+        SnapshotProperties properties = properties(Duration.ofHours(24));
+        snapshotOfRunningInstance(properties);
+        byte[] bytes = Files.readAllBytes(properties.path());
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(properties.path(), bytes);
+        ExchangeRateCache rateCache = new ExchangeRateCache();
+        RateStateSnapshot snapshot = new RateStateSnapshot(rateCache, new BankCalendar(riksbankenApi, calendarRepository),
+                new RateHistory(repository, batchWriter, metrics), properties);
+
+        // When
+        boolean restored = snapshot.restore(now);
+
+        // Then
+        assertFalse(restored);
+        assertNull(rateCache.get(Currency.USD, Currency.EUR, now));
+    }
+
+    @Test
+    void restore_shouldDoNothing_whenNoSnapshotExists() {
+        // Given
+        RateStateSnapshot snapshot = new RateStateSnapshot(new ExchangeRateCache(), new BankCalendar(riksbankenApi, calendarRepository),
+                new RateHistory(repository, batchWriter, metrics), properties(Duration.ofHours(24)));
+
+        // When & Then
+        assertFalse(snapshot.restore(now));
+    }
+
+    /**
+     * Writes the snapshot of an instance that has cached a rate until 16:15, loaded 2024's calendar and recorded
+     * three days of EUR history.
+     */
+    private void snapshotOfRunningInstance(SnapshotProperties properties) {
+        ExchangeRateCache rateCache = new ExchangeRateCache();
+        rateCache.put(Currency.USD, Currency.EUR, new ExchangeRateResponse("USD", "EUR", 0.92, "2024-01-12", false),
+                Instant.parse("2024-01-15T15:15:00Z"));
+
+        BitSet weekdays = new BitSet(366);
+        for (LocalDate day = LocalDate.of(2024, 1, 1); day.getYear() == 2024; day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() <= 5) {
+                weekdays.set(day.getDayOfYear() - 1);
+            }
+        }
+        BankCalendarRepository loadedCalendar = mock(BankCalendarRepository.class);
+        when(loadedCalendar.findById(2024)).thenReturn(Optional.of(new BankCalendarYear(2024, weekdays.toByteArray())));
+        BankCalendar bankCalendar = new BankCalendar(riksbankenApi, loadedCalendar);
+        bankCalendar.day(monday);
+
+        RateHistory rateHistory = new RateHistory(mock(CurrencyExchangeRepository.class), mock(ExchangeRateBatchWriter.class), metrics);
+        rateHistory.record(Currency.EUR, List.of(
+                new ObservationResponse("2024-01-10", 11.1),
+                new ObservationResponse("2024-01-11", 11.15),
+                new ObservationResponse("2024-01-12", 11.2)));
+
+        new RateStateSnapshot(rateCache, bankCalendar, rateHistory, properties).write(now);
+    }
+
+    private SnapshotProperties properties(Duration maxAge) {
+        return new SnapshotProperties(directory.resolve("rate-state.bin"), Duration.ofMinutes(5), maxAge);
+    }
+}
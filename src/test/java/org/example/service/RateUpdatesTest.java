@@ -0,0 +1,161 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.Currency;
+import org.example.CurrencyPair;
+import org.example.controller.dto.responses.ExchangeRateResponse;
+import org.example.service.RateUpdates.RateEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateUpdatesTest {
+
+    private final RateUpdates rateUpdates = new RateUpdates(new ObjectMapper(), Runnable::run);
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final CurrencyPair usdEur = new CurrencyPair(Currency.USD, Currency.EUR);
+    private final CurrencyPair eurSek = new CurrencyPair(Currency.EUR, Currency.SEK);
+
+    @Test
+    void publish_shouldSerializeOnce_forEverySubscriber() {
+        // Given
+        List<RateEvent> first = new ArrayList<>();
+        List<RateEvent> second = new ArrayList<>();
+        rateUpdates.subscribe(usdEur, first::add, dropped::incrementAndGet);
+        rateUpdates.subscribe(null, second::add, dropped::incrementAndGet);
+
+        // When
+        rateUpdates.publish(Map.of(usdEur, rate("USD", "EUR", 0.85, "2024-01-15")));
+
+        // Then
+        assertEquals(1, first.size());
+        assertSame(first.getFirst().json(), second.getFirst().json());
+        assertTrue(first.getFirst().json().contains("\"rate\":0.85"));
+    }
+
+    @Test
+    void publish_shouldOnlyDeliverSubscribedPair() {
+        // Given
+        List<RateEvent> received = new ArrayList<>();
+        rateUpdates.subscribe(usdEur, received::add, dropped::incrementAndGet);
+
+        // When
+        rateUpdates.publish(Map.of(eurSek, rate("EUR", "SEK", 11.2, "2024-01-15")));
+
+        // Then
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void publish_shouldSkipUnchangedRates() {
+        // Given
+        List<RateEvent> received = new ArrayList<>();
+        rateUpdates.subscribe(usdEur, received::add, dropped::incrementAndGet);
+        rateUpdates.publish(Map.of(usdEur, rate("USD", "EUR", 0.85, "2024-01-15")));
+
+        // When
+        rateUpdates.publish(Map.of(usdEur, rate("USD", "EUR", 0.85, "2024-01-15")));
+        rateUpdates.publish(Map.of(usdEur, rate("USD", "EUR", 0.86, "2024-01-16")));
+
+        // Then
+        assertEquals(2, received.size());
+        assertTrue(received.get(1).json().contains("2024-01-16"));
+    }
+
+    @Test
+    void subscribe_shouldStopDelivery_onceUnsubscribed() {
+        // Given
+        List<RateEvent> received = new ArrayList<>();
+        Runnable unsubscribe = rateUpdates.subscribe(usdEur, received::add, dropped::incrementAndGet);
+
+        // When
+        unsubscribe.run();
+        rateUpdates.publish(Map.of(usdEur, rate("USD", "EUR", 0.85, "2024-01-15")));
+
+        // Then
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void current_shouldReturnLastPublishedRates() {
+        // Given
+        rateUpdates.publish(Map.of(
+                usdEur, rate("USD", "EUR", 0.85, "2024-01-15"),
+                eurSek, rate("EUR", "SEK", 11.2, "2024-01-15")));
+
+        // When
+        List<RateEvent> pair = rateUpdates.current(usdEur);
+        List<RateEvent> all = rateUpdates.current(null);
+
+        // Then
+        assertEquals(1, pair.size());
+        assertEquals(usdEur, pair.getFirst().pair());
+        assertEquals(2, all.size());
+    }
+
+    @Test
+    void subscribe_shouldStartWithCurrentRate_queuedAheadOfNewerOnes() {
+        // Given
+        List<Runnable> deliveries = new ArrayList<>();
+        RateUpdates queued = new RateUpdates(new ObjectMapper(), deliveries::add);
+        queued.publish(Map.of(usdEur, rate("USD", "EUR", 0.85, "2024-01-15")));
+        List<RateEvent> received = new ArrayList<>();
+
+        // When
+        queued.subscribe(usdEur, received::add, dropped::incrementAndGet);
+        queued.publish(Map.of(usdEur, rate("USD", "EUR", 0.86, "2024-01-16")));
+        deliveries.forEach(Runnable::run);
+
+        // Then
+        assertEquals(2, received.size());
+        assertTrue(received.get(0).json().contains("2024-01-15"));
+        assertTrue(received.get(1).json().contains("2024-01-16"));
+    }
+
+    @Test
+    void publish_shouldKeepDelivering_whenSubscriberFails() {
+        // Given
+        List<RateEvent> received = new ArrayList<>();
+        rateUpdates.subscribe(usdEur, event -> {
+            throw new IllegalStateException("connection closed");
+        }, dropped::incrementAndGet);
+        rateUpdates.subscribe(usdEur, received::add, dropped::incrementAndGet);
+
+        // When
+        rateUpdates.publish(Map.of(usdEur, rate("USD", "EUR", 0.85, "2024-01-15")));
+
+        // Then
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void publish_shouldDropSubscriber_thatFallsBehind() {
+        // Given
+        List<Runnable> deliveries = new ArrayList<>();
+        RateUpdates queued = new RateUpdates(new ObjectMapper(), deliveries::add);
+        List<RateEvent> received = new ArrayList<>();
+        queued.subscribe(usdEur, received::add, dropped::incrementAndGet);
+
+        // When
+        for (int day = 1; day <= RateUpdates.PUBLICATIONS_BEHIND + 1; day++) {
+            queued.publish(Map.of(usdEur, rate("USD", "EUR", 0.85 + day / 100.0, "2024-01-" + (10 + day))));
+        }
+        deliveries.forEach(Runnable::run);
+        queued.publish(Map.of(usdEur, rate("USD", "EUR", 0.9, "2024-01-20")));
+
+        // Then
+        assertTrue(received.isEmpty());
+        assertEquals(1, dropped.get());
+        assertEquals(2, deliveries.size());
+    }
+
+    private static ExchangeRateResponse rate(String currencyFrom, String currencyTo, double rate, String date) {
+        return new ExchangeRateResponse(currencyFrom, currencyTo, rate, date, false);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_shouldRunSupplierOnce_whenCallersOverlap() throws Exception {
+        // Given
+        int callers = 8;
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("USD-EUR", () -> {
+                invocations.incrementAndGet();
+                started.countDown();
+                await(release);
+                return 42;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("USD-EUR", invocations::incrementAndGet)));
+            }
+            while (singleFlight.deduplicated() < callers - 1) {
+                Thread.onSpinWait();
+            }
+
+            // When
+            release.countDown();
+
+            // Then
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(42, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, invocations.get());
+            assertEquals(1, singleFlight.executions());
+            assertEquals(callers - 1, singleFlight.deduplicated());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldRunAgain_whenPreviousCallCompleted() {
+        // When
+        singleFlight.execute("USD-EUR", () -> 1);
+        int result = singleFlight.execute("USD-EUR", () -> 2);
+
+        // Then
+        assertEquals(2, result);
+        assertEquals(2, singleFlight.executions());
+        assertEquals(0, singleFlight.deduplicated());
+    }
+
+    @Test
+    void execute_shouldPropagateException_andReleaseKey() {
+        // When
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("USD-EUR", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        // Then
+        assertEquals(7, singleFlight.execute("USD-EUR", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
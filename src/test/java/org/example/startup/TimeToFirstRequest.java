@@ -0,0 +1,139 @@
+package org.example.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the packaged application and measures how long it takes to answer its first requests, from process start
+ * to the first {@code 200} on {@code /actuator/health}, and then to the first {@code 200} from a rate endpoint,
+ * which also covers the lazily created controller, service and JPA beans behind it. The rate endpoint asked is a
+ * historical range, answered from the stored history, so no call to the Riksbank API is timed. The plain jar is
+ * measured next to the way the {@code prod} profile ships it: AOT-processed, on the class-data-sharing archive from
+ * the training run, with the {@code prod} Spring profile. Runs during {@code mvn -Pprod verify}; the medians are printed and written as JSON.
+ * <p>
+ * Arguments: the packaged jar, the extracted jar, the CDS archive and the report file. {@code -Dstartup.runs} and
+ * {@code -Dstartup.port} override the number of runs per mode and the port the application listens on.
+ */
+public final class TimeToFirstRequest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+    private static final String RATE_PATH = "/api/currency/rates/EUR/SEK?start=2024-01-15&end=2024-01-19";
+
+    private TimeToFirstRequest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: TimeToFirstRequest <jar> <extracted jar> <cds archive> <report>");
+        }
+        int runs = Integer.getInteger("startup.runs", 3);
+        int port = Integer.getInteger("startup.port", 18080);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> common = List.of("--server.port=" + port, "--spring.datasource.url=jdbc:h2:mem:startup");
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("plain", concat(List.of(java, "-jar", args[0]), common));
+        modes.put("prod", concat(List.of(java, "-XX:SharedArchiveFile=" + args[2], "-Dspring.aot.enabled=true",
+                "-jar", args[1], "--spring.profiles.active=prod"), common));
+
+        Map<String, HttpRequest> probes = new LinkedHashMap<>();
+        probes.put("health", HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).GET().build());
+        probes.put("rate", HttpRequest.newBuilder(URI.create("http://localhost:" + port + RATE_PATH)).GET().build());
+
+        Path report = Path.of(args[3]);
+        Map<String, long[][]> results = new LinkedHashMap<>();
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build()) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long[][] millis = new long[probes.size()][runs];
+                for (int run = 0; run < runs; run++) {
+                    Path log = report.resolveSibling("startup-" + mode.getKey() + "-" + run + ".log");
+                    long[] firstRequests = timeToFirstRequests(mode.getValue(), client, List.copyOf(probes.values()), log.toFile());
+                    for (int probe = 0; probe < firstRequests.length; probe++) {
+                        millis[probe][run] = firstRequests[probe];
+                    }
+                }
+                results.put(mode.getKey(), millis);
+            }
+        }
+
+        StringJoiner json = new StringJoiner(",", "{", "}");
+        List<String> probeNames = List.copyOf(probes.keySet());
+        for (Map.Entry<String, long[][]> result : results.entrySet()) {
+            StringJoiner modeJson = new StringJoiner(",", "{", "}");
+            for (int probe = 0; probe < probeNames.size(); probe++) {
+                long[] millis = result.getValue()[probe];
+                System.out.printf("Time to first %s request (%s): median %d ms, runs %s%n",
+                        probeNames.get(probe), result.getKey(), median(millis), Arrays.toString(millis));
+                modeJson.add("\"" + probeNames.get(probe) + "\":{\"medianMillis\":" + median(millis) + ",\"runsMillis\":" + Arrays.toString(millis) + "}");
+            }
+            json.add("\"" + result.getKey() + "\":" + modeJson);
+        }
+        Files.writeString(report, json.toString());
+    }
+
+    /**
+     * Milliseconds from process start to the first {@code 200} of each probe, asked in order.
+     */
+    private static long[] timeToFirstRequests(List<String> command, HttpClient client, List<HttpRequest> probes, File log) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            long[] millis = new long[probes.size()];
+            for (int probe = 0; probe < probes.size(); probe++) {
+                awaitOk(process, client, probes.get(probe), deadline, log);
+                millis[probe] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            return millis;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void awaitOk(Process process, HttpClient client, HttpRequest probe, long deadline, File log) throws InterruptedException {
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not accepting connections yet
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        throw new IllegalStateException("Application did not answer " + probe.uri().getPath() + " within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static long median(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}